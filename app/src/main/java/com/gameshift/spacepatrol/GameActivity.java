@@ -2,10 +2,45 @@ package com.gameshift.spacepatrol;
 
 import android.app.Activity;
 import android.os.Bundle;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.SurfaceView;
 
+import com.gameshift.spacepatrol.game.GameSession;
 import com.gameshift.spacepatrol.game.GameView;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.background.ParallaxLayer;
+import com.gameshift.spacepatrol.game.metrics.MetricsExporter;
+import com.gameshift.spacepatrol.game.net.LockstepSession;
+import com.gameshift.spacepatrol.game.net.UdpTransport;
+import com.gameshift.spacepatrol.game.trace.TraceRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
 
 public class GameActivity extends Activity {
+    private static final String TAG = "GameActivity";
+    public static final String EXTRA_AUTOPILOT = "autopilot";
+    public static final String EXTRA_AUTOPILOT_SPEED = "autopilotSpeed";
+    public static final String EXTRA_BULLET_HELL = "bulletHell";
+    public static final String EXTRA_TRACE = "trace";
+    public static final String EXTRA_MIN_RENDER_SCALE = "minRenderScale";
+    public static final String EXTRA_RECORD_REPLAY = "recordReplay";
+    public static final String EXTRA_BITMAP_BUDGET_KB = "bitmapBudgetKb";
+    public static final String EXTRA_METRICS = "metrics";
+    public static final String EXTRA_METRICS_JSON = "metricsJson";
+    public static final String EXTRA_COOP_PEER = "coopPeer";
+    public static final String EXTRA_COOP_PORT = "coopPort";
+    public static final String EXTRA_COOP_PEER_PORT = "coopPeerPort";
+    public static final String EXTRA_COOP_PLAYER = "coopPlayer";
+    public static final String EXTRA_COOP_SEED = "coopSeed";
+    public static final String EXTRA_COOP_INPUT_DELAY = "coopInputDelay";
+    private static final int TRACE_CAPACITY = 1 << 18;
+    private static final int COOP_DEFAULT_PORT = 47000;
+    private static final int COOP_DEFAULT_INPUT_DELAY = 4;
+    private static final int COOP_WORLD_WIDTH = 720;
+    private static final int COOP_WORLD_HEIGHT = 1280;
 
     private GameView gameView;
 
@@ -14,6 +49,8 @@ public class GameActivity extends Activity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_game);
         gameView = (GameView)findViewById(R.id.gameView);
+        GameApplication application = (GameApplication)getApplication();
+        gameView.setAssetCache(application.getAssetCache());
         int[] bitmapIds = {
                 R.drawable.plane,
                 R.drawable.explosion,
@@ -28,7 +65,69 @@ public class GameActivity extends Activity {
                 R.drawable.pause2,
                 R.drawable.bomb
         };
-        gameView.start(bitmapIds);
+        gameView.setBulletHellIntensity(getIntent().getIntExtra(EXTRA_BULLET_HELL, 0));
+        float minRenderScale = getIntent().getFloatExtra(EXTRA_MIN_RENDER_SCALE, 1);
+        gameView.setRenderScaleRange(minRenderScale, 1);
+        if(minRenderScale < 1){
+            gameView.setWorldSurface((SurfaceView)findViewById(R.id.worldSurface));
+        }
+        if(getIntent().getBooleanExtra(EXTRA_TRACE, false)){
+            gameView.setTraceRecorder(new TraceRecorder(TRACE_CAPACITY, 1));
+        }
+        if(getIntent().getBooleanExtra(EXTRA_RECORD_REPLAY, false)){
+            gameView.setReplayDirectory(new File(getFilesDir(), "replays"));
+        }
+        if(getIntent().getBooleanExtra(EXTRA_METRICS, false)){
+            int format = getIntent().getBooleanExtra(EXTRA_METRICS_JSON, false) ? MetricsExporter.FORMAT_JSON : MetricsExporter.FORMAT_CSV;
+            gameView.setMetricsDirectory(new File(getFilesDir(), "metrics"), format);
+        }
+        int bitmapBudgetKb = getIntent().getIntExtra(EXTRA_BITMAP_BUDGET_KB, 0);
+        if(bitmapBudgetKb > 0){
+            gameView.setBitmapBudget(bitmapBudgetKb * 1024L);
+        }
+        gameView.setBackgroundLayers(new ParallaxLayer[]{
+                new ParallaxLayer(R.raw.parallax_far, 0.5f, true, 0xFFE3E9EB),
+                new ParallaxLayer(R.raw.parallax_near, 1.5f, false, 0)
+        });
+        String coopPeer = getIntent().getStringExtra(EXTRA_COOP_PEER);
+        boolean autopilot = getIntent().getBooleanExtra(EXTRA_AUTOPILOT, false) && coopPeer == null;
+        GameSession session = application.takeSession();
+        if(session != null && !autopilot && coopPeer == null){
+            gameView.resumeSession(session);
+        }else{
+            if(session != null){
+                session.release(application.getAssetCache());
+            }
+            if(coopPeer != null){
+                if(!startCoop(bitmapIds, coopPeer)){
+                    finish();
+                    return;
+                }
+            }else{
+                gameView.start(bitmapIds);
+            }
+        }
+        if(autopilot){
+            int ticksPerFrame = getIntent().getIntExtra(EXTRA_AUTOPILOT_SPEED, 4);
+            gameView.setAutopilot(new AutopilotController(), ticksPerFrame);
+        }
+    }
+
+    private boolean startCoop(int[] bitmapIds, String peer){
+        int port = getIntent().getIntExtra(EXTRA_COOP_PORT, COOP_DEFAULT_PORT);
+        int peerPort = getIntent().getIntExtra(EXTRA_COOP_PEER_PORT, port);
+        int player = getIntent().getIntExtra(EXTRA_COOP_PLAYER, 0);
+        long seed = getIntent().getLongExtra(EXTRA_COOP_SEED, 1);
+        int inputDelay = getIntent().getIntExtra(EXTRA_COOP_INPUT_DELAY, COOP_DEFAULT_INPUT_DELAY);
+        try{
+            UdpTransport transport = new UdpTransport(port, InetAddress.getByName(peer), peerPort);
+            LockstepSession session = new LockstepSession(transport, player, seed, inputDelay);
+            gameView.startCoop(bitmapIds, session, COOP_WORLD_WIDTH, COOP_WORLD_HEIGHT, DisplayMetrics.DENSITY_XHIGH);
+            return true;
+        }catch(IOException e){
+            Log.e(TAG, "Failed to start co-op with " + peer + ":" + peerPort, e);
+            return false;
+        }
     }
 
     @Override
@@ -36,6 +135,7 @@ public class GameActivity extends Activity {
         super.onPause();
         if(gameView != null){
             gameView.pause();
+            gameView.exportTrace(new File(getFilesDir(), "traces"));
         }
     }
 
@@ -43,6 +143,7 @@ public class GameActivity extends Activity {
     protected void onDestroy() {
         super.onDestroy();
         if(gameView != null){
+            ((GameApplication)getApplication()).retainSession(gameView.detachSession());
             gameView.destroy();
         }
         gameView = null;
@@ -0,0 +1,64 @@
+package com.gameshift.spacepatrol;
+
+import android.app.Application;
+import android.util.Log;
+
+import com.gameshift.spacepatrol.game.GameSession;
+import com.gameshift.spacepatrol.game.render.AssetCache;
+import com.gameshift.spacepatrol.game.render.BitmapManager;
+
+public class GameApplication extends Application {
+    private static final String TAG = "GameApplication";
+    private static final int BITMAP_BUDGET_FRACTION = 4;
+
+    private AssetCache assetCache = null;
+    private GameSession session = null;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        assetCache = new AssetCache(new BitmapManager(getResources(), Runtime.getRuntime().maxMemory() / BITMAP_BUDGET_FRACTION));
+    }
+
+    public AssetCache getAssetCache(){
+        return assetCache;
+    }
+
+    public void retainSession(GameSession session){
+        discardSession();
+        this.session = session;
+    }
+
+    public GameSession takeSession(){
+        GameSession session = this.session;
+        this.session = null;
+        return session;
+    }
+
+    public void discardSession(){
+        if(session != null){
+            session.release(assetCache);
+            session = null;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if(level == TRIM_MEMORY_UI_HIDDEN || level < TRIM_MEMORY_RUNNING_LOW){
+            return;
+        }
+        if(level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL){
+            discardSession();
+        }
+        Log.i(TAG, "Trimming assets at level " + level + ", used=" + assetCache.getBitmapManager().getUsedBytes());
+        assetCache.releaseIdle();
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        discardSession();
+        assetCache.releaseIdle();
+    }
+}
@@ -0,0 +1,74 @@
+package com.gameshift.spacepatrol.game;
+
+public class AnimationClip {
+    public static final int LOOP_ONCE = 0;
+    public static final int LOOP_REPEAT = 1;
+    public static final int LOOP_PING_PONG = 2;
+
+    private final SpriteImage image;
+    private final float[] lefts;
+    private final float[] tops;
+    private final float[] widths;
+    private final float[] heights;
+    private final int[] frameTable;
+    private final int loopMode;
+
+    AnimationClip(SpriteImage image, float[] lefts, float[] tops, float[] widths, float[] heights, int[] frameTable, int loopMode){
+        this.image = image;
+        this.lefts = lefts;
+        this.tops = tops;
+        this.widths = widths;
+        this.heights = heights;
+        this.frameTable = frameTable;
+        this.loopMode = loopMode;
+    }
+
+    public SpriteImage getImage(){
+        return image;
+    }
+
+    public int getFrameCount(){
+        return lefts.length;
+    }
+
+    public int getDuration(){
+        return frameTable.length;
+    }
+
+    public int getLoopMode(){
+        return loopMode;
+    }
+
+    public boolean isFinished(int tick){
+        return loopMode == LOOP_ONCE && tick >= frameTable.length;
+    }
+
+    public int frameAt(int tick){
+        if(tick <= 0){
+            return frameTable[0];
+        }
+        if(tick >= frameTable.length){
+            if(loopMode == LOOP_ONCE){
+                return frameTable[frameTable.length - 1];
+            }
+            tick %= frameTable.length;
+        }
+        return frameTable[tick];
+    }
+
+    public float getLeft(int frame){
+        return lefts[frame];
+    }
+
+    public float getTop(int frame){
+        return tops[frame];
+    }
+
+    public float getWidth(int frame){
+        return widths[frame];
+    }
+
+    public float getHeight(int frame){
+        return heights[frame];
+    }
+}
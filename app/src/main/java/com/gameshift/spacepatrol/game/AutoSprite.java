@@ -1,16 +1,20 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.RectF;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class AutoSprite extends Sprite {
 
     private float speed = 2;
+    private MotionPath path = null;
+    private float pathDistance = 0;
+    private float originX = 0;
+    private float originY = 0;
+    private boolean pathStarted = false;
 
-    public AutoSprite(Bitmap bitmap){
-        super(bitmap);
+    public AutoSprite(SpriteImage image){
+        super(image);
     }
 
     public void setSpeed(float speed){
@@ -21,20 +25,73 @@ public class AutoSprite extends Sprite {
         return speed;
     }
 
+    public void followPath(MotionPath path){
+        this.path = path;
+        this.pathDistance = 0;
+        this.pathStarted = false;
+    }
+
+    public MotionPath getPath(){
+        return path;
+    }
+
+    public boolean isPathFinished(){
+        return path == null || pathDistance >= path.getLength();
+    }
+
+    public float predictX(float ticks, float density){
+        if(path == null || !pathStarted){
+            return getX();
+        }
+        float distance = pathDistance + speed * path.getSpeed(pathDistance) * ticks;
+        return originX + path.getX(distance) * density;
+    }
+
+    @Override
+    void saveState(DataOutput out) throws IOException {
+        super.saveState(out);
+        out.writeFloat(speed);
+        out.writeByte(MotionPaths.indexOf(path));
+        out.writeFloat(pathDistance);
+        out.writeFloat(originX);
+        out.writeFloat(originY);
+        out.writeBoolean(pathStarted);
+    }
+
     @Override
-    protected void beforeDraw(Canvas canvas, Paint paint, GameView gameView) {
+    void loadState(DataInput in) throws IOException {
+        super.loadState(in);
+        speed = in.readFloat();
+        path = MotionPaths.get(in.readByte());
+        pathDistance = in.readFloat();
+        originX = in.readFloat();
+        originY = in.readFloat();
+        pathStarted = in.readBoolean();
+    }
+
+    @Override
+    protected void beforeUpdate(GameWorld world) {
         if(!isDestroyed()){
-            move(0, speed * gameView.getDensity());
+            float density = world.getDensity();
+            if(path == null){
+                move(0, speed * density);
+            }else{
+                if(!pathStarted){
+                    originX = getX();
+                    originY = getY();
+                    pathStarted = true;
+                }
+                pathDistance += speed * path.getSpeed(pathDistance);
+                moveTo(originX + path.getX(pathDistance) * density, originY + path.getY(pathDistance) * density);
+            }
         }
     }
 
-    protected void afterDraw(Canvas canvas, Paint paint, GameView gameView){
+    protected void afterUpdate(GameWorld world){
         if(!isDestroyed()){
-            RectF canvasRecF = new RectF(0, 0, canvas.getWidth(), canvas.getHeight());
-            RectF spriteRecF = getRectF();
-            if(!RectF.intersects(canvasRecF, spriteRecF)){
+            if(!isInside(world.getWidth(), world.getHeight()) && isPathFinished()){
                 destroy();
             }
         }
     }
-}
\ No newline at end of file
+}
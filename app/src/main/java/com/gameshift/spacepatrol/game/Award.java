@@ -1,45 +1,23 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-
 public class Award extends AutoSprite {
-    public static int STATUS_DOWN1 = 1;
-    public static int STATUS_UP2 = 2;
-    public static int STATUS_DOWN3 = 3;
-
-    private int status = STATUS_DOWN1;
-
-    public Award(Bitmap bitmap){
-        super(bitmap);
+    public Award(SpriteImage image){
+        super(image);
         setSpeed(7);
+        followPath(MotionPaths.AWARD);
     }
 
     @Override
-    protected void afterDraw(Canvas canvas, Paint paint, GameView gameView) {
+    public int getLayer() {
+        return LAYER_AWARD;
+    }
+
+    @Override
+    protected void afterUpdate(GameWorld world) {
         if(!isDestroyed()){
-            int canvasHeight = canvas.getHeight();
-            if(status != STATUS_DOWN3){
-                float maxY = getY() + getHeight();
-                if(status == STATUS_DOWN1){
-                    if(maxY >= canvasHeight * 0.25){
-                        setSpeed(-5);
-                        status = STATUS_UP2;
-                    }
-                }
-                else if(status == STATUS_UP2){
-                    if(maxY+this.getSpeed() <= 0){
-                        setSpeed(13);
-                        status = STATUS_DOWN3;
-                    }
-                }
-            }
-            if(status == STATUS_DOWN3){
-                if(getY() >= canvasHeight){
-                    destroy();
-                }
+            if(isPathFinished() && getY() >= world.getHeight()){
+                destroy();
             }
         }
     }
-}
\ No newline at end of file
+}
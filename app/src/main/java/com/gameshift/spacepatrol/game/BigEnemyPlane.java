@@ -1,12 +1,22 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
 public class BigEnemyPlane extends EnemyPlane {
 
-    public BigEnemyPlane(Bitmap bitmap){
-        super(bitmap);
+    public BigEnemyPlane(SpriteImage image){
+        super(image);
         setPower(10);
         setValue(30000);
     }
 
+    @Override
+    protected int getFireInterval() {
+        return 6;
+    }
+
+    @Override
+    protected void fire(GameWorld world, ProjectileStore projectiles, float centerX, float centerY, int intensity) {
+        float speed = 2.5f * world.getDensity();
+        projectiles.spawnRing(centerX, centerY, intensity * 2, speed, getFrame() * 0.2f);
+    }
+
 }
\ No newline at end of file
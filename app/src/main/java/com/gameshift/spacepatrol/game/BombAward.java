@@ -1,11 +1,9 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-
 public class BombAward extends Award {
 
-    public BombAward(Bitmap bitmap){
-        super(bitmap);
+    public BombAward(SpriteImage image){
+        super(image);
     }
 
 }
\ No newline at end of file
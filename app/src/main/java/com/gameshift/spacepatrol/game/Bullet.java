@@ -1,12 +1,18 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-
 public class Bullet extends AutoSprite {
 
-    public Bullet(Bitmap bitmap){
-        super(bitmap);
+    public Bullet(SpriteImage image){
+        super(image);
         setSpeed(-10);
     }
 
+    @Override
+    public int getLayer() {
+        return LAYER_BULLET;
+    }
+
+    @Override
+    protected void afterUpdate(GameWorld world) {}
+
 }
\ No newline at end of file
@@ -1,11 +1,9 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-
 public class BulletAward extends Award {
 
-    public BulletAward(Bitmap bitmap){
-        super(bitmap);
+    public BulletAward(SpriteImage image){
+        super(image);
     }
 
 }
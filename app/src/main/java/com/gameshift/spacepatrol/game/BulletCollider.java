@@ -0,0 +1,99 @@
+package com.gameshift.spacepatrol.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class BulletCollider {
+    static final float NO_HIT = -1;
+
+    private final List<EnemyPlane> candidates = new ArrayList<EnemyPlane>();
+    private float enemyStep = 0;
+
+    void beginTick(){
+        enemyStep = 0;
+    }
+
+    void trackEnemy(EnemyPlane enemyPlane){
+        float stepX = Math.abs(enemyPlane.getX() - enemyPlane.getPreviousX());
+        float stepY = Math.abs(enemyPlane.getY() - enemyPlane.getPreviousY());
+        enemyStep = Math.max(enemyStep, Math.max(stepX, stepY));
+    }
+
+    void resolve(GameWorld world, List<Sprite> sprites, SpatialIndex<EnemyPlane> enemyIndex){
+        int width = world.getWidth();
+        int height = world.getHeight();
+        for(int i = 0; i < sprites.size(); i++){
+            Sprite s = sprites.get(i);
+            if(s.isDestroyed() || !(s instanceof Bullet)){
+                continue;
+            }
+            Bullet bullet = (Bullet)s;
+            EnemyPlane target = findFirstHit(bullet, enemyIndex);
+            if(target != null){
+                world.getEvents().post(GameEventQueue.TYPE_HIT, target, bullet, 1);
+            }else if(!bullet.isInside(width, height)){
+                bullet.destroy();
+            }
+        }
+        candidates.clear();
+    }
+
+    private EnemyPlane findFirstHit(Bullet bullet, SpatialIndex<EnemyPlane> enemyIndex){
+        float fromX = bullet.getPreviousX();
+        float fromY = bullet.getPreviousY();
+        float stepX = bullet.getX() - fromX;
+        float stepY = bullet.getY() - fromY;
+        float width = bullet.getWidth();
+        float height = bullet.getHeight();
+        float left = Math.min(fromX, bullet.getX()) - enemyStep;
+        float top = Math.min(fromY, bullet.getY()) - enemyStep;
+        float right = Math.max(fromX, bullet.getX()) + width + enemyStep;
+        float bottom = Math.max(fromY, bullet.getY()) + height + enemyStep;
+        candidates.clear();
+        enemyIndex.queryBox(left, top, right, bottom, candidates);
+        EnemyPlane first = null;
+        float firstTime = 2;
+        for(int i = 0; i < candidates.size(); i++){
+            EnemyPlane enemyPlane = candidates.get(i);
+            float enemyX = enemyPlane.getPreviousX();
+            float enemyY = enemyPlane.getPreviousY();
+            float time = timeOfImpact(fromX, fromY, width, height, stepX, stepY,
+                    enemyX, enemyY, enemyPlane.getWidth(), enemyPlane.getHeight(),
+                    enemyPlane.getX() - enemyX, enemyPlane.getY() - enemyY);
+            if(time != NO_HIT && time < firstTime){
+                firstTime = time;
+                first = enemyPlane;
+            }
+        }
+        return first;
+    }
+
+    static float timeOfImpact(float aX, float aY, float aWidth, float aHeight, float aStepX, float aStepY,
+                              float bX, float bY, float bWidth, float bHeight, float bStepX, float bStepY){
+        float velocityX = aStepX - bStepX;
+        float velocityY = aStepY - bStepY;
+        float entry = 0;
+        float exit = 1;
+        if(velocityX == 0){
+            if(aX >= bX + bWidth || aX + aWidth <= bX){
+                return NO_HIT;
+            }
+        }else{
+            float near = velocityX > 0 ? bX - (aX + aWidth) : bX + bWidth - aX;
+            float far = velocityX > 0 ? bX + bWidth - aX : bX - (aX + aWidth);
+            entry = Math.max(entry, near / velocityX);
+            exit = Math.min(exit, far / velocityX);
+        }
+        if(velocityY == 0){
+            if(aY >= bY + bHeight || aY + aHeight <= bY){
+                return NO_HIT;
+            }
+        }else{
+            float near = velocityY > 0 ? bY - (aY + aHeight) : bY + bHeight - aY;
+            float far = velocityY > 0 ? bY + bHeight - aY : bY - (aY + aHeight);
+            entry = Math.max(entry, near / velocityY);
+            exit = Math.min(exit, far / velocityY);
+        }
+        return entry < exit ? entry : NO_HIT;
+    }
+}
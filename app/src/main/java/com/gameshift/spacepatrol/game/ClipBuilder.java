@@ -0,0 +1,67 @@
+package com.gameshift.spacepatrol.game;
+
+import java.util.Arrays;
+
+public class ClipBuilder {
+    private final SpriteImage image;
+    private float[] lefts = new float[16];
+    private float[] tops = new float[16];
+    private float[] widths = new float[16];
+    private float[] heights = new float[16];
+    private int[] durations = new int[16];
+    private int count = 0;
+
+    public ClipBuilder(SpriteImage image){
+        this.image = image;
+    }
+
+    public ClipBuilder frame(float left, float top, float width, float height, int duration){
+        if(duration <= 0){
+            throw new IllegalArgumentException("Frame duration must be positive: " + duration);
+        }
+        if(count == lefts.length){
+            lefts = Arrays.copyOf(lefts, count * 2);
+            tops = Arrays.copyOf(tops, count * 2);
+            widths = Arrays.copyOf(widths, count * 2);
+            heights = Arrays.copyOf(heights, count * 2);
+            durations = Arrays.copyOf(durations, count * 2);
+        }
+        lefts[count] = left;
+        tops[count] = top;
+        widths[count] = width;
+        heights[count] = height;
+        durations[count] = duration;
+        count++;
+        return this;
+    }
+
+    public ClipBuilder strip(int frames, int duration){
+        float width = (float)image.getWidth() / frames;
+        for(int i = 0; i < frames; i++){
+            frame((int)(i * width), 0, width, image.getHeight(), duration);
+        }
+        return this;
+    }
+
+    public AnimationClip build(int loopMode){
+        if(count == 0){
+            throw new IllegalStateException("A clip needs at least one frame");
+        }
+        int[] sequence = new int[loopMode == AnimationClip.LOOP_PING_PONG ? Math.max(count * 2 - 2, 1) : count];
+        for(int i = 0; i < sequence.length; i++){
+            sequence[i] = i < count ? i : count * 2 - 2 - i;
+        }
+        int duration = 0;
+        for(int frame : sequence){
+            duration += durations[frame];
+        }
+        int[] frameTable = new int[duration];
+        int tick = 0;
+        for(int frame : sequence){
+            Arrays.fill(frameTable, tick, tick + durations[frame], frame);
+            tick += durations[frame];
+        }
+        return new AnimationClip(image, Arrays.copyOf(lefts, count), Arrays.copyOf(tops, count),
+                Arrays.copyOf(widths, count), Arrays.copyOf(heights, count), frameTable, loopMode);
+    }
+}
@@ -1,166 +1,293 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Point;
-import android.graphics.RectF;
+import com.gameshift.spacepatrol.game.audio.SoundBank;
+import com.gameshift.spacepatrol.game.telemetry.TelemetryRing;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
-public class CombatAircraft extends Sprite {
+public class CombatAircraft extends Sprite implements TimerTarget {
+    private static final int ACTION_FIRE = 0;
+    private static final int ACTION_DOUBLE_EXPIRE = 1;
+    private static final int ACTION_FLUSH = 2;
+
     private boolean collide = false;
+    private boolean invulnerable = false;
     private int bombAwardCount = 0;
 
     private boolean single = true;
-    private int doubleTime = 0;
+    private int fireFrequency = 7;
+    private int missileFrequency = 14;
     private int maxDoubleTime = 140;
+    private long doubleEndFrame = 0;
+    private int missileTime = 0;
+    private int maxMissileTime = 40;
+    private final List<EnemyPlane> nearbyEnemies = new ArrayList<EnemyPlane>();
 
-    private long beginFlushFrame = 0;
+    private long nextFlushFrame = 0;
     private int flushTime = 0;
     private int flushFrequency = 16;
     private int maxFlushTime = 10;
 
-    public CombatAircraft(Bitmap bitmap){
-        super(bitmap);
+    private TimerWheel timers = null;
+    private int fireTimer = TimerWheel.NO_TIMER;
+    private int doubleTimer = TimerWheel.NO_TIMER;
+    private int flushTimer = TimerWheel.NO_TIMER;
+
+    public CombatAircraft(SpriteImage image){
+        super(image);
     }
 
     @Override
-    protected void beforeDraw(Canvas canvas, Paint paint, GameView gameView) {
+    public int getLayer() {
+        return LAYER_AIRCRAFT;
+    }
+
+    @Override
+    protected void beforeUpdate(GameWorld world) {
         if(!isDestroyed()){
-            validatePosition(canvas);
-            if(getFrame() % 7 == 0){
-                fight(gameView);
-            }
+            validatePosition(world);
+        }
+    }
+
+    @Override
+    void scheduleTimers(GameWorld world) {
+        timers = world.getTimers();
+        long frame = world.getFrame();
+        fireTimer = timers.schedule((frame / fireFrequency + 1) * fireFrequency, this, ACTION_FIRE);
+        if(doubleEndFrame > 0){
+            doubleTimer = timers.schedule(doubleEndFrame, this, ACTION_DOUBLE_EXPIRE);
+        }
+        if(nextFlushFrame > 0){
+            flushTimer = timers.schedule(nextFlushFrame, this, ACTION_FLUSH);
+        }
+    }
+
+    @Override
+    public void onTimer(GameWorld world, int action) {
+        switch(action){
+            case ACTION_FIRE:
+                fireTimer = TimerWheel.NO_TIMER;
+                if(!isDestroyed()){
+                    validatePosition(world);
+                    fight(world);
+                    fireTimer = timers.schedule(world.getFrame() + fireFrequency, this, ACTION_FIRE);
+                }
+                break;
+            case ACTION_DOUBLE_EXPIRE:
+                doubleTimer = TimerWheel.NO_TIMER;
+                doubleEndFrame = 0;
+                single = true;
+                break;
+            case ACTION_FLUSH:
+                flushTimer = TimerWheel.NO_TIMER;
+                setVisibility(!getVisibility());
+                flushTime++;
+                if(flushTime >= maxFlushTime){
+                    nextFlushFrame = 0;
+                    destroy();
+                }else{
+                    nextFlushFrame += flushFrequency;
+                    flushTimer = timers.schedule(nextFlushFrame, this, ACTION_FLUSH);
+                }
+                break;
         }
     }
 
-    private void validatePosition(Canvas canvas){
+    @Override
+    public void destroy() {
+        super.destroy();
+        if(timers != null){
+            timers.cancel(fireTimer);
+            timers.cancel(doubleTimer);
+            timers.cancel(flushTimer);
+            fireTimer = TimerWheel.NO_TIMER;
+            doubleTimer = TimerWheel.NO_TIMER;
+            flushTimer = TimerWheel.NO_TIMER;
+        }
+    }
+
+    private void validatePosition(GameWorld world){
         if(getX() < 0){
             setX(0);
         }
         if(getY() < 0){
             setY(0);
         }
-        RectF rectF = getRectF();
-        int canvasWidth = canvas.getWidth();
-        if(rectF.right > canvasWidth){
+        int canvasWidth = world.getWidth();
+        if(getX() + getWidth() > canvasWidth){
             setX(canvasWidth - getWidth());
         }
-        int canvasHeight = canvas.getHeight();
-        if(rectF.bottom > canvasHeight){
+        int canvasHeight = world.getHeight();
+        if(getY() + getHeight() > canvasHeight){
             setY(canvasHeight - getHeight());
         }
     }
 
-    public void fight(GameView gameView){
+    public void fight(GameWorld world){
         if(collide || isDestroyed()){
             return;
         }
         float x = getX() + getWidth() / 2;
         float y = getY() - 5;
+        world.playSound(SoundBank.SOUND_FIRE);
         if(single){
-            Bitmap yellowBulletBitmap = gameView.getYellowBulletBitmap();
-            Bullet yellowBullet = new Bullet(yellowBulletBitmap);
+            SpriteImage yellowBulletImage = world.getYellowBulletImage();
+            Bullet yellowBullet = new Bullet(yellowBulletImage);
             yellowBullet.moveTo(x, y);
-            gameView.addSprite(yellowBullet);
+            world.addSprite(yellowBullet);
         }
         else{
             float offset = getWidth() / 4;
             float leftX = x - offset;
             float rightX = x + offset;
-            Bitmap blueBulletBitmap = gameView.getBlueBulletBitmap();
+            SpriteImage blueBulletImage = world.getBlueBulletImage();
 
-            Bullet leftBlueBullet = new Bullet(blueBulletBitmap);
+            Bullet leftBlueBullet = new Bullet(blueBulletImage);
             leftBlueBullet.moveTo(leftX, y);
-            gameView.addSprite(leftBlueBullet);
+            world.addSprite(leftBlueBullet);
 
-            Bullet rightBlueBullet = new Bullet(blueBulletBitmap);
+            Bullet rightBlueBullet = new Bullet(blueBulletImage);
             rightBlueBullet.moveTo(rightX, y);
-            gameView.addSprite(rightBlueBullet);
-
-            doubleTime++;
-            if(doubleTime >= maxDoubleTime){
-                single = true;
-                doubleTime = 0;
-            }
+            world.addSprite(rightBlueBullet);
+        }
+        if(missileTime > 0 && world.getFrame() % missileFrequency == 0){
+            fireMissiles(world, x, y);
         }
     }
+
+    private void fireMissiles(GameWorld world, float x, float y){
+        SpriteImage image = world.getBlueBulletImage();
+        float offset = getWidth() / 3;
+        HomingMissile leftMissile = new HomingMissile(image, (float)(-Math.PI * 0.75));
+        leftMissile.moveTo(x - offset, y);
+        world.addSprite(leftMissile);
+        HomingMissile rightMissile = new HomingMissile(image, (float)(-Math.PI * 0.25));
+        rightMissile.moveTo(x + offset, y);
+        world.addSprite(rightMissile);
+        missileTime--;
+    }
 	
-    protected void afterDraw(Canvas canvas, Paint paint, GameView gameView){
+    protected void afterUpdate(GameWorld world){
         if(isDestroyed()){
             return;
         }
-        if(!collide){
-            List<EnemyPlane> enemies = gameView.getAliveEnemyPlanes();
-            for(EnemyPlane enemyPlane : enemies){
-                Point p = getCollidePointWithOther(enemyPlane);
-                if(p != null){
-                    explode(gameView);
+        if(!collide && !invulnerable){
+            nearbyEnemies.clear();
+            world.getEnemyIndex().queryBox(getX(), getY(), getX() + getWidth(), getY() + getHeight(), nearbyEnemies);
+            for(int i = 0; i < nearbyEnemies.size(); i++){
+                EnemyPlane enemyPlane = nearbyEnemies.get(i);
+                if(isCollideWith(enemyPlane)){
+                    world.getEvents().post(GameEventQueue.TYPE_HIT, this, enemyPlane, 1);
                     break;
                 }
             }
-        }
-        if(beginFlushFrame > 0){
-            long frame = getFrame();
-            if(frame >= beginFlushFrame){
-                if((frame - beginFlushFrame) % flushFrequency == 0){
-                    boolean visible = getVisibility();
-                    setVisibility(!visible);
-                    flushTime++;
-                    if(flushTime >= maxFlushTime){
-                        destroy();
-                    }
-                }
-            }
+            nearbyEnemies.clear();
         }
         if(!collide){
-            List<BombAward> bombAwards = gameView.getAliveBombAwards();
+            List<BombAward> bombAwards = world.getAliveBombAwards();
             for(BombAward bombAward : bombAwards){
-                Point p = getCollidePointWithOther(bombAward);
-                if(p != null){
-                    bombAwardCount++;
-                    bombAward.destroy();
+                if(isCollideWith(bombAward)){
+                    world.getEvents().post(GameEventQueue.TYPE_PICKUP, bombAward, this, 0);
                 }
             }
-            List<BulletAward> bulletAwards = gameView.getAliveBulletAwards();
+            List<BulletAward> bulletAwards = world.getAliveBulletAwards();
             for(BulletAward bulletAward : bulletAwards){
-                Point p = getCollidePointWithOther(bulletAward);
-                if(p != null){
-                    bulletAward.destroy();
-                    single = false;
-                    doubleTime = 0;
+                if(isCollideWith(bulletAward)){
+                    world.getEvents().post(GameEventQueue.TYPE_PICKUP, bulletAward, this, 0);
                 }
             }
         }
     }
+
+    void pickUp(GameWorld world, Award award){
+        if(collide || isDestroyed()){
+            return;
+        }
+        if(award instanceof BombAward){
+            bombAwardCount++;
+            world.recordEvent(TelemetryRing.TYPE_PICKUP, award, this, bombAwardCount);
+        }else{
+            world.recordEvent(TelemetryRing.TYPE_PICKUP, award, this, 0);
+            single = false;
+            missileTime = maxMissileTime;
+            long firstDoubleFrame = (world.getFrame() / fireFrequency + 1) * fireFrequency;
+            doubleEndFrame = firstDoubleFrame + (maxDoubleTime - 1) * fireFrequency + 1;
+            timers.cancel(doubleTimer);
+            doubleTimer = timers.schedule(doubleEndFrame, this, ACTION_DOUBLE_EXPIRE);
+        }
+        award.destroy();
+        world.playSound(SoundBank.SOUND_AWARD);
+    }
 	
-    private void explode(GameView gameView){
+    @Override
+    void onHit(GameWorld world, Sprite source, int damage){
+        if(!invulnerable){
+            explode(world);
+        }
+    }
+
+    private void explode(GameWorld world){
         if(!collide){
             collide = true;
             setVisibility(false);
+            world.playSound(SoundBank.SOUND_EXPLOSION);
+            world.recordEvent(TelemetryRing.TYPE_DEATH, this, this, world.getScore());
             float centerX = getX() + getWidth() / 2;
             float centerY = getY() + getHeight() / 2;
-            Explosion explosion = new Explosion(gameView.getExplosionBitmap());
+            Explosion explosion = new Explosion(world.getExplosionClip());
             explosion.centerTo(centerX, centerY);
-            gameView.addSprite(explosion);
-            beginFlushFrame = getFrame() + explosion.getExplodeDurationFrame();
+            world.addSprite(explosion);
+            nextFlushFrame = world.getFrame() + explosion.getExplodeDurationFrame();
+            flushTimer = timers.schedule(nextFlushFrame, this, ACTION_FLUSH);
         }
     }
 
+    @Override
+    void saveState(DataOutput out) throws IOException {
+        super.saveState(out);
+        out.writeBoolean(collide);
+        out.writeBoolean(invulnerable);
+        out.writeInt(bombAwardCount);
+        out.writeBoolean(single);
+        out.writeLong(doubleEndFrame);
+        out.writeInt(missileTime);
+        out.writeLong(nextFlushFrame);
+        out.writeInt(flushTime);
+    }
+
+    @Override
+    void loadState(DataInput in) throws IOException {
+        super.loadState(in);
+        collide = in.readBoolean();
+        invulnerable = in.readBoolean();
+        bombAwardCount = in.readInt();
+        single = in.readBoolean();
+        doubleEndFrame = in.readLong();
+        missileTime = in.readInt();
+        nextFlushFrame = in.readLong();
+        flushTime = in.readInt();
+    }
+
     public int getBombCount(){
         return bombAwardCount;
     }
 
-    public void bomb(GameView gameView){
+    public void bomb(GameWorld world){
         if(collide || isDestroyed()){
             return;
         }
         if(bombAwardCount > 0){
-            List<EnemyPlane> enemyPlanes = gameView.getAliveEnemyPlanes();
+            world.playSound(SoundBank.SOUND_BOMB);
+            List<EnemyPlane> enemyPlanes = world.getAliveEnemyPlanes();
+            world.recordEvent(TelemetryRing.TYPE_BOMB, this, this, enemyPlanes.size());
             for(EnemyPlane enemyPlane : enemyPlanes){
-                enemyPlane.explode(gameView);
+                world.getEvents().post(GameEventQueue.TYPE_KILL, enemyPlane, this, enemyPlane.getValue());
             }
+            world.getProjectiles().clear();
             bombAwardCount--;
         }
     }
@@ -172,4 +299,12 @@ public class CombatAircraft extends Sprite {
     public void setNotCollide(){
         collide = false;
     }
+
+    public void setInvulnerable(boolean invulnerable){
+        this.invulnerable = invulnerable;
+    }
+
+    public boolean isVulnerable(){
+        return !collide && !invulnerable && !isDestroyed();
+    }
 }
\ No newline at end of file
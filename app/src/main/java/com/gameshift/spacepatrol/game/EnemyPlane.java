@@ -1,19 +1,25 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Point;
+import com.gameshift.spacepatrol.game.audio.SoundBank;
+import com.gameshift.spacepatrol.game.telemetry.TelemetryRing;
 
-import java.util.List;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class EnemyPlane extends AutoSprite {
 
     private int power = 1;
     private int value = 0;
+    private int spatialProxy = SpatialIndex.NULL_PROXY;
 
-    public EnemyPlane(Bitmap bitmap){
-        super(bitmap);
+    public EnemyPlane(SpriteImage image){
+        super(image);
+    }
+
+    @Override
+    public int getLayer() {
+        return LAYER_ENEMY;
     }
 
     public void setPower(int power){
@@ -32,33 +38,68 @@ public class EnemyPlane extends AutoSprite {
         return value;
     }
 
+    int getSpatialProxy(){
+        return spatialProxy;
+    }
+
+    void setSpatialProxy(int spatialProxy){
+        this.spatialProxy = spatialProxy;
+    }
+
+    @Override
+    void saveState(DataOutput out) throws IOException {
+        super.saveState(out);
+        out.writeInt(power);
+    }
+
+    @Override
+    void loadState(DataInput in) throws IOException {
+        super.loadState(in);
+        power = in.readInt();
+    }
+
     @Override
-    protected void afterDraw(Canvas canvas, Paint paint, GameView gameView) {
-        super.afterDraw(canvas, paint, gameView);
+    protected void afterUpdate(GameWorld world) {
+        super.afterUpdate(world);
         if(!isDestroyed()){
-            List<Bullet> bullets = gameView.getAliveBullets();
-            for(Bullet bullet : bullets){
-                Point p = getCollidePointWithOther(bullet);
-                if(p != null){
-                    bullet.destroy();
-                    power--;
-                    if(power <= 0){
-                        explode(gameView);
-                        return;
-                    }
-                }
+            int fireInterval = getFireInterval();
+            if(world.isBulletHell() && fireInterval > 0 && getY() > 0 && getFrame() % fireInterval == 0){
+                float centerX = getX() + getWidth() / 2;
+                float centerY = getY() + getHeight() / 2;
+                fire(world, world.getProjectiles(), centerX, centerY, world.getBulletHellIntensity());
             }
         }
     }
 
-    public void explode(GameView gameView){
+    protected int getFireInterval(){
+        return 0;
+    }
+
+    protected void fire(GameWorld world, ProjectileStore projectiles, float centerX, float centerY, int intensity){}
+
+    @Override
+    void onHit(GameWorld world, Sprite source, int damage){
+        if(power <= 0){
+            return;
+        }
+        if(source != null){
+            source.destroy();
+        }
+        power -= damage;
+        if(power <= 0){
+            world.getEvents().post(GameEventQueue.TYPE_KILL, this, source, value);
+        }
+    }
+
+    public void explode(GameWorld world){
         float centerX = getX() + getWidth() / 2;
         float centerY = getY() + getHeight() / 2;
-        Bitmap bitmap = gameView.getExplosionBitmap();
-        Explosion explosion = new Explosion(bitmap);
+        Explosion explosion = new Explosion(world.getExplosionClip());
         explosion.centerTo(centerX, centerY);
-        gameView.addSprite(explosion);
-        gameView.addScore(value);
+        world.addSprite(explosion);
+        world.getEvents().post(GameEventQueue.TYPE_SCORE, this, null, value);
+        world.playSound(SoundBank.SOUND_EXPLOSION);
+        world.recordEvent(TelemetryRing.TYPE_KILL, this, null, value);
         destroy();
     }
-}
\ No newline at end of file
+}
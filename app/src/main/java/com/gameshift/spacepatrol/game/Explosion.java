@@ -1,50 +1,61 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Rect;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
-public class Explosion extends Sprite {
+public class Explosion extends Sprite implements TimerTarget {
 
-    private int segment = 14;
-    private int level = 0;
-    private int explodeFrequency = 2;
+    private long endFrame = 0;
+    private TimerWheel timers = null;
+    private int endTimer = TimerWheel.NO_TIMER;
 
-    public Explosion(Bitmap bitmap){
-        super(bitmap);
+    public Explosion(AnimationClip clip){
+        super(clip);
     }
 
     @Override
-    public float getWidth() {
-        Bitmap bitmap = getBitmap();
-        if(bitmap != null){
-            return bitmap.getWidth() / segment;
+    public int getLayer() {
+        return LAYER_EXPLOSION;
+    }
+
+    @Override
+    void saveState(DataOutput out) throws IOException {
+        super.saveState(out);
+        out.writeLong(endFrame);
+    }
+
+    @Override
+    void loadState(DataInput in) throws IOException {
+        super.loadState(in);
+        endFrame = in.readLong();
+    }
+
+    @Override
+    void scheduleTimers(GameWorld world) {
+        if(endFrame == 0){
+            endFrame = world.getFrame() + getExplodeDurationFrame();
         }
-        return 0;
+        timers = world.getTimers();
+        endTimer = timers.schedule(endFrame, this, 0);
     }
 
     @Override
-    public Rect getBitmapSrcRec() {
-        Rect rect = super.getBitmapSrcRec();
-        int left = (int)(level * getWidth());
-        rect.offsetTo(left, 0);
-        return rect;
+    public void onTimer(GameWorld world, int action) {
+        endTimer = TimerWheel.NO_TIMER;
+        destroy();
     }
 
     @Override
-    protected void afterDraw(Canvas canvas, Paint paint, GameView gameView) {
-        if(!isDestroyed()){
-            if(getFrame() % explodeFrequency == 0){
-                level++;
-                if(level >= segment){
-                    destroy();
-                }
-            }
+    public void destroy() {
+        super.destroy();
+        if(timers != null){
+            timers.cancel(endTimer);
+            endTimer = TimerWheel.NO_TIMER;
         }
     }
-	
+
     public int getExplodeDurationFrame(){
-        return segment * explodeFrequency;
+        return getClip().getDuration();
     }
-}
\ No newline at end of file
+}
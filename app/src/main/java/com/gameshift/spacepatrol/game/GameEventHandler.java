@@ -0,0 +1,5 @@
+package com.gameshift.spacepatrol.game;
+
+public interface GameEventHandler {
+    void onEvent(GameWorld world, Sprite subject, Sprite source, int value);
+}
@@ -0,0 +1,74 @@
+package com.gameshift.spacepatrol.game;
+
+import java.util.Arrays;
+
+public class GameEventQueue {
+    public static final int TYPE_HIT = 0;
+    public static final int TYPE_KILL = 1;
+    public static final int TYPE_PICKUP = 2;
+    public static final int TYPE_SPAWN = 3;
+    public static final int TYPE_SCORE = 4;
+    public static final int TYPE_COUNT = 5;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final GameEventHandler[] handlers = new GameEventHandler[TYPE_COUNT];
+    private final long[] dispatched = new long[TYPE_COUNT];
+    private int[] types = new int[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private Sprite[] subjects = new Sprite[INITIAL_CAPACITY];
+    private Sprite[] sources = new Sprite[INITIAL_CAPACITY];
+    private int count = 0;
+
+    public void setHandler(int type, GameEventHandler handler){
+        handlers[type] = handler;
+    }
+
+    public GameEventHandler getHandler(int type){
+        return handlers[type];
+    }
+
+    public int size(){
+        return count;
+    }
+
+    public long getDispatched(int type){
+        return dispatched[type];
+    }
+
+    public void post(int type, Sprite subject, Sprite source, int value){
+        if(count == types.length){
+            int capacity = count * 2;
+            types = Arrays.copyOf(types, capacity);
+            values = Arrays.copyOf(values, capacity);
+            subjects = Arrays.copyOf(subjects, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+        }
+        types[count] = type;
+        values[count] = value;
+        subjects[count] = subject;
+        sources[count] = source;
+        count++;
+    }
+
+    public void dispatch(GameWorld world){
+        for(int i = 0; i < count; i++){
+            int type = types[i];
+            Sprite subject = subjects[i];
+            Sprite source = sources[i];
+            subjects[i] = null;
+            sources[i] = null;
+            dispatched[type]++;
+            GameEventHandler handler = handlers[type];
+            if(handler != null){
+                handler.onEvent(world, subject, source, values[i]);
+            }
+        }
+        count = 0;
+    }
+
+    public void clear(){
+        Arrays.fill(subjects, 0, count, null);
+        Arrays.fill(sources, 0, count, null);
+        count = 0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gameshift.spacepatrol.game;
+
+import com.gameshift.spacepatrol.game.metrics.Counter;
+import com.gameshift.spacepatrol.game.metrics.Gauge;
+import com.gameshift.spacepatrol.game.metrics.Histogram;
+import com.gameshift.spacepatrol.game.metrics.MetricsRegistry;
+
+public class GameMetrics {
+    private static final int ENEMY_SMALL = 0;
+    private static final int ENEMY_MIDDLE = 1;
+    private static final int ENEMY_BIG = 2;
+    private static final String[] ENEMY_NAMES = {"small", "middle", "big"};
+
+    private final MetricsRegistry registry;
+    private final Histogram tickNanos;
+    private final Histogram drawNanos;
+    private final Gauge sprites;
+    private final Gauge score;
+    private final Gauge[] liveEnemies = new Gauge[ENEMY_NAMES.length];
+    private final Counter[] spawnedEnemies = new Counter[ENEMY_NAMES.length];
+    private final Counter bulletsFired;
+    private final Counter missilesFired;
+    private final Counter games;
+
+    public GameMetrics(MetricsRegistry registry){
+        this.registry = registry;
+        tickNanos = registry.histogram("tick_ns");
+        drawNanos = registry.histogram("draw_ns");
+        sprites = registry.gauge("sprites");
+        score = registry.gauge("score");
+        for(int i = 0; i < ENEMY_NAMES.length; i++){
+            liveEnemies[i] = registry.gauge("live_" + ENEMY_NAMES[i]);
+            spawnedEnemies[i] = registry.counter("spawned_" + ENEMY_NAMES[i]);
+        }
+        bulletsFired = registry.counter("bullets_fired");
+        missilesFired = registry.counter("missiles_fired");
+        games = registry.counter("games");
+    }
+
+    public MetricsRegistry getRegistry(){
+        return registry;
+    }
+
+    public void recordTick(long nanos){
+        tickNanos.record(nanos);
+    }
+
+    public void recordDraw(long nanos){
+        drawNanos.record(nanos);
+    }
+
+    public void recordGameOver(){
+        games.increment();
+    }
+
+    public void sample(GameWorld world){
+        if(world != null){
+            sprites.set(world.getSprites().size());
+            score.set(world.getScore());
+        }
+    }
+
+    void onSpawn(Sprite s){
+        if(s instanceof HomingMissile){
+            missilesFired.increment();
+        }else if(s instanceof Bullet){
+            bulletsFired.increment();
+        }
+        int enemy = enemyOf(s);
+        if(enemy >= 0){
+            spawnedEnemies[enemy].increment();
+        }
+        track(s, 1);
+    }
+
+    void track(Sprite s, int delta){
+        int enemy = enemyOf(s);
+        if(enemy >= 0){
+            liveEnemies[enemy].add(delta);
+        }
+    }
+
+    private static int enemyOf(Sprite s){
+        if(s instanceof SmallEnemyPlane){
+            return ENEMY_SMALL;
+        }else if(s instanceof MiddleEnemyPlane){
+            return ENEMY_MIDDLE;
+        }else if(s instanceof BigEnemyPlane){
+            return ENEMY_BIG;
+        }
+        return -1;
+    }
+}
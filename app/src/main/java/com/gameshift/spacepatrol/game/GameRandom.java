@@ -0,0 +1,35 @@
+package com.gameshift.spacepatrol.game;
+
+import java.util.Random;
+
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public GameRandom(long seed){
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed){
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits){
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int)(state >>> (48 - bits));
+    }
+
+    long getState(){
+        return state;
+    }
+
+    void setState(long state){
+        this.state = state & MASK;
+    }
+}
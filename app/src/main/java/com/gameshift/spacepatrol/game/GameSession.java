@@ -0,0 +1,38 @@
+package com.gameshift.spacepatrol.game;
+
+import android.graphics.Bitmap;
+
+import com.gameshift.spacepatrol.game.render.AssetCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameSession {
+    final GameWorld world;
+    final SpriteImage[] images;
+    final List<Bitmap> bitmaps;
+    final float density;
+
+    GameSession(GameWorld world, SpriteImage[] images, List<Bitmap> bitmaps, float density){
+        this.world = world;
+        this.images = images;
+        this.bitmaps = new ArrayList<Bitmap>(bitmaps);
+        this.density = density;
+    }
+
+    public long getScore(){
+        return world.getScore();
+    }
+
+    public long getFrame(){
+        return world.getFrame();
+    }
+
+    public void release(AssetCache assetCache){
+        world.destroy();
+        for(Bitmap bitmap : bitmaps){
+            assetCache.release(bitmap);
+        }
+        bitmaps.clear();
+    }
+}
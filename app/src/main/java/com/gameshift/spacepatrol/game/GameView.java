@@ -3,43 +3,125 @@ package com.gameshift.spacepatrol.game;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.text.TextPaint;
 import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.Log;
 import android.view.MotionEvent;
+import android.view.SurfaceView;
 import android.view.View;
 
 import com.gameshift.spacepatrol.R;
-
+import com.gameshift.spacepatrol.game.audio.AudioTrackOutput;
+import com.gameshift.spacepatrol.game.audio.SoundBank;
+import com.gameshift.spacepatrol.game.audio.SoundMixer;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.autopilot.SoakStats;
+import com.gameshift.spacepatrol.game.background.ParallaxBackground;
+import com.gameshift.spacepatrol.game.background.ParallaxLayer;
+import com.gameshift.spacepatrol.game.metrics.ArtGcCountSource;
+import com.gameshift.spacepatrol.game.metrics.MetricsExporter;
+import com.gameshift.spacepatrol.game.metrics.MetricsRegistry;
+import com.gameshift.spacepatrol.game.net.LockstepSession;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+import com.gameshift.spacepatrol.game.render.AssetCache;
+import com.gameshift.spacepatrol.game.render.BitmapManager;
+import com.gameshift.spacepatrol.game.render.CanvasRenderBackend;
+import com.gameshift.spacepatrol.game.render.OffscreenTarget;
+import com.gameshift.spacepatrol.game.render.RenderScaleController;
+import com.gameshift.spacepatrol.game.render.RenderSnapshot;
+import com.gameshift.spacepatrol.game.render.SnapshotExchange;
+import com.gameshift.spacepatrol.game.render.SpriteBatcher;
+import com.gameshift.spacepatrol.game.render.SurfaceScaleTarget;
+import com.gameshift.spacepatrol.game.replay.ReplayWriter;
+import com.gameshift.spacepatrol.game.telemetry.RotatingFileWriter;
+import com.gameshift.spacepatrol.game.telemetry.TelemetryRing;
+import com.gameshift.spacepatrol.game.telemetry.TelemetryWriter;
+import com.gameshift.spacepatrol.game.trace.TraceRecorder;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 public class GameView extends View {
+    private static final String TAG = "GameView";
+    private static final long AUTOPILOT_REPORT_INTERVAL = 10000;
+    private static final int MAX_SOUND_VOICES = 8;
+    private static final int TELEMETRY_CAPACITY = 8192;
+    private static final long TELEMETRY_FILE_BYTES = 1 << 20;
+    private static final int TELEMETRY_MAX_FILES = 8;
+    private static final float RENDER_SCALE_STEP = 0.1f;
+    private static final long RENDER_FRAME_BUDGET_NANOS = 1000000000L / 60;
+    private static final int REPLAY_KEYFRAME_INTERVAL = 300;
+    private static final int BITMAP_BUDGET_FRACTION = 4;
+    private static final int BACKGROUND_TILE_SIZE = 256;
+    private static final int BACKGROUND_MAX_TILES = 64;
+    private static final long BACKGROUND_CACHE_BYTES = 8 << 20;
+    private static final long METRICS_INTERVAL_MILLIS = 5000;
+    private static final long METRICS_FILE_BYTES = 4 << 20;
+    private static final int METRICS_MAX_FILES = 8;
+    private static final String TRACE_FILE_PREFIX = "trace-";
+    private static final String TRACE_FILE_SUFFIX = ".json";
+    private static final int TRACE_MAX_FILES = 4;
 
     private Paint paint;
     private Paint textPaint;
-    private CombatAircraft combatAircraft = null;
-    private List<Sprite> sprites = new ArrayList<Sprite>();
-    private List<Sprite> spritesNeedAdded = new ArrayList<Sprite>();
+    private GameWorld world = null;
+    private LockstepSession lockstep = null;
+    private int coopWidth = 0;
+    private int coopHeight = 0;
+    private Random random = new Random();
+    private PlayerController autopilot = null;
+    private PlayerInput autopilotInput = new PlayerInput();
+    private PlayerInput localInput = new PlayerInput();
+    private int autopilotTicksPerFrame = 1;
+    private int bulletHellIntensity = 0;
+    private SoakStats soakStats = null;
+    private long nextSoakReportTime = 0;
+    private SpriteBatcher batcher = new SpriteBatcher();
+    private SnapshotExchange snapshots = new SnapshotExchange();
+    private CanvasRenderBackend renderBackend = new CanvasRenderBackend();
+    private AssetCache assetCache = new AssetCache(new BitmapManager(getResources(), Runtime.getRuntime().maxMemory() / BITMAP_BUDGET_FRACTION));
+    private BitmapManager bitmapManager = assetCache.getBitmapManager();
+    private OffscreenTarget offscreenTarget = new OffscreenTarget(bitmapManager);
+    private RenderScaleController renderScaleController = null;
+    private SurfaceScaleTarget surfaceTarget = null;
+    private AudioTrackOutput audioOutput = null;
+    private TelemetryRing telemetry = null;
+    private TelemetryWriter telemetryWriter = null;
+    private TraceRecorder traceRecorder = null;
+    private TraceRecorder traceSpare = null;
+    private Thread traceExport = null;
+    private File replayDirectory = null;
+    private ReplayWriter replayWriter = null;
+    private ParallaxLayer[] backgroundLayers = null;
+    private ParallaxBackground background = null;
+    private File metricsDirectory = null;
+    private int metricsFormat = MetricsExporter.FORMAT_CSV;
+    private GameMetrics metrics = null;
+    private MetricsExporter metricsExporter = null;
 
     private List<Bitmap> bitmaps = new ArrayList<Bitmap>();
+    private SpriteImage[] images = null;
     private float density = getResources().getDisplayMetrics().density;
     public static final int STATUS_GAME_STARTED = 1;
     public static final int STATUS_GAME_PAUSED = 2;
     public static final int STATUS_GAME_OVER = 3;
     public static final int STATUS_GAME_DESTROYED = 4;
     private int status = STATUS_GAME_DESTROYED;
-    private long frame = 0;
-    private long score = 0;
     private float fontSize = 12;
     private float fontSize2 = 20;
     private float borderSize = 2;
     private Rect continueRect = new Rect();
+    private float renderScale = 1;
+    private float renderOffsetX = 0;
+    private float renderOffsetY = 0;
 
     private static final int TOUCH_MOVE = 1;
     private static final int TOUCH_SINGLE_CLICK = 2;
@@ -51,6 +133,13 @@ public class GameView extends View {
     private long touchUpTime = -1;
     private float touchX = -1;
     private float touchY = -1;
+    private Bitmap frameCache = null;
+    private final Runnable singleClickTimeout = new Runnable() {
+        @Override
+        public void run() {
+            resolveSingleClick();
+        }
+    };
 
     public GameView(Context context) {
         super(context);
@@ -84,107 +173,604 @@ public class GameView extends View {
 
     public void start(int[] bitmapIds){
         destroy();
+        density = getResources().getDisplayMetrics().density;
+        random = new Random();
+        for(int bitmapId : bitmapIds){
+            bitmaps.add(assetCache.acquire(bitmapId, 0));
+        }
+        createImages();
+        startBackground();
+        startAudio();
+        startTelemetry();
+        startMetrics();
+        startWhenBitmapsReady();
+    }
+
+    public void startCoop(int[] bitmapIds, LockstepSession session, int worldWidth, int worldHeight, int densityDpi){
+        destroy();
+        lockstep = session;
+        coopWidth = worldWidth;
+        coopHeight = worldHeight;
+        density = (float)densityDpi / DisplayMetrics.DENSITY_DEFAULT;
         for(int bitmapId : bitmapIds){
-            Bitmap bitmap = BitmapFactory.decodeResource(getResources(), bitmapId);
-            bitmaps.add(bitmap);
+            bitmaps.add(assetCache.acquire(bitmapId, densityDpi));
         }
+        createImages();
+        startBackground();
+        startAudio();
+        startTelemetry();
+        startMetrics();
         startWhenBitmapsReady();
     }
+
+    public void resumeSession(GameSession session){
+        destroy();
+        density = session.density;
+        random = new Random();
+        bitmaps.addAll(session.bitmaps);
+        images = session.images;
+        startBackground();
+        startAudio();
+        audioOutput.pause();
+        startTelemetry();
+        startMetrics();
+        world = session.world;
+        bindWorld();
+        status = STATUS_GAME_PAUSED;
+        publishSnapshot();
+        postInvalidate();
+    }
+
+    public GameSession detachSession(){
+        if(world == null || lockstep != null || world.isGameOver()){
+            return null;
+        }
+        GameSession session = new GameSession(world, images, bitmaps, density);
+        stopReplay();
+        world.setSoundMixer(null);
+        world.setTelemetry(null);
+        world.setProbe(null);
+        world.setMetrics(null);
+        world = null;
+        images = null;
+        bitmaps.clear();
+        return session;
+    }
+
+    private void createImages(){
+        images = new SpriteImage[GameWorld.IMAGE_COUNT];
+        for(int i = 0; i < images.length; i++){
+            images[i] = new SpriteImage(bitmaps.get(i));
+        }
+    }
     
+    private void startBackground(){
+        if(backgroundLayers != null && ParallaxBackground.isSupported()){
+            background = new ParallaxBackground(getResources(), backgroundLayers, BACKGROUND_TILE_SIZE,
+                    BACKGROUND_MAX_TILES, BACKGROUND_CACHE_BYTES);
+            background.start();
+        }
+    }
+
+    private void stopBackground(){
+        if(background != null){
+            background.close();
+            background = null;
+        }
+    }
+
+    private void startAudio(){
+        int sampleRate = AudioTrackOutput.getNativeSampleRate();
+        SoundMixer mixer = new SoundMixer(SoundBank.createDefault(sampleRate), MAX_SOUND_VOICES, sampleRate);
+        audioOutput = new AudioTrackOutput(mixer);
+        audioOutput.start();
+    }
+
+    private void stopAudio(){
+        if(audioOutput != null){
+            audioOutput.stop();
+            audioOutput = null;
+        }
+    }
+
+    private void startTelemetry(){
+        telemetry = new TelemetryRing(TELEMETRY_CAPACITY);
+        File directory = new File(getContext().getFilesDir(), "telemetry");
+        telemetryWriter = new TelemetryWriter(telemetry, directory, TELEMETRY_FILE_BYTES, TELEMETRY_MAX_FILES);
+        telemetryWriter.start();
+    }
+
+    private void stopTelemetry(){
+        if(telemetryWriter != null){
+            telemetryWriter.close();
+            if(telemetryWriter.getFailure() != null){
+                Log.w(TAG, "Telemetry writer failed", telemetryWriter.getFailure());
+            }
+            telemetryWriter = null;
+        }
+        telemetry = null;
+    }
+
+    private void startMetrics(){
+        if(metricsDirectory == null){
+            return;
+        }
+        metrics = new GameMetrics(new MetricsRegistry(ArtGcCountSource.isSupported() ? new ArtGcCountSource() : null));
+        metricsExporter = new MetricsExporter(metrics.getRegistry(), metricsDirectory, metricsFormat,
+                METRICS_INTERVAL_MILLIS, METRICS_FILE_BYTES, METRICS_MAX_FILES);
+        metricsExporter.start();
+    }
+
+    private void stopMetrics(){
+        if(metricsExporter != null){
+            metricsExporter.close();
+            if(metricsExporter.getFailure() != null){
+                Log.w(TAG, "Metrics exporter failed", metricsExporter.getFailure());
+            }
+            metricsExporter = null;
+        }
+        metrics = null;
+    }
+
+    private void startReplay(){
+        if(replayDirectory == null || world == null){
+            return;
+        }
+        replayDirectory.mkdirs();
+        File file = new File(replayDirectory, "replay-" + System.currentTimeMillis() + ".bin.gz");
+        try{
+            replayWriter = new ReplayWriter(file, world, REPLAY_KEYFRAME_INTERVAL);
+        }catch(IOException e){
+            Log.w(TAG, "Failed to start replay " + file, e);
+        }
+    }
+
+    private void stopReplay(){
+        if(replayWriter != null){
+            try{
+                replayWriter.close();
+            }catch(IOException e){
+                Log.w(TAG, "Failed to close replay", e);
+            }
+            replayWriter = null;
+        }
+    }
+
+    private void beginReplayTick(){
+        if(replayWriter != null){
+            try{
+                replayWriter.beginTick(world);
+            }catch(IOException e){
+                Log.w(TAG, "Replay recording failed", e);
+                stopReplay();
+            }
+        }
+    }
+
+    private void recordReplayInput(int player, PlayerInput input){
+        if(replayWriter != null){
+            replayWriter.recordInput(player, input);
+        }
+    }
+
     private void startWhenBitmapsReady(){
-        combatAircraft = new CombatAircraft(bitmaps.get(0));
+        if(lockstep != null){
+            world = new GameWorld(images, LockstepSession.PLAYER_COUNT, lockstep.getSeed() + lockstep.getTick(), density);
+            world.setSize(coopWidth, coopHeight);
+        }else{
+            world = new GameWorld(images, 1, random.nextLong(), density);
+        }
+        bindWorld();
         status = STATUS_GAME_STARTED;
         postInvalidate();
     }
+
+    private void bindWorld(){
+        world.setBulletHellIntensity(bulletHellIntensity);
+        if(audioOutput != null){
+            world.setSoundMixer(audioOutput.getMixer());
+        }
+        world.setTelemetry(telemetry);
+        world.setProbe(traceRecorder);
+        world.setMetrics(metrics);
+        startReplay();
+    }
     
     private void restart(){
         destroyNotRecyleBitmaps();
         startWhenBitmapsReady();
     }
 
+    private void closeLockstep(){
+        if(lockstep != null){
+            lockstep.close();
+            lockstep = null;
+            density = getResources().getDisplayMetrics().density;
+        }
+    }
+
+    public void setAutopilot(PlayerController autopilot, int ticksPerFrame){
+        this.autopilot = autopilot;
+        this.autopilotTicksPerFrame = Math.max(ticksPerFrame, 1);
+        if(autopilot != null){
+            soakStats = new SoakStats();
+            nextSoakReportTime = System.currentTimeMillis() + AUTOPILOT_REPORT_INTERVAL;
+        }else{
+            soakStats = null;
+        }
+        setKeepScreenOn(autopilot != null);
+    }
+
+    public void setTraceRecorder(TraceRecorder traceRecorder){
+        this.traceRecorder = traceRecorder;
+        if(world != null){
+            world.setProbe(traceRecorder);
+        }
+    }
+
+    public boolean exportTrace(final File directory){
+        if(traceRecorder == null){
+            return false;
+        }
+        if(traceExport != null && traceExport.isAlive()){
+            Log.w(TAG, "Previous trace export still running, skipping");
+            return false;
+        }
+        final TraceRecorder full = traceRecorder;
+        if(traceSpare == null){
+            traceSpare = new TraceRecorder(full.getCapacity(), full.getThreadId());
+        }
+        setTraceRecorder(traceSpare);
+        traceSpare = full;
+        traceExport = new Thread(new Runnable() {
+            @Override
+            public void run(){
+                File file = new File(directory, TRACE_FILE_PREFIX + System.currentTimeMillis() + TRACE_FILE_SUFFIX);
+                try{
+                    if(!directory.isDirectory() && !directory.mkdirs()){
+                        throw new IOException("Cannot create " + directory);
+                    }
+                    RotatingFileWriter.deleteOldFiles(directory, TRACE_FILE_PREFIX, TRACE_FILE_SUFFIX, TRACE_MAX_FILES - 1);
+                    full.writeChromeTrace(file);
+                }catch(IOException e){
+                    Log.w(TAG, "Failed to export trace to " + file, e);
+                }finally{
+                    full.clear();
+                }
+            }
+        }, "TraceExport");
+        traceExport.setPriority(Thread.MIN_PRIORITY);
+        traceExport.start();
+        return true;
+    }
+
+    public void setReplayDirectory(File replayDirectory){
+        this.replayDirectory = replayDirectory;
+    }
+
+    public void setRenderScaleRange(float minScale, float maxScale){
+        if(minScale >= 1 && maxScale >= 1){
+            renderScaleController = null;
+            offscreenTarget.release();
+        }else{
+            renderScaleController = new RenderScaleController(minScale, maxScale, RENDER_SCALE_STEP, RENDER_FRAME_BUDGET_NANOS);
+        }
+    }
+
+    public void setWorldSurface(SurfaceView view){
+        if(surfaceTarget != null){
+            surfaceTarget.setActive(false);
+        }
+        surfaceTarget = view != null ? new SurfaceScaleTarget(view) : null;
+    }
+
+    public float getRenderScale(){
+        return renderScaleController != null ? renderScaleController.getScale() : 1;
+    }
+
+    public void setBitmapBudget(long budgetBytes){
+        bitmapManager.setBudgetBytes(budgetBytes);
+    }
+
+    public void setBitmapConfig(int resourceId, Bitmap.Config config){
+        bitmapManager.setConfig(resourceId, config);
+    }
+
+    public BitmapManager getBitmapManager(){
+        return bitmapManager;
+    }
+
+    public void setAssetCache(AssetCache assetCache){
+        releaseFrameCache();
+        offscreenTarget.release();
+        this.assetCache = assetCache;
+        bitmapManager = assetCache.getBitmapManager();
+        offscreenTarget = new OffscreenTarget(bitmapManager);
+    }
+
+    public AssetCache getAssetCache(){
+        return assetCache;
+    }
+
+    public void setMetricsDirectory(File directory, int format){
+        this.metricsDirectory = directory;
+        this.metricsFormat = format;
+    }
+
+    public void setBackgroundLayers(ParallaxLayer[] layers){
+        this.backgroundLayers = layers;
+    }
+
+    public void setBulletHellIntensity(int intensity){
+        this.bulletHellIntensity = intensity;
+        if(world != null){
+            world.setBulletHellIntensity(intensity);
+        }
+    }
+
     public void pause(){
         status = STATUS_GAME_PAUSED;
+        if(audioOutput != null){
+            audioOutput.getMixer().stopAll();
+            audioOutput.pause();
+        }
+        releaseFrameCache();
+        if(renderScaleController != null){
+            renderScaleController.reset();
+        }
+        postInvalidate();
     }
 
     private void resume(){
         status = STATUS_GAME_STARTED;
+        if(audioOutput != null){
+            audioOutput.resume();
+        }
+        releaseFrameCache();
         postInvalidate();
     }
 
     private long getScore(){
-        return score;
+        return world != null ? world.getScore() : 0;
+    }
+
+    private int getLocalPlayer(){
+        return lockstep != null ? lockstep.getLocalPlayer() : 0;
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
-        if(isSingleClick()){
-            onSingleClick(touchX, touchY);
-        }
         super.onDraw(canvas);
+        updateWorldSize(canvas);
+        if(surfaceTarget != null){
+            surfaceTarget.setActive(status == STATUS_GAME_STARTED && renderScaleController != null);
+        }
         if(status == STATUS_GAME_STARTED){
             drawGameStarted(canvas);
-        }else if(status == STATUS_GAME_PAUSED){
-            drawGamePaused(canvas);
-        }else if(status == STATUS_GAME_OVER){
-            drawGameOver(canvas);
+        }else if(status == STATUS_GAME_PAUSED || status == STATUS_GAME_OVER){
+            drawFrameCache(canvas);
+        }
+    }
+
+    private void drawFrameCache(Canvas canvas){
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        if(width <= 0 || height <= 0){
+            return;
+        }
+        if(frameCache == null || frameCache.getWidth() != width || frameCache.getHeight() != height){
+            releaseFrameCache();
+            frameCache = bitmapManager.obtain(width, height, Bitmap.Config.ARGB_8888);
+            Canvas cacheCanvas = new Canvas(frameCache);
+            if(status == STATUS_GAME_PAUSED){
+                drawGamePaused(cacheCanvas);
+            }else{
+                drawGameOver(cacheCanvas);
+            }
         }
+        canvas.drawBitmap(frameCache, 0, 0, paint);
+    }
+
+    private void releaseFrameCache(){
+        if(frameCache != null){
+            bitmapManager.release(frameCache);
+            frameCache = null;
+        }
+    }
+
+    private void updateWorldSize(Canvas canvas){
+        if(world == null){
+            return;
+        }
+        int canvasWidth = canvas.getWidth();
+        int canvasHeight = canvas.getHeight();
+        if(lockstep == null){
+            world.setSize(canvasWidth, canvasHeight);
+            renderScale = 1;
+            renderOffsetX = 0;
+            renderOffsetY = 0;
+        }else{
+            int worldWidth = world.getWidth();
+            int worldHeight = world.getHeight();
+            renderScale = Math.min((float)canvasWidth / worldWidth, (float)canvasHeight / worldHeight);
+            renderOffsetX = (canvasWidth - worldWidth * renderScale) / 2;
+            renderOffsetY = (canvasHeight - worldHeight * renderScale) / 2;
+        }
+    }
+
+    private int beginWorldDraw(Canvas canvas){
+        int saveCount = canvas.save();
+        if(lockstep != null){
+            canvas.translate(renderOffsetX, renderOffsetY);
+            canvas.scale(renderScale, renderScale);
+        }
+        return saveCount;
     }
 
     private void drawGameStarted(Canvas canvas){
-        drawScoreAndBombs(canvas);
-        if(frame == 0){
-            float centerX = canvas.getWidth() / 2;
-            float centerY = canvas.getHeight() - combatAircraft.getHeight() / 2;
-            combatAircraft.centerTo(centerX, centerY);
-        }
-        if(spritesNeedAdded.size() > 0){
-            sprites.addAll(spritesNeedAdded);
-            spritesNeedAdded.clear();
-        }
-        destroyBulletsFrontOfCombatAircraft();
-        removeDestroyedSprites();
-        if(frame % 30 == 0){
-            createRandomSprites(canvas.getWidth());
-        }
-        frame++;
-        Iterator<Sprite> iterator = sprites.iterator();
-        while (iterator.hasNext()){
-            Sprite s = iterator.next();
-            if(!s.isDestroyed()){
-                s.draw(canvas, paint, this);
+        if(renderScaleController != null){
+            renderScaleController.onFrame(System.nanoTime());
+        }
+        TraceRecorder probe = traceRecorder;
+        if(probe != null){
+            probe.begin(TickProbe.SECTION_FRAME, null);
+        }
+        drawGameFrame(canvas);
+        if(probe != null){
+            probe.end(TickProbe.SECTION_FRAME, null);
+        }
+    }
+
+    private void drawGameFrame(Canvas canvas){
+        if(lockstep != null){
+            lockstep.update();
+            if(!lockstep.isTickReady()){
+                drawSprites(canvas);
+                drawHud(canvas);
+                postInvalidate();
+                return;
+            }
+            beginReplayTick();
+            for(int player = 0; player < LockstepSession.PLAYER_COUNT; player++){
+                PlayerInput input = lockstep.getInput(player);
+                recordReplayInput(player, input);
+                world.applyInput(player, input);
             }
-            if(s.isDestroyed()){
-                iterator.remove();
+        }
+        if(autopilot != null && lockstep == null){
+            updateWithAutopilot();
+        }else{
+            if(lockstep == null){
+                beginReplayTick();
+                recordReplayInput(0, localInput);
+                world.applyInput(0, localInput);
+                localInput.clearFlags();
             }
+            tickWorld();
+        }
+        if(lockstep != null){
+            lockstep.advance();
         }
-        if(combatAircraft != null){
-            combatAircraft.draw(canvas, paint, this);
-            if(combatAircraft.isDestroyed()){
+        publishSnapshot();
+        drawSprites(canvas);
+        drawHud(canvas);
+        if(metrics != null){
+            metrics.sample(world);
+        }
+        if(world.isGameOver()){
+            if(metrics != null){
+                metrics.recordGameOver();
+            }
+            stopReplay();
+            if(autopilot != null && lockstep == null){
+                soakStats.recordGameOver();
+                restart();
+            }else{
                 status = STATUS_GAME_OVER;
+                releaseFrameCache();
             }
-            postInvalidate();
         }
+        postInvalidate();
     }
-	
-    private void drawGamePaused(Canvas canvas){
+
+    private void updateWithAutopilot(){
+        for(int i = 0; i < autopilotTicksPerFrame && !world.isGameOver(); i++){
+            beginReplayTick();
+            autopilotInput.clearFlags();
+            autopilot.control(world, 0, autopilotInput);
+            recordReplayInput(0, autopilotInput);
+            world.applyInput(0, autopilotInput);
+            soakStats.recordTick(tickWorld());
+        }
+        long now = System.currentTimeMillis();
+        if(now >= nextSoakReportTime){
+            Log.i(TAG, soakStats.report(world));
+            Log.i(TAG, "bitmaps used=" + bitmapManager.getUsedBytes() + " active=" + bitmapManager.getActiveBytes()
+                    + " peak=" + bitmapManager.getPeakBytes() + " budget=" + bitmapManager.getBudgetBytes()
+                    + " decodes=" + bitmapManager.getDecodes() + " reuses=" + bitmapManager.getReuses()
+                    + " assets=" + assetCache.getHeldCount() + " shared=" + assetCache.getShared());
+            if(background != null){
+                Log.i(TAG, "background " + background.stats());
+            }
+            nextSoakReportTime = now + AUTOPILOT_REPORT_INTERVAL;
+        }
+    }
+
+    private long tickWorld(){
+        long tickStart = System.nanoTime();
+        world.update();
+        long tickNanos = System.nanoTime() - tickStart;
+        if(metrics != null){
+            metrics.recordTick(tickNanos);
+        }
+        return tickNanos;
+    }
+
+    private void drawHud(Canvas canvas){
+        TraceRecorder probe = traceRecorder;
+        if(probe != null){
+            probe.begin(TickProbe.SECTION_HUD, null);
+        }
         drawScoreAndBombs(canvas);
-        for(Sprite s : sprites){
-            s.onDraw(canvas, paint, this);
+        if(probe != null){
+            probe.end(TickProbe.SECTION_HUD, null);
+        }
+    }
+
+    private void publishSnapshot(){
+        world.writeSnapshot(snapshots.beginWrite());
+        snapshots.publish();
+    }
+
+    private void drawSprites(Canvas canvas){
+        RenderSnapshot snapshot = snapshots.acquire();
+        if(snapshot == null){
+            return;
         }
-        if(combatAircraft != null){
-            combatAircraft.onDraw(canvas, paint, this);
+        long drawStart = System.nanoTime();
+        TraceRecorder probe = traceRecorder;
+        if(probe != null){
+            probe.begin(TickProbe.SECTION_RENDER, null);
         }
-        drawScoreDialog(canvas, "Resume");
-        if(lastSingleClickTime > 0){
-            postInvalidate();
+        batcher.begin();
+        snapshot.submitTo(batcher);
+        Canvas target = canvas;
+        Canvas surfaceCanvas = null;
+        if(renderScaleController != null){
+            if(status == STATUS_GAME_STARTED && surfaceTarget != null && surfaceTarget.isReady()){
+                surfaceCanvas = surfaceTarget.begin(canvas.getWidth(), canvas.getHeight(), renderScaleController.getScale());
+            }
+            target = surfaceCanvas != null ? surfaceCanvas : offscreenTarget.begin(canvas.getWidth(), canvas.getHeight(),
+                    renderScaleController.getScale(), renderScaleController.getMaxScale());
+        }
+        int saveCount = beginWorldDraw(target);
+        if(background != null){
+            background.draw(target, snapshot.getFrame(), world.getWidth(), world.getHeight(), density);
         }
+        renderBackend.setCanvas(target);
+        batcher.flush(renderBackend);
+        target.restoreToCount(saveCount);
+        if(surfaceCanvas != null){
+            surfaceTarget.end();
+        }else if(target != canvas){
+            offscreenTarget.blit(canvas);
+        }
+        if(probe != null){
+            probe.end(TickProbe.SECTION_RENDER, null);
+        }
+        if(metrics != null){
+            metrics.recordDraw(System.nanoTime() - drawStart);
+        }
+    }
+
+    private void drawGamePaused(Canvas canvas){
+        drawSprites(canvas);
+        drawHud(canvas);
+        drawScoreDialog(canvas, "Resume");
     }
 	
     private void drawGameOver(Canvas canvas){
         drawScoreDialog(canvas, "Restart");
-        if(lastSingleClickTime > 0){
-            postInvalidate();
-        }
     }
 
     private void drawScoreDialog(Canvas canvas, String operation){
@@ -248,9 +834,14 @@ public class GameView extends View {
         canvas.drawBitmap(pauseBitmap, pauseLeft, pauseTop, paint);
         float scoreLeft = pauseLeft + pauseBitmap.getWidth() + 20 * density;
         float scoreTop = fontSize + pauseTop + pauseBitmap.getHeight() / 2 - fontSize / 2;
-        canvas.drawText(score + "", scoreLeft, scoreTop, textPaint);
-        if(combatAircraft != null && !combatAircraft.isDestroyed()){
-            int bombCount = combatAircraft.getBombCount();
+        RenderSnapshot snapshot = snapshots.acquire();
+        if(snapshot == null){
+            return;
+        }
+        canvas.drawText(snapshot.getScore() + "", scoreLeft, scoreTop, textPaint);
+        int player = getLocalPlayer();
+        if(snapshot.isAircraftAlive(player)){
+            int bombCount = snapshot.getBombCount(player);
             if(bombCount > 0){
                 Bitmap bombBitmap = bitmaps.get(11);
                 float bombTop = canvas.getHeight() - bombBitmap.getHeight();
@@ -262,102 +853,39 @@ public class GameView extends View {
         }
     }
 
-    private void destroyBulletsFrontOfCombatAircraft(){
-        if(combatAircraft != null){
-            float aircraftY = combatAircraft.getY();
-            List<Bullet> aliveBullets = getAliveBullets();
-            for(Bullet bullet : aliveBullets){
-                if(aircraftY <= bullet.getY()){
-                    bullet.destroy();
-                }
-            }
-        }
-    }
-
-    private void removeDestroyedSprites(){
-        Iterator<Sprite> iterator = sprites.iterator();
-        while (iterator.hasNext()){
-            Sprite s = iterator.next();
-            if(s.isDestroyed()){
-                iterator.remove();
-            }
-        }
-    }
-
-    private void createRandomSprites(int canvasWidth){
-        Sprite sprite = null;
-        int speed = 2;
-        int callTime = Math.round(frame / 30);
-        if((callTime + 1) % 25 == 0){
-            if((callTime + 1) % 50 == 0){
-                sprite = new BombAward(bitmaps.get(7));
-            }
-            else{
-                sprite = new BulletAward(bitmaps.get(8));
-            }
-        }
-        else{
-            int[] nums = {0,0,0,0,0,1,0,0,1,0,0,0,0,1,1,1,1,1,1,2};
-            int index = (int)Math.floor(nums.length*Math.random());
-            int type = nums[index];
-            if(type == 0){
-                sprite = new SmallEnemyPlane(bitmaps.get(4));
-            }
-            else if(type == 1){
-                sprite = new MiddleEnemyPlane(bitmaps.get(5));
-            }
-            else if(type == 2){
-                sprite = new BigEnemyPlane(bitmaps.get(6));
-            }
-            if(type != 2){
-                if(Math.random() < 0.33){
-                    speed = 4;
-                }
-            }
-        }
-
-        if(sprite != null){
-            float spriteWidth = sprite.getWidth();
-            float spriteHeight = sprite.getHeight();
-            float x = (float)((canvasWidth - spriteWidth)*Math.random());
-            float y = -spriteHeight;
-            sprite.setX(x);
-            sprite.setY(y);
-            if(sprite instanceof AutoSprite){
-                AutoSprite autoSprite = (AutoSprite)sprite;
-                autoSprite.setSpeed(speed);
-            }
-            addSprite(sprite);
-        }
-    }
-
     @Override
     public boolean onTouchEvent(MotionEvent event){
         int touchType = resolveTouchType(event);
         if(status == STATUS_GAME_STARTED){
             if(touchType == TOUCH_MOVE){
-                if(combatAircraft != null){
-                    combatAircraft.centerTo(touchX, touchY);
+                int worldX = Math.round(toWorldX(touchX));
+                int worldY = Math.round(toWorldY(touchY));
+                if(lockstep != null){
+                    lockstep.setLocalPosition(worldX, worldY);
+                }else{
+                    localInput.moveTo(worldX, worldY);
                 }
             }else if(touchType == TOUCH_DOUBLE_CLICK){
                 if(status == STATUS_GAME_STARTED){
-                    if(combatAircraft != null){
-                        combatAircraft.bomb(this);
+                    if(lockstep != null){
+                        lockstep.requestLocalBomb();
+                    }else{
+                        localInput.bomb();
                     }
                 }
             }
-        }else if(status == STATUS_GAME_PAUSED){
-            if(lastSingleClickTime > 0){
-                postInvalidate();
-            }
-        }else if(status == STATUS_GAME_OVER){
-            if(lastSingleClickTime > 0){
-                postInvalidate();
-            }
         }
         return true;
     }
 
+    private float toWorldX(float screenX){
+        return (screenX - renderOffsetX) / renderScale;
+    }
+
+    private float toWorldY(float screenY){
+        return (screenY - renderOffsetY) / renderScale;
+    }
+
     private int resolveTouchType(MotionEvent event){
         int touchType = -1;
         int action = event.getAction();
@@ -378,30 +906,27 @@ public class GameView extends View {
 
                 if(twoClickDurationTime <=  doubleClickDurationTime){
                     touchType = TOUCH_DOUBLE_CLICK;
+                    removeCallbacks(singleClickTimeout);
                     lastSingleClickTime = -1;
                     touchDownTime = -1;
                     touchUpTime = -1;
                 }else{
                     lastSingleClickTime = touchUpTime;
+                    removeCallbacks(singleClickTimeout);
+                    postDelayed(singleClickTimeout, doubleClickDurationTime);
                 }
             }
         }
         return touchType;
     }
 
-    private boolean isSingleClick(){
-        boolean singleClick = false;
+    private void resolveSingleClick(){
         if(lastSingleClickTime > 0){
-            long deltaTime = System.currentTimeMillis() - lastSingleClickTime;
-
-            if(deltaTime >= doubleClickDurationTime){
-                singleClick = true;
-                lastSingleClickTime = -1;
-                touchDownTime = -1;
-                touchUpTime = -1;
-            }
+            lastSingleClickTime = -1;
+            touchDownTime = -1;
+            touchUpTime = -1;
+            onSingleClick(touchX, touchY);
         }
-        return singleClick;
     }
 
     private void onSingleClick(float x, float y){
@@ -445,95 +970,34 @@ public class GameView extends View {
 
     private void destroyNotRecyleBitmaps(){
         status = STATUS_GAME_DESTROYED;
-        frame = 0;
-        score = 0;
-        if(combatAircraft != null){
-            combatAircraft.destroy();
-        }
-        combatAircraft = null;
-        for(Sprite s : sprites){
-            s.destroy();
+        snapshots.clear();
+        stopReplay();
+        localInput.reset();
+        releaseFrameCache();
+        if(world != null){
+            world.destroy();
         }
-        sprites.clear();
+        world = null;
     }
 
     public void destroy(){
+        removeCallbacks(singleClickTimeout);
         destroyNotRecyleBitmaps();
+        closeLockstep();
+        stopAudio();
+        stopTelemetry();
+        stopMetrics();
+        stopBackground();
         for(Bitmap bitmap : bitmaps){
-            bitmap.recycle();
+            assetCache.release(bitmap);
         }
         bitmaps.clear();
-    }
-
-    public void addSprite(Sprite sprite){
-        spritesNeedAdded.add(sprite);
-    }
-
-    public void addScore(int value){
-        score += value;
+        images = null;
+        renderBackend.release();
+        offscreenTarget.release();
     }
 
     public int getStatus(){
         return status;
     }
-
-    public float getDensity(){
-        return density;
-    }
-
-    public Bitmap getYellowBulletBitmap(){
-        return bitmaps.get(2);
-    }
-
-    public Bitmap getBlueBulletBitmap(){
-        return bitmaps.get(3);
-    }
-
-    public Bitmap getExplosionBitmap(){
-        return bitmaps.get(1);
-    }
-
-    public List<EnemyPlane> getAliveEnemyPlanes(){
-        List<EnemyPlane> enemyPlanes = new ArrayList<EnemyPlane>();
-        for(Sprite s : sprites){
-            if(!s.isDestroyed() && s instanceof EnemyPlane){
-                EnemyPlane sprite = (EnemyPlane)s;
-                enemyPlanes.add(sprite);
-            }
-        }
-        return enemyPlanes;
-    }
-
-    public List<BombAward> getAliveBombAwards(){
-        List<BombAward> bombAwards = new ArrayList<BombAward>();
-        for(Sprite s : sprites){
-            if(!s.isDestroyed() && s instanceof BombAward){
-                BombAward bombAward = (BombAward)s;
-                bombAwards.add(bombAward);
-            }
-        }
-        return bombAwards;
-    }
-
-    public List<BulletAward> getAliveBulletAwards(){
-        List<BulletAward> bulletAwards = new ArrayList<BulletAward>();
-        for(Sprite s : sprites){
-            if(!s.isDestroyed() && s instanceof BulletAward){
-                BulletAward bulletAward = (BulletAward)s;
-                bulletAwards.add(bulletAward);
-            }
-        }
-        return bulletAwards;
-    }
-
-    public List<Bullet> getAliveBullets(){
-        List<Bullet> bullets = new ArrayList<Bullet>();
-        for(Sprite s : sprites){
-            if(!s.isDestroyed() && s instanceof Bullet){
-                Bullet bullet = (Bullet)s;
-                bullets.add(bullet);
-            }
-        }
-        return bullets;
-    }
 }
\ No newline at end of file
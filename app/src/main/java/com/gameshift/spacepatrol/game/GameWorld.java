@@ -0,0 +1,762 @@
+package com.gameshift.spacepatrol.game;
+
+import com.gameshift.spacepatrol.game.audio.SoundMixer;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+import com.gameshift.spacepatrol.game.render.RenderSnapshot;
+import com.gameshift.spacepatrol.game.telemetry.TelemetryRing;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class GameWorld {
+    public static final int IMAGE_PLANE = 0;
+    public static final int IMAGE_EXPLOSION = 1;
+    public static final int IMAGE_YELLOW_BULLET = 2;
+    public static final int IMAGE_BLUE_BULLET = 3;
+    public static final int IMAGE_SMALL = 4;
+    public static final int IMAGE_MIDDLE = 5;
+    public static final int IMAGE_BIG = 6;
+    public static final int IMAGE_BOMB_AWARD = 7;
+    public static final int IMAGE_BULLET_AWARD = 8;
+    public static final int IMAGE_COUNT = 9;
+    private static final int SCORE_SAMPLE_FRAMES = 60;
+    private static final int STATE_VERSION = 3;
+    private static final int EXPLOSION_FRAMES = 14;
+    private static final int EXPLOSION_FRAME_TICKS = 2;
+    private static final int SPRITE_BULLET = 0;
+    private static final int SPRITE_HOMING_MISSILE = 1;
+    private static final int SPRITE_SMALL = 2;
+    private static final int SPRITE_MIDDLE = 3;
+    private static final int SPRITE_BIG = 4;
+    private static final int SPRITE_BOMB_AWARD = 5;
+    private static final int SPRITE_BULLET_AWARD = 6;
+    private static final int SPRITE_EXPLOSION = 7;
+    private static final int SPRITE_BLUE_BULLET = 8;
+    private static final MotionPath[] ENEMY_PATHS = {MotionPaths.WEAVE, MotionPaths.SWOOP_LEFT, MotionPaths.SWOOP_RIGHT};
+
+    private final SpriteImage[] images;
+    private final CombatAircraft[] aircrafts;
+    private final GameRandom random;
+    private final ProjectileStore projectiles;
+    private final SpatialIndex<EnemyPlane> enemyIndex;
+    private final AnimationClip explosionClip;
+    private final TimerWheel timers = new TimerWheel();
+    private final BulletCollider bulletCollider = new BulletCollider();
+    private final GameEventQueue events = new GameEventQueue();
+    private final float density;
+    private final long seed;
+    private List<Sprite> sprites = new ArrayList<Sprite>();
+    private List<Sprite> spritesNeedAdded = new ArrayList<Sprite>();
+    private int width = 0;
+    private int height = 0;
+    private long frame = 0;
+    private long score = 0;
+    private TickProbe probe = null;
+    private int bulletHellIntensity = 0;
+    private SoundMixer soundMixer = null;
+    private TelemetryRing telemetry = null;
+    private GameMetrics metrics = null;
+    private boolean sessionEnded = false;
+
+    public GameWorld(SpriteImage[] images, int playerCount, long seed, float density){
+        if(images.length < IMAGE_COUNT){
+            throw new IllegalArgumentException("Expected " + IMAGE_COUNT + " images but got " + images.length);
+        }
+        this.images = images;
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+        this.density = density;
+        aircrafts = new CombatAircraft[playerCount];
+        for(int player = 0; player < playerCount; player++){
+            aircrafts[player] = new CombatAircraft(images[IMAGE_PLANE]);
+        }
+        projectiles = new ProjectileStore(images[IMAGE_BLUE_BULLET], playerCount);
+        enemyIndex = new SpatialIndex<EnemyPlane>(8 * density);
+        explosionClip = new ClipBuilder(images[IMAGE_EXPLOSION])
+                .strip(EXPLOSION_FRAMES, EXPLOSION_FRAME_TICKS)
+                .build(AnimationClip.LOOP_ONCE);
+        for(CombatAircraft aircraft : aircrafts){
+            aircraft.scheduleTimers(this);
+        }
+        registerEventHandlers();
+    }
+
+    private void registerEventHandlers(){
+        events.setHandler(GameEventQueue.TYPE_HIT, new GameEventHandler() {
+            @Override
+            public void onEvent(GameWorld world, Sprite subject, Sprite source, int value) {
+                if(!subject.isDestroyed()){
+                    subject.onHit(world, source, value);
+                }
+            }
+        });
+        events.setHandler(GameEventQueue.TYPE_KILL, new GameEventHandler() {
+            @Override
+            public void onEvent(GameWorld world, Sprite subject, Sprite source, int value) {
+                if(!subject.isDestroyed()){
+                    ((EnemyPlane)subject).explode(world);
+                }
+            }
+        });
+        events.setHandler(GameEventQueue.TYPE_PICKUP, new GameEventHandler() {
+            @Override
+            public void onEvent(GameWorld world, Sprite subject, Sprite source, int value) {
+                if(!subject.isDestroyed()){
+                    ((CombatAircraft)source).pickUp(world, (Award)subject);
+                }
+            }
+        });
+        events.setHandler(GameEventQueue.TYPE_SPAWN, new GameEventHandler() {
+            @Override
+            public void onEvent(GameWorld world, Sprite subject, Sprite source, int value) {
+                spritesNeedAdded.add(subject);
+                subject.scheduleTimers(world);
+            }
+        });
+        events.setHandler(GameEventQueue.TYPE_SCORE, new GameEventHandler() {
+            @Override
+            public void onEvent(GameWorld world, Sprite subject, Sprite source, int value) {
+                world.addScore(value);
+            }
+        });
+    }
+
+    public void setSize(int width, int height){
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth(){
+        return width;
+    }
+
+    public int getHeight(){
+        return height;
+    }
+
+    public float getDensity(){
+        return density;
+    }
+
+    public long getSeed(){
+        return seed;
+    }
+
+    public long getFrame(){
+        return frame;
+    }
+
+    public GameEventQueue getEvents(){
+        return events;
+    }
+
+    public TimerWheel getTimers(){
+        return timers;
+    }
+
+    public long getScore(){
+        return score;
+    }
+
+    public void addScore(int value){
+        score += value;
+    }
+
+    public void addSprite(Sprite sprite){
+        events.post(GameEventQueue.TYPE_SPAWN, sprite, null, 0);
+    }
+
+    public List<Sprite> getSprites(){
+        return sprites;
+    }
+
+    public int getPendingSpriteCount(){
+        return spritesNeedAdded.size();
+    }
+
+    public void setBulletHellIntensity(int intensity){
+        this.bulletHellIntensity = Math.max(intensity, 0);
+    }
+
+    public int getBulletHellIntensity(){
+        return bulletHellIntensity;
+    }
+
+    public boolean isBulletHell(){
+        return bulletHellIntensity > 0;
+    }
+
+    public ProjectileStore getProjectiles(){
+        return projectiles;
+    }
+
+    public SpatialIndex<EnemyPlane> getEnemyIndex(){
+        return enemyIndex;
+    }
+
+    public void setSoundMixer(SoundMixer soundMixer){
+        this.soundMixer = soundMixer;
+    }
+
+    public void playSound(int sound){
+        if(soundMixer != null){
+            soundMixer.play(sound, 1);
+        }
+    }
+
+    public void setTelemetry(TelemetryRing telemetry){
+        this.telemetry = telemetry;
+    }
+
+    public void recordEvent(int type, Sprite subject, CombatAircraft player, long value){
+        TelemetryRing telemetry = this.telemetry;
+        if(telemetry == null){
+            return;
+        }
+        int playerIndex = 0;
+        for(int i = 0; i < aircrafts.length; i++){
+            if(aircrafts[i] == player){
+                playerIndex = i;
+            }
+        }
+        float x = subject != null ? subject.getX() : 0;
+        float y = subject != null ? subject.getY() : 0;
+        telemetry.record(type, frame, telemetryKind(subject), playerIndex, value, x, y);
+    }
+
+    private static int telemetryKind(Sprite s){
+        if(s instanceof SmallEnemyPlane){
+            return TelemetryRing.KIND_SMALL;
+        }else if(s instanceof MiddleEnemyPlane){
+            return TelemetryRing.KIND_MIDDLE;
+        }else if(s instanceof BigEnemyPlane){
+            return TelemetryRing.KIND_BIG;
+        }else if(s instanceof BombAward){
+            return TelemetryRing.KIND_BOMB_AWARD;
+        }else if(s instanceof BulletAward){
+            return TelemetryRing.KIND_BULLET_AWARD;
+        }else if(s instanceof CombatAircraft){
+            return TelemetryRing.KIND_PLAYER;
+        }
+        return TelemetryRing.KIND_NONE;
+    }
+
+    public void setMetrics(GameMetrics metrics){
+        trackSprites(this.metrics, -1);
+        this.metrics = metrics;
+        trackSprites(metrics, 1);
+    }
+
+    public GameMetrics getMetrics(){
+        return metrics;
+    }
+
+    private void trackSprites(GameMetrics metrics, int delta){
+        if(metrics == null){
+            return;
+        }
+        for(int i = 0; i < sprites.size(); i++){
+            metrics.track(sprites.get(i), delta);
+        }
+    }
+
+    public void setProbe(TickProbe probe){
+        this.probe = probe;
+    }
+
+    public TickProbe getProbe(){
+        return probe;
+    }
+
+    public int getPlayerCount(){
+        return aircrafts.length;
+    }
+
+    public CombatAircraft getAircraft(int player){
+        return aircrafts[player];
+    }
+
+    public CombatAircraft getNearestAircraft(float x, float y){
+        CombatAircraft nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for(CombatAircraft aircraft : aircrafts){
+            if(aircraft.isDestroyed()){
+                continue;
+            }
+            float dx = aircraft.getX() + aircraft.getWidth() / 2 - x;
+            float dy = aircraft.getY() + aircraft.getHeight() / 2 - y;
+            float distance = dx * dx + dy * dy;
+            if(distance < nearestDistance){
+                nearest = aircraft;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    public void applyInput(int player, PlayerInput input){
+        CombatAircraft aircraft = aircrafts[player];
+        if(input.isMove()){
+            aircraft.centerTo(input.getX(), input.getY());
+        }
+        if(input.isBomb()){
+            aircraft.bomb(this);
+        }
+        events.dispatch(this);
+    }
+
+    public void update(){
+        TickProbe probe = this.probe;
+        if(probe != null){
+            probe.begin(TickProbe.SECTION_TICK, null);
+        }
+        if(frame == 0){
+            placeAircrafts();
+            if(telemetry != null){
+                telemetry.record(TelemetryRing.TYPE_SESSION_START, 0, TelemetryRing.KIND_NONE, aircrafts.length,
+                        System.currentTimeMillis(), width, height);
+            }
+        }
+        if(probe != null){
+            probe.begin(TickProbe.SECTION_MERGE, null);
+        }
+        if(spritesNeedAdded.size() > 0){
+            if(metrics != null){
+                for(int i = 0; i < spritesNeedAdded.size(); i++){
+                    metrics.onSpawn(spritesNeedAdded.get(i));
+                }
+            }
+            sprites.addAll(spritesNeedAdded);
+            spritesNeedAdded.clear();
+        }
+        if(probe != null){
+            probe.end(TickProbe.SECTION_MERGE, null);
+            probe.begin(TickProbe.SECTION_DESTROY, null);
+        }
+        destroyBulletsFrontOfCombatAircraft();
+        removeDestroyedSprites();
+        if(probe != null){
+            probe.end(TickProbe.SECTION_DESTROY, null);
+            probe.begin(TickProbe.SECTION_SPAWN, null);
+        }
+        if(frame % 30 == 0){
+            createRandomSprites(width);
+        }
+        if(frame % SCORE_SAMPLE_FRAMES == 0){
+            recordEvent(TelemetryRing.TYPE_SCORE, null, null, score);
+        }
+        if(probe != null){
+            probe.end(TickProbe.SECTION_SPAWN, null);
+        }
+        frame++;
+        bulletCollider.beginTick();
+        Iterator<Sprite> iterator = sprites.iterator();
+        while (iterator.hasNext()){
+            Sprite s = iterator.next();
+            if(!s.isDestroyed()){
+                s.update(this);
+            }
+            if(s.isDestroyed()){
+                iterator.remove();
+                removed(s);
+            }else if(s instanceof EnemyPlane){
+                index((EnemyPlane)s);
+                bulletCollider.trackEnemy((EnemyPlane)s);
+            }
+        }
+        if(probe != null){
+            probe.begin(TickProbe.SECTION_COLLIDE, null);
+        }
+        bulletCollider.resolve(this, sprites, enemyIndex);
+        if(probe != null){
+            probe.end(TickProbe.SECTION_COLLIDE, null);
+        }
+        timers.advance(this);
+        for(CombatAircraft aircraft : aircrafts){
+            aircraft.update(this);
+        }
+        if(probe != null){
+            probe.begin(TickProbe.SECTION_PROJECTILES, null);
+        }
+        projectiles.update(this, aircrafts);
+        if(probe != null){
+            probe.end(TickProbe.SECTION_PROJECTILES, null);
+            probe.begin(TickProbe.SECTION_EVENTS, null);
+        }
+        events.dispatch(this);
+        if(probe != null){
+            probe.end(TickProbe.SECTION_EVENTS, null);
+        }
+        if(!sessionEnded && isGameOver()){
+            sessionEnded = true;
+            recordEvent(TelemetryRing.TYPE_SESSION_END, null, null, score);
+        }
+        if(probe != null){
+            probe.end(TickProbe.SECTION_TICK, null);
+        }
+    }
+
+    public void writeSnapshot(RenderSnapshot snapshot){
+        snapshot.begin(frame, score, aircrafts.length);
+        for(int i = 0; i < sprites.size(); i++){
+            sprites.get(i).submit(snapshot);
+        }
+        for(int player = 0; player < aircrafts.length; player++){
+            CombatAircraft aircraft = aircrafts[player];
+            aircraft.submit(snapshot);
+            snapshot.setPlayer(player, aircraft.getBombCount(), !aircraft.isDestroyed());
+        }
+        projectiles.submit(snapshot);
+    }
+
+    public boolean isGameOver(){
+        for(CombatAircraft aircraft : aircrafts){
+            if(!aircraft.isDestroyed()){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void placeAircrafts(){
+        int playerCount = aircrafts.length;
+        for(int player = 0; player < playerCount; player++){
+            CombatAircraft aircraft = aircrafts[player];
+            float centerX = width * (player + 1) / (playerCount + 1);
+            float centerY = height - aircraft.getHeight() / 2;
+            aircraft.centerTo(centerX, centerY);
+        }
+    }
+
+    private void destroyBulletsFrontOfCombatAircraft(){
+        boolean alive = false;
+        float aircraftY = 0;
+        for(CombatAircraft aircraft : aircrafts){
+            if(!aircraft.isDestroyed()){
+                aircraftY = alive ? Math.max(aircraftY, aircraft.getY()) : aircraft.getY();
+                alive = true;
+            }
+        }
+        if(!alive){
+            return;
+        }
+        List<Bullet> aliveBullets = getAliveBullets();
+        for(Bullet bullet : aliveBullets){
+            if(aircraftY <= bullet.getY()){
+                bullet.destroy();
+            }
+        }
+    }
+
+    private void removeDestroyedSprites(){
+        Iterator<Sprite> iterator = sprites.iterator();
+        while (iterator.hasNext()){
+            Sprite s = iterator.next();
+            if(s.isDestroyed()){
+                iterator.remove();
+                removed(s);
+            }
+        }
+    }
+
+    private void index(EnemyPlane enemyPlane){
+        int proxy = enemyPlane.getSpatialProxy();
+        if(proxy == SpatialIndex.NULL_PROXY){
+            enemyPlane.setSpatialProxy(enemyIndex.insert(enemyPlane));
+        }else{
+            enemyIndex.update(proxy);
+        }
+    }
+
+    private void removed(Sprite s){
+        unindex(s);
+        if(metrics != null){
+            metrics.track(s, -1);
+        }
+    }
+
+    private void unindex(Sprite s){
+        if(s instanceof EnemyPlane){
+            EnemyPlane enemyPlane = (EnemyPlane)s;
+            int proxy = enemyPlane.getSpatialProxy();
+            if(proxy != SpatialIndex.NULL_PROXY){
+                enemyIndex.remove(proxy);
+                enemyPlane.setSpatialProxy(SpatialIndex.NULL_PROXY);
+            }
+        }
+    }
+
+    private void createRandomSprites(int canvasWidth){
+        Sprite sprite = null;
+        int speed = 2;
+        int callTime = Math.round(frame / 30);
+        if((callTime + 1) % 25 == 0){
+            if((callTime + 1) % 50 == 0){
+                sprite = new BombAward(images[IMAGE_BOMB_AWARD]);
+            }
+            else{
+                sprite = new BulletAward(images[IMAGE_BULLET_AWARD]);
+            }
+        }
+        else{
+            int[] nums = {0,0,0,0,0,1,0,0,1,0,0,0,0,1,1,1,1,1,1,2};
+            int index = random.nextInt(nums.length);
+            int type = nums[index];
+            if(type == 0){
+                sprite = new SmallEnemyPlane(images[IMAGE_SMALL]);
+            }
+            else if(type == 1){
+                sprite = new MiddleEnemyPlane(images[IMAGE_MIDDLE]);
+            }
+            else if(type == 2){
+                sprite = new BigEnemyPlane(images[IMAGE_BIG]);
+            }
+            if(type != 2){
+                if(random.nextFloat() < 0.33){
+                    speed = 4;
+                }
+            }
+        }
+
+        if(sprite instanceof EnemyPlane && !(sprite instanceof BigEnemyPlane) && random.nextFloat() < 0.3f){
+            MotionPath path = ENEMY_PATHS[random.nextInt(ENEMY_PATHS.length)];
+            int members = sprite instanceof SmallEnemyPlane ? 3 + 2 * random.nextInt(2) : 1;
+            spawnFormation((EnemyPlane)sprite, path, members, speed, canvasWidth);
+        }else if(sprite != null){
+            float spriteWidth = sprite.getWidth();
+            float spriteHeight = sprite.getHeight();
+            float x = (canvasWidth - spriteWidth) * random.nextFloat();
+            float y = -spriteHeight;
+            sprite.setX(x);
+            sprite.setY(y);
+            if(sprite instanceof AutoSprite){
+                AutoSprite autoSprite = (AutoSprite)sprite;
+                autoSprite.setSpeed(speed);
+            }
+            addSprite(sprite);
+            recordEvent(TelemetryRing.TYPE_SPAWN, sprite, null, 0);
+        }
+    }
+
+    private void spawnFormation(EnemyPlane leader, MotionPath path, int members, int speed, int canvasWidth){
+        float[] offsets = MotionPaths.FORMATION_V;
+        float spread = Math.abs(offsets[(members - 1) * 2]) * density;
+        float spriteWidth = leader.getWidth();
+        float minX = spread - path.getMinX() * density;
+        float maxX = canvasWidth - spriteWidth - spread - path.getMaxX() * density;
+        float x = maxX > minX ? minX + (maxX - minX) * random.nextFloat() : (minX + maxX) / 2;
+        float y = -leader.getHeight();
+        for(int member = 0; member < members; member++){
+            EnemyPlane enemyPlane = member == 0 ? leader : new SmallEnemyPlane(images[IMAGE_SMALL]);
+            enemyPlane.setX(x + offsets[member * 2] * density);
+            enemyPlane.setY(y + offsets[member * 2 + 1] * density);
+            enemyPlane.setSpeed(speed);
+            enemyPlane.followPath(path);
+            addSprite(enemyPlane);
+            recordEvent(TelemetryRing.TYPE_SPAWN, enemyPlane, null, 0);
+        }
+    }
+
+    public void destroy(){
+        for(CombatAircraft aircraft : aircrafts){
+            aircraft.destroy();
+        }
+        for(Sprite s : sprites){
+            s.destroy();
+        }
+        trackSprites(metrics, -1);
+        sprites.clear();
+        spritesNeedAdded.clear();
+        projectiles.clear();
+        enemyIndex.clear();
+        events.clear();
+        timers.reset(frame);
+    }
+
+    public void saveState(DataOutput out) throws IOException {
+        out.writeInt(STATE_VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeLong(frame);
+        out.writeLong(score);
+        out.writeLong(random.getState());
+        out.writeBoolean(sessionEnded);
+        out.writeInt(bulletHellIntensity);
+        for(CombatAircraft aircraft : aircrafts){
+            aircraft.saveState(out);
+        }
+        saveSprites(out, sprites);
+        saveSprites(out, spritesNeedAdded);
+        projectiles.saveState(out);
+    }
+
+    private void saveSprites(DataOutput out, List<Sprite> list) throws IOException {
+        out.writeInt(list.size());
+        for(Sprite s : list){
+            out.writeByte(spriteType(s));
+            s.saveState(out);
+        }
+    }
+
+    public void loadState(DataInput in) throws IOException {
+        int version = in.readInt();
+        if(version != STATE_VERSION){
+            throw new IOException("Unsupported world state version " + version);
+        }
+        width = in.readInt();
+        height = in.readInt();
+        frame = in.readLong();
+        score = in.readLong();
+        random.setState(in.readLong());
+        sessionEnded = in.readBoolean();
+        bulletHellIntensity = in.readInt();
+        for(CombatAircraft aircraft : aircrafts){
+            aircraft.loadState(in);
+        }
+        enemyIndex.clear();
+        events.clear();
+        trackSprites(metrics, -1);
+        loadSprites(in, sprites);
+        trackSprites(metrics, 1);
+        loadSprites(in, spritesNeedAdded);
+        projectiles.loadState(in);
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && s instanceof EnemyPlane){
+                index((EnemyPlane)s);
+            }
+        }
+        scheduleTimers();
+    }
+
+    private void scheduleTimers(){
+        timers.reset(frame);
+        for(CombatAircraft aircraft : aircrafts){
+            aircraft.scheduleTimers(this);
+        }
+        for(Sprite s : sprites){
+            if(!s.isDestroyed()){
+                s.scheduleTimers(this);
+            }
+        }
+        for(Sprite s : spritesNeedAdded){
+            if(!s.isDestroyed()){
+                s.scheduleTimers(this);
+            }
+        }
+    }
+
+    private void loadSprites(DataInput in, List<Sprite> list) throws IOException {
+        list.clear();
+        int size = in.readInt();
+        for(int i = 0; i < size; i++){
+            Sprite s = createSprite(in.readByte());
+            s.loadState(in);
+            list.add(s);
+        }
+    }
+
+    private int spriteType(Sprite s){
+        if(s instanceof HomingMissile){
+            return SPRITE_HOMING_MISSILE;
+        }else if(s instanceof Bullet){
+            return s.getImage() == images[IMAGE_BLUE_BULLET] ? SPRITE_BLUE_BULLET : SPRITE_BULLET;
+        }else if(s instanceof SmallEnemyPlane){
+            return SPRITE_SMALL;
+        }else if(s instanceof MiddleEnemyPlane){
+            return SPRITE_MIDDLE;
+        }else if(s instanceof BigEnemyPlane){
+            return SPRITE_BIG;
+        }else if(s instanceof BombAward){
+            return SPRITE_BOMB_AWARD;
+        }else if(s instanceof BulletAward){
+            return SPRITE_BULLET_AWARD;
+        }else if(s instanceof Explosion){
+            return SPRITE_EXPLOSION;
+        }
+        throw new IllegalStateException("Unsupported sprite " + s.getClass().getName());
+    }
+
+    private Sprite createSprite(int type) throws IOException {
+        switch(type){
+            case SPRITE_BULLET:
+                return new Bullet(images[IMAGE_YELLOW_BULLET]);
+            case SPRITE_BLUE_BULLET:
+                return new Bullet(images[IMAGE_BLUE_BULLET]);
+            case SPRITE_HOMING_MISSILE:
+                return new HomingMissile(images[IMAGE_BLUE_BULLET], 0);
+            case SPRITE_SMALL:
+                return new SmallEnemyPlane(images[IMAGE_SMALL]);
+            case SPRITE_MIDDLE:
+                return new MiddleEnemyPlane(images[IMAGE_MIDDLE]);
+            case SPRITE_BIG:
+                return new BigEnemyPlane(images[IMAGE_BIG]);
+            case SPRITE_BOMB_AWARD:
+                return new BombAward(images[IMAGE_BOMB_AWARD]);
+            case SPRITE_BULLET_AWARD:
+                return new BulletAward(images[IMAGE_BULLET_AWARD]);
+            case SPRITE_EXPLOSION:
+                return new Explosion(explosionClip);
+        }
+        throw new IOException("Unknown sprite type " + type);
+    }
+
+    public SpriteImage getYellowBulletImage(){
+        return images[IMAGE_YELLOW_BULLET];
+    }
+
+    public SpriteImage getBlueBulletImage(){
+        return images[IMAGE_BLUE_BULLET];
+    }
+
+    public AnimationClip getExplosionClip(){
+        return explosionClip;
+    }
+
+    public List<EnemyPlane> getAliveEnemyPlanes(){
+        List<EnemyPlane> enemyPlanes = new ArrayList<EnemyPlane>();
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && s instanceof EnemyPlane){
+                EnemyPlane sprite = (EnemyPlane)s;
+                enemyPlanes.add(sprite);
+            }
+        }
+        return enemyPlanes;
+    }
+
+    public List<BombAward> getAliveBombAwards(){
+        List<BombAward> bombAwards = new ArrayList<BombAward>();
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && s instanceof BombAward){
+                BombAward bombAward = (BombAward)s;
+                bombAwards.add(bombAward);
+            }
+        }
+        return bombAwards;
+    }
+
+    public List<BulletAward> getAliveBulletAwards(){
+        List<BulletAward> bulletAwards = new ArrayList<BulletAward>();
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && s instanceof BulletAward){
+                BulletAward bulletAward = (BulletAward)s;
+                bulletAwards.add(bulletAward);
+            }
+        }
+        return bulletAwards;
+    }
+
+    public List<Bullet> getAliveBullets(){
+        List<Bullet> bullets = new ArrayList<Bullet>();
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && s instanceof Bullet){
+                Bullet bullet = (Bullet)s;
+                bullets.add(bullet);
+            }
+        }
+        return bullets;
+    }
+}
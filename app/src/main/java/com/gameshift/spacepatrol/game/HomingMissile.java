@@ -0,0 +1,54 @@
+package com.gameshift.spacepatrol.game;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class HomingMissile extends Bullet {
+    private static final float SPEED = 9;
+    private static final float TURN_RATE = 0.18f;
+    private static final int MAX_LIFE_FRAMES = 150;
+
+    private float angle;
+
+    public HomingMissile(SpriteImage image, float angle){
+        super(image);
+        this.angle = angle;
+    }
+
+    @Override
+    void saveState(DataOutput out) throws IOException {
+        super.saveState(out);
+        out.writeFloat(angle);
+    }
+
+    @Override
+    void loadState(DataInput in) throws IOException {
+        super.loadState(in);
+        angle = in.readFloat();
+    }
+
+    @Override
+    protected void beforeUpdate(GameWorld world) {
+        if(isDestroyed()){
+            return;
+        }
+        if(getFrame() > MAX_LIFE_FRAMES){
+            destroy();
+            return;
+        }
+        float centerX = getX() + getWidth() / 2;
+        float centerY = getY() + getHeight() / 2;
+        EnemyPlane target = world.getEnemyIndex().nearest(centerX, centerY, Float.MAX_VALUE);
+        if(target != null){
+            float targetX = target.getX() + target.getWidth() / 2;
+            float targetY = target.getY() + target.getHeight() / 2;
+            double difference = StrictMath.IEEEremainder(
+                    StrictMath.atan2(targetY - centerY, targetX - centerX) - angle, 2 * Math.PI);
+            double turned = angle + Math.max(-TURN_RATE, Math.min(TURN_RATE, difference));
+            angle = (float)StrictMath.IEEEremainder(turned, 2 * Math.PI);
+        }
+        float speed = SPEED * world.getDensity();
+        move((float)(StrictMath.cos(angle) * speed), (float)(StrictMath.sin(angle) * speed));
+    }
+}
@@ -1,13 +1,22 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-
 public class MiddleEnemyPlane extends EnemyPlane {
 
-    public MiddleEnemyPlane(Bitmap bitmap){
-        super(bitmap);
+    public MiddleEnemyPlane(SpriteImage image){
+        super(image);
         setPower(4);
         setValue(6000);
     }
 
+    @Override
+    protected int getFireInterval() {
+        return 40;
+    }
+
+    @Override
+    protected void fire(GameWorld world, ProjectileStore projectiles, float centerX, float centerY, int intensity) {
+        float speed = 2 * world.getDensity();
+        projectiles.spawnRing(centerX, centerY, intensity * 8, speed, getFrame() * 0.1f);
+    }
+
 }
\ No newline at end of file
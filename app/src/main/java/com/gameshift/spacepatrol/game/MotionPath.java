@@ -0,0 +1,87 @@
+package com.gameshift.spacepatrol.game;
+
+public class MotionPath {
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] speeds;
+    private final float step;
+    private final float length;
+    private final float tailX;
+    private final float tailY;
+    private final float minX;
+    private final float maxX;
+
+    MotionPath(float[] xs, float[] ys, float[] speeds, float step, float length){
+        this.xs = xs;
+        this.ys = ys;
+        this.speeds = speeds;
+        this.step = step;
+        this.length = length;
+        int last = xs.length - 1;
+        float dx = xs[last] - xs[last - 1];
+        float dy = ys[last] - ys[last - 1];
+        float d = (float)Math.sqrt(dx * dx + dy * dy);
+        tailX = d > 0 ? dx / d : 0;
+        tailY = d > 0 ? dy / d : 1;
+        float min = 0;
+        float max = 0;
+        for(float x : xs){
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+        }
+        minX = min;
+        maxX = max;
+    }
+
+    public float getLength(){
+        return length;
+    }
+
+    public float getMinX(){
+        return minX;
+    }
+
+    public float getMaxX(){
+        return maxX;
+    }
+
+    public int getSampleCount(){
+        return xs.length;
+    }
+
+    public float getX(float distance){
+        if(distance >= length){
+            return xs[xs.length - 1] + (distance - length) * tailX;
+        }
+        if(distance <= 0){
+            return xs[0];
+        }
+        float position = distance / step;
+        int index = (int)position;
+        float fraction = position - index;
+        return xs[index] + (xs[index + 1] - xs[index]) * fraction;
+    }
+
+    public float getY(float distance){
+        if(distance >= length){
+            return ys[ys.length - 1] + (distance - length) * tailY;
+        }
+        if(distance <= 0){
+            return ys[0];
+        }
+        float position = distance / step;
+        int index = (int)position;
+        float fraction = position - index;
+        return ys[index] + (ys[index + 1] - ys[index]) * fraction;
+    }
+
+    public float getSpeed(float distance){
+        if(distance >= length){
+            return speeds[speeds.length - 1];
+        }
+        if(distance <= 0){
+            return speeds[0];
+        }
+        return speeds[(int)(distance / step)];
+    }
+}
@@ -0,0 +1,55 @@
+package com.gameshift.spacepatrol.game;
+
+public class MotionPaths {
+    private static final float STEP = 2;
+
+    public static final MotionPath AWARD = new PathBuilder(0, 0)
+            .lineTo(0, 160)
+            .speed(2.5f).lineTo(0, 0)
+            .speed(6.5f).lineTo(0, 8)
+            .build(STEP);
+
+    public static final MotionPath WEAVE = new PathBuilder(0, 0)
+            .cubicTo(0, 80, 60, 80, 60, 160)
+            .cubicTo(60, 240, -60, 240, -60, 320)
+            .cubicTo(-60, 400, 0, 400, 0, 480)
+            .lineTo(0, 520)
+            .build(STEP);
+
+    public static final MotionPath SWOOP_RIGHT = new PathBuilder(0, 0)
+            .lineTo(0, 120)
+            .cubicTo(0, 240, 140, 240, 140, 360)
+            .lineTo(140, 400)
+            .build(STEP);
+
+    public static final MotionPath SWOOP_LEFT = new PathBuilder(0, 0)
+            .lineTo(0, 120)
+            .cubicTo(0, 240, -140, 240, -140, 360)
+            .lineTo(-140, 400)
+            .build(STEP);
+
+    private static final MotionPath[] PATHS = {AWARD, WEAVE, SWOOP_RIGHT, SWOOP_LEFT};
+
+    public static int indexOf(MotionPath path){
+        for(int i = 0; i < PATHS.length; i++){
+            if(PATHS[i] == path){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static MotionPath get(int index){
+        return index >= 0 && index < PATHS.length ? PATHS[index] : null;
+    }
+
+    public static final float[] FORMATION_V = {
+            0, 0,
+            -36, -28,
+            36, -28,
+            -72, -56,
+            72, -56
+    };
+
+    private MotionPaths(){}
+}
@@ -0,0 +1,86 @@
+package com.gameshift.spacepatrol.game;
+
+import java.util.Arrays;
+
+public class PathBuilder {
+    private static final int CURVE_SUBDIVISIONS = 64;
+
+    private float[] xs = new float[64];
+    private float[] ys = new float[64];
+    private float[] speeds = new float[64];
+    private int count = 0;
+    private float speed = 1;
+
+    public PathBuilder(float startX, float startY){
+        addPoint(startX, startY);
+    }
+
+    public PathBuilder speed(float speed){
+        this.speed = speed;
+        return this;
+    }
+
+    public PathBuilder lineTo(float x, float y){
+        addPoint(x, y);
+        return this;
+    }
+
+    public PathBuilder cubicTo(float control1X, float control1Y, float control2X, float control2Y, float x, float y){
+        float startX = xs[count - 1];
+        float startY = ys[count - 1];
+        for(int i = 1; i <= CURVE_SUBDIVISIONS; i++){
+            float t = (float)i / CURVE_SUBDIVISIONS;
+            float u = 1 - t;
+            float a = u * u * u;
+            float b = 3 * u * u * t;
+            float c = 3 * u * t * t;
+            float d = t * t * t;
+            addPoint(a * startX + b * control1X + c * control2X + d * x,
+                    a * startY + b * control1Y + c * control2Y + d * y);
+        }
+        return this;
+    }
+
+    private void addPoint(float x, float y){
+        if(count == xs.length){
+            xs = Arrays.copyOf(xs, count * 2);
+            ys = Arrays.copyOf(ys, count * 2);
+            speeds = Arrays.copyOf(speeds, count * 2);
+        }
+        xs[count] = x;
+        ys[count] = y;
+        speeds[count] = speed;
+        count++;
+    }
+
+    public MotionPath build(float step){
+        if(count < 2){
+            throw new IllegalStateException("A path needs at least two points");
+        }
+        float[] lengths = new float[count];
+        for(int i = 1; i < count; i++){
+            float dx = xs[i] - xs[i - 1];
+            float dy = ys[i] - ys[i - 1];
+            lengths[i] = lengths[i - 1] + (float)Math.sqrt(dx * dx + dy * dy);
+        }
+        float length = lengths[count - 1];
+        int samples = Math.max((int)Math.ceil(length / step), 1) + 1;
+        float sampleStep = length / (samples - 1);
+        float[] sampleXs = new float[samples];
+        float[] sampleYs = new float[samples];
+        float[] sampleSpeeds = new float[samples];
+        int segment = 1;
+        for(int i = 0; i < samples; i++){
+            float distance = Math.min(i * sampleStep, length);
+            while(segment < count - 1 && lengths[segment] < distance){
+                segment++;
+            }
+            float segmentLength = lengths[segment] - lengths[segment - 1];
+            float fraction = segmentLength > 0 ? (distance - lengths[segment - 1]) / segmentLength : 0;
+            sampleXs[i] = xs[segment - 1] + (xs[segment] - xs[segment - 1]) * fraction;
+            sampleYs[i] = ys[segment - 1] + (ys[segment] - ys[segment - 1]) * fraction;
+            sampleSpeeds[i] = speeds[segment];
+        }
+        return new MotionPath(sampleXs, sampleYs, sampleSpeeds, sampleStep, length);
+    }
+}
@@ -0,0 +1,193 @@
+package com.gameshift.spacepatrol.game;
+
+import com.gameshift.spacepatrol.game.render.SpriteSink;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class ProjectileStore {
+    public static final int MAX_PROJECTILES = 32768;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float HIT_RATIO = 0.5f;
+
+    private final SpriteImage image;
+    private float[] x = new float[INITIAL_CAPACITY];
+    private float[] y = new float[INITIAL_CAPACITY];
+    private float[] vx = new float[INITIAL_CAPACITY];
+    private float[] vy = new float[INITIAL_CAPACITY];
+    private final float[] targetLeft;
+    private final float[] targetTop;
+    private final float[] targetRight;
+    private final float[] targetBottom;
+    private final CombatAircraft[] targets;
+    private int count = 0;
+    private long dropped = 0;
+
+    public ProjectileStore(SpriteImage image, int playerCount){
+        this.image = image;
+        targetLeft = new float[playerCount];
+        targetTop = new float[playerCount];
+        targetRight = new float[playerCount];
+        targetBottom = new float[playerCount];
+        targets = new CombatAircraft[playerCount];
+    }
+
+    public int size(){
+        return count;
+    }
+
+    public long getDropped(){
+        return dropped;
+    }
+
+    public float getX(int index){
+        return x[index];
+    }
+
+    public float getY(int index){
+        return y[index];
+    }
+
+    public void spawn(float centerX, float centerY, float velocityX, float velocityY){
+        if(count == x.length){
+            if(count >= MAX_PROJECTILES){
+                dropped++;
+                return;
+            }
+            int capacity = Math.min(count * 2, MAX_PROJECTILES);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            vx = Arrays.copyOf(vx, capacity);
+            vy = Arrays.copyOf(vy, capacity);
+        }
+        x[count] = centerX;
+        y[count] = centerY;
+        vx[count] = velocityX;
+        vy[count] = velocityY;
+        count++;
+    }
+
+    public void spawnRing(float centerX, float centerY, int projectiles, float speed, float angle){
+        double step = 2 * Math.PI / projectiles;
+        for(int i = 0; i < projectiles; i++){
+            double a = angle + step * i;
+            spawn(centerX, centerY, (float)(StrictMath.cos(a) * speed), (float)(StrictMath.sin(a) * speed));
+        }
+    }
+
+    public void spawnFan(float centerX, float centerY, float targetX, float targetY, int projectiles, float spread, float speed){
+        double aim = StrictMath.atan2(targetY - centerY, targetX - centerX);
+        double first = aim - spread * (projectiles - 1) / 2;
+        for(int i = 0; i < projectiles; i++){
+            double a = first + spread * i;
+            spawn(centerX, centerY, (float)(StrictMath.cos(a) * speed), (float)(StrictMath.sin(a) * speed));
+        }
+    }
+
+    public void update(GameWorld world, CombatAircraft[] aircrafts){
+        int targetCount = 0;
+        for(CombatAircraft aircraft : aircrafts){
+            if(aircraft.isVulnerable()){
+                float insetX = aircraft.getWidth() / 4;
+                float insetY = aircraft.getHeight() / 4;
+                targetLeft[targetCount] = aircraft.getX() + insetX;
+                targetTop[targetCount] = aircraft.getY() + insetY;
+                targetRight[targetCount] = aircraft.getX() + aircraft.getWidth() - insetX;
+                targetBottom[targetCount] = aircraft.getY() + aircraft.getHeight() - insetY;
+                targets[targetCount] = aircraft;
+                targetCount++;
+            }
+        }
+        float halfWidth = image.getWidth() * HIT_RATIO / 2;
+        float halfHeight = image.getHeight() * HIT_RATIO / 2;
+        float right = world.getWidth() + halfWidth;
+        float bottom = world.getHeight() + halfHeight;
+        float[] x = this.x;
+        float[] y = this.y;
+        float[] vx = this.vx;
+        float[] vy = this.vy;
+        int live = 0;
+        for(int i = 0; i < count; i++){
+            float px = x[i] + vx[i];
+            float py = y[i] + vy[i];
+            if(px < -halfWidth || px > right || py < -halfHeight || py > bottom){
+                continue;
+            }
+            boolean hit = false;
+            for(int t = 0; t < targetCount; t++){
+                if(px + halfWidth > targetLeft[t] && px - halfWidth < targetRight[t]
+                        && py + halfHeight > targetTop[t] && py - halfHeight < targetBottom[t]){
+                    CombatAircraft target = targets[t];
+                    if(target.isVulnerable()){
+                        world.getEvents().post(GameEventQueue.TYPE_HIT, target, null, 1);
+                    }
+                    hit = true;
+                    break;
+                }
+            }
+            if(hit){
+                continue;
+            }
+            x[live] = px;
+            y[live] = py;
+            vx[live] = vx[i];
+            vy[live] = vy[i];
+            live++;
+        }
+        count = live;
+        for(int t = 0; t < targetCount; t++){
+            targets[t] = null;
+        }
+    }
+
+    public void submit(SpriteSink sink){
+        float width = image.getWidth();
+        float height = image.getHeight();
+        float halfWidth = width / 2;
+        float halfHeight = height / 2;
+        for(int i = 0; i < count; i++){
+            float left = x[i] - halfWidth;
+            float top = y[i] - halfHeight;
+            sink.add(Sprite.LAYER_PROJECTILE, image, 0, 0, width, height, left, top, left + width, top + height);
+        }
+    }
+
+    public void clear(){
+        count = 0;
+    }
+
+    void saveState(DataOutput out) throws IOException {
+        out.writeLong(dropped);
+        out.writeInt(count);
+        for(int i = 0; i < count; i++){
+            out.writeFloat(x[i]);
+            out.writeFloat(y[i]);
+            out.writeFloat(vx[i]);
+            out.writeFloat(vy[i]);
+        }
+    }
+
+    void loadState(DataInput in) throws IOException {
+        dropped = in.readLong();
+        int size = in.readInt();
+        if(size < 0 || size > MAX_PROJECTILES){
+            throw new IOException("Invalid projectile count " + size);
+        }
+        if(size > x.length){
+            int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(size - 1) << 1);
+            x = new float[capacity];
+            y = new float[capacity];
+            vx = new float[capacity];
+            vy = new float[capacity];
+        }
+        for(int i = 0; i < size; i++){
+            x[i] = in.readFloat();
+            y[i] = in.readFloat();
+            vx[i] = in.readFloat();
+            vy[i] = in.readFloat();
+        }
+        count = size;
+    }
+}
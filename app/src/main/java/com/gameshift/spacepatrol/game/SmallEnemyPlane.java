@@ -1,13 +1,27 @@
 package com.gameshift.spacepatrol.game;
 
-import android.graphics.Bitmap;
-
 public class SmallEnemyPlane extends EnemyPlane {
 
-    public SmallEnemyPlane(Bitmap bitmap){
-        super(bitmap);
+    public SmallEnemyPlane(SpriteImage image){
+        super(image);
         setPower(1);
         setValue(1000);
     }
 
+    @Override
+    protected int getFireInterval() {
+        return 45;
+    }
+
+    @Override
+    protected void fire(GameWorld world, ProjectileStore projectiles, float centerX, float centerY, int intensity) {
+        CombatAircraft target = world.getNearestAircraft(centerX, centerY);
+        if(target != null){
+            float targetX = target.getX() + target.getWidth() / 2;
+            float targetY = target.getY() + target.getHeight() / 2;
+            float speed = 3 * world.getDensity();
+            projectiles.spawnFan(centerX, centerY, targetX, targetY, intensity * 2 + 1, 0.12f, speed);
+        }
+    }
+
 }
\ No newline at end of file
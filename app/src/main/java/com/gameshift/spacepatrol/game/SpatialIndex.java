@@ -0,0 +1,507 @@
+package com.gameshift.spacepatrol.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class SpatialIndex<T extends Sprite> {
+    public static final int NULL_PROXY = -1;
+    private static final int NULL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float RAY_MISS = -1;
+
+    private final float margin;
+    private float[] minX = new float[INITIAL_CAPACITY];
+    private float[] minY = new float[INITIAL_CAPACITY];
+    private float[] maxX = new float[INITIAL_CAPACITY];
+    private float[] maxY = new float[INITIAL_CAPACITY];
+    private int[] parent = new int[INITIAL_CAPACITY];
+    private int[] child1 = new int[INITIAL_CAPACITY];
+    private int[] child2 = new int[INITIAL_CAPACITY];
+    private int[] height = new int[INITIAL_CAPACITY];
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    private int[] stack = new int[INITIAL_CAPACITY];
+    private Object[] bestItems = new Object[8];
+    private float[] bestDistances = new float[8];
+    private int root = NULL;
+    private int freeList = NULL;
+    private int nodeCount = 0;
+    private int leafCount = 0;
+
+    public SpatialIndex(float margin){
+        this.margin = margin;
+        linkFreeNodes(0, INITIAL_CAPACITY);
+    }
+
+    public int size(){
+        return leafCount;
+    }
+
+    public int getHeight(){
+        return root == NULL ? 0 : height[root];
+    }
+
+    public int insert(T item){
+        int leaf = allocateNode();
+        setFatBounds(leaf, item);
+        items[leaf] = item;
+        height[leaf] = 0;
+        insertLeaf(leaf);
+        leafCount++;
+        return leaf;
+    }
+
+    public void remove(int proxy){
+        removeLeaf(proxy);
+        freeNode(proxy);
+        leafCount--;
+    }
+
+    public boolean update(int proxy){
+        Sprite item = (Sprite)items[proxy];
+        float left = item.getX();
+        float top = item.getY();
+        float right = left + item.getWidth();
+        float bottom = top + item.getHeight();
+        if(left >= minX[proxy] && top >= minY[proxy] && right <= maxX[proxy] && bottom <= maxY[proxy]){
+            return false;
+        }
+        removeLeaf(proxy);
+        setFatBounds(proxy, item);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    public void clear(){
+        Arrays.fill(items, null);
+        Arrays.fill(bestItems, null);
+        root = NULL;
+        nodeCount = 0;
+        leafCount = 0;
+        linkFreeNodes(0, items.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T nearest(float x, float y, float maxDistance){
+        return nearest(x, y, 1, maxDistance, null) > 0 ? (T)bestItems[0] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public int nearest(float x, float y, int k, float maxDistance, List<T> out){
+        if(k <= 0 || root == NULL){
+            return 0;
+        }
+        if(bestItems.length < k){
+            bestItems = new Object[k];
+            bestDistances = new float[k];
+        }
+        float limit = maxDistance * maxDistance;
+        int found = 0;
+        int top = 0;
+        stack[top++] = root;
+        while(top > 0){
+            int node = stack[--top];
+            float bound = found == k ? bestDistances[k - 1] : limit;
+            if(boxDistanceSquared(minX[node], minY[node], maxX[node], maxY[node], x, y) > bound){
+                continue;
+            }
+            if(child1[node] == NULL){
+                Sprite item = (Sprite)items[node];
+                if(item.isDestroyed()){
+                    continue;
+                }
+                float distance = boxDistanceSquared(item.getX(), item.getY(),
+                        item.getX() + item.getWidth(), item.getY() + item.getHeight(), x, y);
+                if(distance > bound){
+                    continue;
+                }
+                int slot = found < k ? found++ : k - 1;
+                while(slot > 0 && bestDistances[slot - 1] > distance){
+                    bestDistances[slot] = bestDistances[slot - 1];
+                    bestItems[slot] = bestItems[slot - 1];
+                    slot--;
+                }
+                bestDistances[slot] = distance;
+                bestItems[slot] = item;
+            }else{
+                int near = child1[node];
+                int far = child2[node];
+                if(boxDistanceSquared(minX[far], minY[far], maxX[far], maxY[far], x, y)
+                        < boxDistanceSquared(minX[near], minY[near], maxX[near], maxY[near], x, y)){
+                    near = child2[node];
+                    far = child1[node];
+                }
+                top = push(top, far);
+                top = push(top, near);
+            }
+        }
+        if(out != null){
+            for(int i = 0; i < found; i++){
+                out.add((T)bestItems[i]);
+            }
+        }
+        for(int i = 1; i < found; i++){
+            bestItems[i] = null;
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    public int queryRadius(float x, float y, float radius, List<T> out){
+        if(root == NULL){
+            return 0;
+        }
+        float limit = radius * radius;
+        int found = 0;
+        int top = 0;
+        stack[top++] = root;
+        while(top > 0){
+            int node = stack[--top];
+            if(boxDistanceSquared(minX[node], minY[node], maxX[node], maxY[node], x, y) > limit){
+                continue;
+            }
+            if(child1[node] == NULL){
+                Sprite item = (Sprite)items[node];
+                if(!item.isDestroyed() && boxDistanceSquared(item.getX(), item.getY(),
+                        item.getX() + item.getWidth(), item.getY() + item.getHeight(), x, y) <= limit){
+                    out.add((T)item);
+                    found++;
+                }
+            }else{
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    public int queryBox(float left, float top, float right, float bottom, List<T> out){
+        if(root == NULL){
+            return 0;
+        }
+        int found = 0;
+        int sp = 0;
+        stack[sp++] = root;
+        while(sp > 0){
+            int node = stack[--sp];
+            if(minX[node] >= right || maxX[node] <= left || minY[node] >= bottom || maxY[node] <= top){
+                continue;
+            }
+            if(child1[node] == NULL){
+                Sprite item = (Sprite)items[node];
+                if(!item.isDestroyed() && item.getX() < right && item.getX() + item.getWidth() > left
+                        && item.getY() < bottom && item.getY() + item.getHeight() > top){
+                    out.add((T)item);
+                    found++;
+                }
+            }else{
+                sp = push(sp, child1[node]);
+                sp = push(sp, child2[node]);
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T raycast(float x, float y, float directionX, float directionY, float maxDistance){
+        if(root == NULL){
+            return null;
+        }
+        float inverseX = 1 / directionX;
+        float inverseY = 1 / directionY;
+        float best = maxDistance;
+        Object hit = null;
+        int top = 0;
+        stack[top++] = root;
+        while(top > 0){
+            int node = stack[--top];
+            float nodeDistance = rayDistance(minX[node], minY[node], maxX[node], maxY[node], x, y, inverseX, inverseY);
+            if(nodeDistance == RAY_MISS || nodeDistance > best){
+                continue;
+            }
+            if(child1[node] == NULL){
+                Sprite item = (Sprite)items[node];
+                if(item.isDestroyed()){
+                    continue;
+                }
+                float distance = rayDistance(item.getX(), item.getY(),
+                        item.getX() + item.getWidth(), item.getY() + item.getHeight(), x, y, inverseX, inverseY);
+                if(distance != RAY_MISS && distance <= best){
+                    best = distance;
+                    hit = item;
+                }
+            }else{
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+        return (T)hit;
+    }
+
+    private static float boxDistanceSquared(float left, float top, float right, float bottom, float x, float y){
+        float dx = x < left ? left - x : (x > right ? x - right : 0);
+        float dy = y < top ? top - y : (y > bottom ? y - bottom : 0);
+        return dx * dx + dy * dy;
+    }
+
+    private static float rayDistance(float left, float top, float right, float bottom,
+                                     float x, float y, float inverseX, float inverseY){
+        float near = Float.NEGATIVE_INFINITY;
+        float far = Float.POSITIVE_INFINITY;
+        if(Float.isInfinite(inverseX)){
+            if(x < left || x > right){
+                return RAY_MISS;
+            }
+        }else{
+            float t1 = (left - x) * inverseX;
+            float t2 = (right - x) * inverseX;
+            near = Math.min(t1, t2);
+            far = Math.max(t1, t2);
+        }
+        if(Float.isInfinite(inverseY)){
+            if(y < top || y > bottom){
+                return RAY_MISS;
+            }
+        }else{
+            float t3 = (top - y) * inverseY;
+            float t4 = (bottom - y) * inverseY;
+            near = Math.max(near, Math.min(t3, t4));
+            far = Math.min(far, Math.max(t3, t4));
+        }
+        if(far < 0 || near > far){
+            return RAY_MISS;
+        }
+        return Math.max(near, 0);
+    }
+
+    private int push(int top, int node){
+        if(top == stack.length){
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top] = node;
+        return top + 1;
+    }
+
+    private void setFatBounds(int node, Sprite item){
+        minX[node] = item.getX() - margin;
+        minY[node] = item.getY() - margin;
+        maxX[node] = item.getX() + item.getWidth() + margin;
+        maxY[node] = item.getY() + item.getHeight() + margin;
+    }
+
+    private int allocateNode(){
+        if(freeList == NULL){
+            int capacity = items.length * 2;
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            child1 = Arrays.copyOf(child1, capacity);
+            child2 = Arrays.copyOf(child2, capacity);
+            height = Arrays.copyOf(height, capacity);
+            int oldCapacity = items.length;
+            items = Arrays.copyOf(items, capacity);
+            linkFreeNodes(oldCapacity, capacity);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        height[node] = 0;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node){
+        items[node] = null;
+        height[node] = -1;
+        parent[node] = freeList;
+        freeList = node;
+        nodeCount--;
+    }
+
+    private void linkFreeNodes(int from, int to){
+        for(int i = from; i < to - 1; i++){
+            parent[i] = i + 1;
+            height[i] = -1;
+        }
+        parent[to - 1] = NULL;
+        height[to - 1] = -1;
+        freeList = from;
+    }
+
+    private float perimeter(float left, float top, float right, float bottom){
+        return (right - left) + (bottom - top);
+    }
+
+    private void insertLeaf(int leaf){
+        if(root == NULL){
+            root = leaf;
+            parent[leaf] = NULL;
+            return;
+        }
+        float leafMinX = minX[leaf];
+        float leafMinY = minY[leaf];
+        float leafMaxX = maxX[leaf];
+        float leafMaxY = maxY[leaf];
+        int index = root;
+        while(child1[index] != NULL){
+            float area = perimeter(minX[index], minY[index], maxX[index], maxY[index]);
+            float combinedArea = perimeter(Math.min(minX[index], leafMinX), Math.min(minY[index], leafMinY),
+                    Math.max(maxX[index], leafMaxX), Math.max(maxY[index], leafMaxY));
+            float cost = 2 * combinedArea;
+            float inheritanceCost = 2 * (combinedArea - area);
+            float cost1 = descendCost(child1[index], leafMinX, leafMinY, leafMaxX, leafMaxY) + inheritanceCost;
+            float cost2 = descendCost(child2[index], leafMinX, leafMinY, leafMaxX, leafMaxY) + inheritanceCost;
+            if(cost < cost1 && cost < cost2){
+                break;
+            }
+            index = cost1 < cost2 ? child1[index] : child2[index];
+        }
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        setUnion(newParent, sibling, leaf);
+        height[newParent] = height[sibling] + 1;
+        if(oldParent != NULL){
+            if(child1[oldParent] == sibling){
+                child1[oldParent] = newParent;
+            }else{
+                child2[oldParent] = newParent;
+            }
+        }else{
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        refit(parent[leaf]);
+    }
+
+    private float descendCost(int child, float leafMinX, float leafMinY, float leafMaxX, float leafMaxY){
+        float combined = perimeter(Math.min(minX[child], leafMinX), Math.min(minY[child], leafMinY),
+                Math.max(maxX[child], leafMaxX), Math.max(maxY[child], leafMaxY));
+        if(child1[child] == NULL){
+            return combined;
+        }
+        return combined - perimeter(minX[child], minY[child], maxX[child], maxY[child]);
+    }
+
+    private void removeLeaf(int leaf){
+        if(leaf == root){
+            root = NULL;
+            return;
+        }
+        int oldParent = parent[leaf];
+        int grandParent = parent[oldParent];
+        int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+        if(grandParent != NULL){
+            if(child1[grandParent] == oldParent){
+                child1[grandParent] = sibling;
+            }else{
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(oldParent);
+            refit(grandParent);
+        }else{
+            root = sibling;
+            parent[sibling] = NULL;
+            freeNode(oldParent);
+        }
+    }
+
+    private void refit(int index){
+        while(index != NULL){
+            index = balance(index);
+            int a = child1[index];
+            int b = child2[index];
+            height[index] = 1 + Math.max(height[a], height[b]);
+            setUnion(index, a, b);
+            index = parent[index];
+        }
+    }
+
+    private void setUnion(int node, int a, int b){
+        minX[node] = Math.min(minX[a], minX[b]);
+        minY[node] = Math.min(minY[a], minY[b]);
+        maxX[node] = Math.max(maxX[a], maxX[b]);
+        maxY[node] = Math.max(maxY[a], maxY[b]);
+    }
+
+    private void replaceChild(int node, int oldChild, int newChild){
+        if(node == NULL){
+            root = newChild;
+        }else if(child1[node] == oldChild){
+            child1[node] = newChild;
+        }else{
+            child2[node] = newChild;
+        }
+    }
+
+    private int balance(int a){
+        if(child1[a] == NULL || height[a] < 2){
+            return a;
+        }
+        int b = child1[a];
+        int c = child2[a];
+        int difference = height[c] - height[b];
+        if(difference > 1){
+            int f = child1[c];
+            int g = child2[c];
+            child1[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replaceChild(parent[c], a, c);
+            if(height[f] > height[g]){
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+                height[a] = 1 + Math.max(height[b], height[g]);
+                height[c] = 1 + Math.max(height[a], height[f]);
+            }else{
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+                height[a] = 1 + Math.max(height[b], height[f]);
+                height[c] = 1 + Math.max(height[a], height[g]);
+            }
+            return c;
+        }
+        if(difference < -1){
+            int d = child1[b];
+            int e = child2[b];
+            child1[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replaceChild(parent[b], a, b);
+            if(height[d] > height[e]){
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+                height[a] = 1 + Math.max(height[c], height[e]);
+                height[b] = 1 + Math.max(height[a], height[d]);
+            }else{
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+                height[a] = 1 + Math.max(height[c], height[d]);
+                height[b] = 1 + Math.max(height[a], height[e]);
+            }
+            return b;
+        }
+        return a;
+    }
+}
@@ -1,27 +1,66 @@
 package com.gameshift.spacepatrol.game;
 
 import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.Point;
-import android.graphics.Rect;
-import android.graphics.RectF;
+
+import com.gameshift.spacepatrol.game.render.SpriteSink;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class Sprite {
+    public static final int LAYER_DEFAULT = 0;
+    public static final int LAYER_BULLET = 1;
+    public static final int LAYER_ENEMY = 2;
+    public static final int LAYER_AWARD = 3;
+    public static final int LAYER_EXPLOSION = 4;
+    public static final int LAYER_AIRCRAFT = 5;
+    public static final int LAYER_PROJECTILE = 6;
+
     private boolean visible = true;
     private float x = 0;
     private float y = 0;
+    private float previousX = 0;
+    private float previousY = 0;
     private float collideOffset = 0;
-    private Bitmap bitmap = null;
+    private SpriteImage image = null;
+    private AnimationClip clip = null;
+    private int clipStart = 0;
     private boolean destroyed = false;
     private int frame = 0;
 
-    public Sprite(Bitmap bitmap){
-        this.bitmap = bitmap;
+    public Sprite(SpriteImage image){
+        this.image = image;
+    }
+
+    public Sprite(AnimationClip clip){
+        this.image = clip.getImage();
+        this.clip = clip;
+    }
+
+    public void play(AnimationClip clip){
+        this.image = clip.getImage();
+        this.clip = clip;
+        this.clipStart = frame;
+    }
+
+    public AnimationClip getClip(){
+        return clip;
+    }
+
+    public int getClipTick(){
+        return frame - clipStart;
+    }
+
+    public SpriteImage getImage(){
+        return image;
     }
 
     public Bitmap getBitmap(){
-        return bitmap;
+        if(image != null){
+            return image.getBitmap();
+        }
+        return null;
     }
 
     public void setVisibility(boolean visible){
@@ -48,18 +87,32 @@ public class Sprite {
         return y;
     }
 
+    public float getPreviousX(){
+        return previousX;
+    }
+
+    public float getPreviousY(){
+        return previousY;
+    }
+
     public float getWidth(){
-        if(bitmap != null){
-            return bitmap.getWidth();
+        if(image == null){
+            return 0;
         }
-        return 0;
+        if(clip != null){
+            return clip.getWidth(clip.frameAt(frame - clipStart));
+        }
+        return image.getWidth();
     }
 
     public float getHeight(){
-        if(bitmap != null){
-            return bitmap.getHeight();
+        if(image == null){
+            return 0;
+        }
+        if(clip != null){
+            return clip.getHeight(clip.frameAt(frame - clipStart));
         }
-        return 0;
+        return image.getHeight();
     }
 
     public void move(float offsetX, float offsetY){
@@ -79,66 +132,70 @@ public class Sprite {
         y = centerY - h / 2;
     }
 
-    public RectF getRectF(){
-        float left = x;
-        float top = y;
-        float right = left + getWidth();
-        float bottom = top + getHeight();
-        RectF rectF = new RectF(left, top, right, bottom);
-        return rectF;
-    }
-
-    public Rect getBitmapSrcRec(){
-        Rect rect = new Rect();
-        rect.left = 0;
-        rect.top = 0;
-        rect.right = (int)getWidth();
-        rect.bottom = (int)getHeight();
-        return rect;
-    }
-
-    public RectF getCollideRectF(){
-        RectF rectF = getRectF();
-        rectF.left -= collideOffset;
-        rectF.right += collideOffset;
-        rectF.top -= collideOffset;
-        rectF.bottom += collideOffset;
-        return rectF;
-    }
-
-    public Point getCollidePointWithOther(Sprite s){
-        Point p = null;
-        RectF rectF1 = getCollideRectF();
-        RectF rectF2 = s.getCollideRectF();
-        RectF rectF = new RectF();
-        boolean isIntersect = rectF.setIntersect(rectF1, rectF2);
-        if(isIntersect){
-            p = new Point(Math.round(rectF.centerX()), Math.round(rectF.centerY()));
-        }
-        return p;
+    public int getLayer(){
+        return LAYER_DEFAULT;
     }
 
-    public final void draw(Canvas canvas, Paint paint, GameView gameView){
-        frame++;
-        beforeDraw(canvas, paint, gameView);
-        onDraw(canvas, paint, gameView);
-        afterDraw(canvas, paint, gameView);
+    public boolean isCollideWith(Sprite s){
+        float left = Math.max(x - collideOffset, s.x - s.collideOffset);
+        float right = Math.min(x + getWidth() + collideOffset, s.x + s.getWidth() + s.collideOffset);
+        if(left >= right){
+            return false;
+        }
+        float top = Math.max(y - collideOffset, s.y - s.collideOffset);
+        float bottom = Math.min(y + getHeight() + collideOffset, s.y + s.getHeight() + s.collideOffset);
+        return top < bottom;
     }
 
-    protected void beforeDraw(Canvas canvas, Paint paint, GameView gameView){}
+    public boolean isInside(float width, float height){
+        return x < width && x + getWidth() > 0 && y < height && y + getHeight() > 0;
+    }
 
-    public void onDraw(Canvas canvas, Paint paint, GameView gameView){
-        if(!destroyed && this.bitmap != null && getVisibility()){
-            Rect srcRef = getBitmapSrcRec();
-            RectF dstRecF = getRectF();
-            canvas.drawBitmap(bitmap, srcRef, dstRecF, paint);
+    public final void update(GameWorld world){
+        frame++;
+        previousX = x;
+        previousY = y;
+        TickProbe probe = world.getProbe();
+        if(probe == null){
+            beforeUpdate(world);
+            afterUpdate(world);
+            return;
+        }
+        probe.begin(TickProbe.SECTION_BEFORE_UPDATE, this);
+        beforeUpdate(world);
+        probe.end(TickProbe.SECTION_BEFORE_UPDATE, this);
+        probe.begin(TickProbe.SECTION_AFTER_UPDATE, this);
+        afterUpdate(world);
+        probe.end(TickProbe.SECTION_AFTER_UPDATE, this);
+    }
+
+    protected void beforeUpdate(GameWorld world){}
+
+    public void submit(SpriteSink sink){
+        if(!destroyed && image != null && visible){
+            if(clip != null){
+                int clipFrame = clip.frameAt(frame - clipStart);
+                float left = clip.getLeft(clipFrame);
+                float top = clip.getTop(clipFrame);
+                float width = clip.getWidth(clipFrame);
+                float height = clip.getHeight(clipFrame);
+                sink.add(getLayer(), image, left, top, left + width, top + height, x, y, x + width, y + height);
+            }else{
+                float width = getWidth();
+                float height = getHeight();
+                sink.add(getLayer(), image, 0, 0, width, height, x, y, x + width, y + height);
+            }
         }
     }
 
-    protected void afterDraw(Canvas canvas, Paint paint, GameView gameView){}
+    protected void afterUpdate(GameWorld world){}
+
+    void scheduleTimers(GameWorld world){}
+
+    void onHit(GameWorld world, Sprite source, int damage){}
 
     public void destroy(){
-        bitmap = null;
+        image = null;
         destroyed = true;
     }
 
@@ -149,4 +206,25 @@ public class Sprite {
     public int getFrame(){
         return frame;
     }
-}
\ No newline at end of file
+
+    void saveState(DataOutput out) throws IOException {
+        out.writeBoolean(destroyed);
+        out.writeBoolean(visible);
+        out.writeFloat(x);
+        out.writeFloat(y);
+        out.writeInt(frame);
+        out.writeInt(clipStart);
+    }
+
+    void loadState(DataInput in) throws IOException {
+        boolean destroyed = in.readBoolean();
+        visible = in.readBoolean();
+        x = in.readFloat();
+        y = in.readFloat();
+        frame = in.readInt();
+        clipStart = in.readInt();
+        if(destroyed){
+            destroy();
+        }
+    }
+}
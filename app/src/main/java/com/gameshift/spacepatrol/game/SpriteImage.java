@@ -0,0 +1,42 @@
+package com.gameshift.spacepatrol.game;
+
+import android.graphics.Bitmap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SpriteImage {
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private final int id = nextId.getAndIncrement();
+    private final Bitmap bitmap;
+    private final int width;
+    private final int height;
+
+    public SpriteImage(Bitmap bitmap){
+        this.bitmap = bitmap;
+        this.width = bitmap.getWidth();
+        this.height = bitmap.getHeight();
+    }
+
+    public SpriteImage(int width, int height){
+        this.bitmap = null;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getId(){
+        return id;
+    }
+
+    public Bitmap getBitmap(){
+        return bitmap;
+    }
+
+    public int getWidth(){
+        return width;
+    }
+
+    public int getHeight(){
+        return height;
+    }
+}
@@ -0,0 +1,26 @@
+package com.gameshift.spacepatrol.game;
+
+public interface TickProbe {
+    int SECTION_TICK = 0;
+    int SECTION_MERGE = 1;
+    int SECTION_DESTROY = 2;
+    int SECTION_SPAWN = 3;
+    int SECTION_BEFORE_UPDATE = 4;
+    int SECTION_AFTER_UPDATE = 5;
+    int SECTION_PROJECTILES = 6;
+    int SECTION_FRAME = 7;
+    int SECTION_HUD = 8;
+    int SECTION_RENDER = 9;
+    int SECTION_COLLIDE = 10;
+    int SECTION_EVENTS = 11;
+    int SECTION_COUNT = 12;
+    String[] SECTION_NAMES = {
+            "GameWorld.update", "merge spritesNeedAdded", "destroy sweeps", "createRandomSprites",
+            "beforeUpdate", "afterUpdate", "projectiles", "frame", "HUD", "render",
+            "bullet collisions", "event dispatch"
+    };
+
+    void begin(int section, Sprite sprite);
+
+    void end(int section, Sprite sprite);
+}
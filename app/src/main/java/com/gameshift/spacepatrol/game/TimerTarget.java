@@ -0,0 +1,5 @@
+package com.gameshift.spacepatrol.game;
+
+public interface TimerTarget {
+    void onTimer(GameWorld world, int action);
+}
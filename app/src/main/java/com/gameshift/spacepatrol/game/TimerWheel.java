@@ -0,0 +1,192 @@
+package com.gameshift.spacepatrol.game;
+
+import java.util.Arrays;
+
+public class TimerWheel {
+    public static final int NO_TIMER = -1;
+    private static final int ROOT_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 4;
+    private static final int ROOT_SLOTS = 1 << ROOT_BITS;
+    private static final int LEVEL_SLOTS = 1 << LEVEL_BITS;
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = 0x7ff;
+    private static final int NIL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    static final long MAX_DELAY = (1L << (ROOT_BITS + LEVEL_BITS * (LEVELS - 1))) - 1;
+
+    private final int[] heads = new int[ROOT_SLOTS + LEVEL_SLOTS * (LEVELS - 1)];
+    private final int[] tails = new int[ROOT_SLOTS + LEVEL_SLOTS * (LEVELS - 1)];
+    private long[] due = new long[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] prev = new int[INITIAL_CAPACITY];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int[] actions = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private TimerTarget[] targets = new TimerTarget[INITIAL_CAPACITY];
+    private int freeList = NIL;
+    private int allocated = 0;
+    private int size = 0;
+    private long now = 0;
+    private long dispatched = 0;
+
+    public TimerWheel(){
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+    }
+
+    public long getNow(){
+        return now;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public long getDispatched(){
+        return dispatched;
+    }
+
+    public int schedule(long dueTick, TimerTarget target, int action){
+        int entry = allocate();
+        due[entry] = Math.max(dueTick, now + 1);
+        targets[entry] = target;
+        actions[entry] = action;
+        link(entry);
+        size++;
+        return (generations[entry] << INDEX_BITS) | entry;
+    }
+
+    public boolean cancel(int handle){
+        if(handle == NO_TIMER){
+            return false;
+        }
+        int entry = handle & INDEX_MASK;
+        if(entry >= allocated || targets[entry] == null || generations[entry] != (handle >>> INDEX_BITS)){
+            return false;
+        }
+        unlink(entry);
+        release(entry);
+        return true;
+    }
+
+    public void advance(GameWorld world){
+        now++;
+        if((now & (ROOT_SLOTS - 1)) == 0){
+            cascade(1);
+        }
+        int slot = (int)(now & (ROOT_SLOTS - 1));
+        int entry;
+        while((entry = heads[slot]) != NIL){
+            unlink(entry);
+            TimerTarget target = targets[entry];
+            int action = actions[entry];
+            release(entry);
+            dispatched++;
+            target.onTimer(world, action);
+        }
+    }
+
+    private void cascade(int level){
+        int shift = ROOT_BITS + LEVEL_BITS * (level - 1);
+        int index = (int)((now >>> shift) & (LEVEL_SLOTS - 1));
+        if(index == 0 && level + 1 < LEVELS){
+            cascade(level + 1);
+        }
+        int slot = ROOT_SLOTS + LEVEL_SLOTS * (level - 1) + index;
+        int entry = heads[slot];
+        heads[slot] = NIL;
+        tails[slot] = NIL;
+        while(entry != NIL){
+            int following = next[entry];
+            link(entry);
+            entry = following;
+        }
+    }
+
+    private void link(int entry){
+        long delay = Math.min(due[entry] - now, MAX_DELAY);
+        long tick = now + delay;
+        int slot;
+        if(delay < ROOT_SLOTS){
+            slot = (int)(tick & (ROOT_SLOTS - 1));
+        }else{
+            int level = 1;
+            while(level < LEVELS - 1 && delay >= 1L << (ROOT_BITS + LEVEL_BITS * level)){
+                level++;
+            }
+            int shift = ROOT_BITS + LEVEL_BITS * (level - 1);
+            slot = ROOT_SLOTS + LEVEL_SLOTS * (level - 1) + (int)((tick >>> shift) & (LEVEL_SLOTS - 1));
+        }
+        int tail = tails[slot];
+        next[entry] = NIL;
+        prev[entry] = tail;
+        if(tail == NIL){
+            heads[slot] = entry;
+        }else{
+            next[tail] = entry;
+        }
+        tails[slot] = entry;
+        slots[entry] = slot;
+    }
+
+    private void unlink(int entry){
+        int slot = slots[entry];
+        int before = prev[entry];
+        int after = next[entry];
+        if(before == NIL){
+            heads[slot] = after;
+        }else{
+            next[before] = after;
+        }
+        if(after == NIL){
+            tails[slot] = before;
+        }else{
+            prev[after] = before;
+        }
+    }
+
+    private int allocate(){
+        int entry = freeList;
+        if(entry != NIL){
+            freeList = next[entry];
+            return entry;
+        }
+        if(allocated == due.length){
+            int capacity = allocated * 2;
+            if(capacity > INDEX_MASK + 1){
+                throw new IllegalStateException("Too many timers");
+            }
+            due = Arrays.copyOf(due, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+            actions = Arrays.copyOf(actions, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int entry){
+        targets[entry] = null;
+        generations[entry] = (generations[entry] + 1) & GENERATION_MASK;
+        next[entry] = freeList;
+        freeList = entry;
+        size--;
+    }
+
+    public void reset(long tick){
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+        for(int entry = 0; entry < allocated; entry++){
+            targets[entry] = null;
+            generations[entry] = (generations[entry] + 1) & GENERATION_MASK;
+        }
+        freeList = NIL;
+        allocated = 0;
+        size = 0;
+        now = tick;
+    }
+}
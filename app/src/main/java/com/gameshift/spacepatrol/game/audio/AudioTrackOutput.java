@@ -0,0 +1,137 @@
+package com.gameshift.spacepatrol.game.audio;
+
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Process;
+import android.util.Log;
+
+public class AudioTrackOutput implements Runnable {
+    private static final String TAG = "AudioTrackOutput";
+    private static final int VERSION_CODE_O = 26;
+    private static final int MIN_BURST_FRAMES = 128;
+
+    private final SoundMixer mixer;
+    private final AudioTrack track;
+    private final short[] buffer;
+    private final Object pauseLock = new Object();
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+    private Thread thread = null;
+
+    public AudioTrackOutput(SoundMixer mixer){
+        this.mixer = mixer;
+        int sampleRate = mixer.getSampleRate();
+        int minBufferBytes = Math.max(AudioTrack.getMinBufferSize(sampleRate, AudioFormat.CHANNEL_OUT_MONO,
+                AudioFormat.ENCODING_PCM_16BIT), MIN_BURST_FRAMES * 4);
+        if(Build.VERSION.SDK_INT >= VERSION_CODE_O){
+            track = new AudioTrack.Builder()
+                    .setAudioAttributes(new AudioAttributes.Builder()
+                            .setUsage(AudioAttributes.USAGE_GAME)
+                            .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                            .build())
+                    .setAudioFormat(new AudioFormat.Builder()
+                            .setSampleRate(sampleRate)
+                            .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
+                            .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                            .build())
+                    .setBufferSizeInBytes(minBufferBytes)
+                    .setTransferMode(AudioTrack.MODE_STREAM)
+                    .setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY)
+                    .build();
+        }else{
+            track = new AudioTrack(AudioManager.STREAM_MUSIC, sampleRate, AudioFormat.CHANNEL_OUT_MONO,
+                    AudioFormat.ENCODING_PCM_16BIT, minBufferBytes, AudioTrack.MODE_STREAM);
+        }
+        buffer = new short[minBufferBytes / 4];
+    }
+
+    public static int getNativeSampleRate(){
+        return AudioTrack.getNativeOutputSampleRate(AudioManager.STREAM_MUSIC);
+    }
+
+    public SoundMixer getMixer(){
+        return mixer;
+    }
+
+    public void start(){
+        if(thread != null){
+            return;
+        }
+        if(track.getState() != AudioTrack.STATE_INITIALIZED){
+            Log.w(TAG, "AudioTrack failed to initialize, sound disabled");
+            track.release();
+            return;
+        }
+        running = true;
+        thread = new Thread(this, TAG);
+        thread.start();
+    }
+
+    public void pause(){
+        paused = true;
+    }
+
+    public void resume(){
+        synchronized(pauseLock){
+            paused = false;
+            pauseLock.notifyAll();
+        }
+    }
+
+    public void stop(){
+        running = false;
+        synchronized(pauseLock){
+            pauseLock.notifyAll();
+        }
+        if(thread != null){
+            try{
+                thread.join();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run(){
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+        try{
+            track.play();
+            while(running){
+                if(paused){
+                    track.pause();
+                    track.flush();
+                    if(!awaitResume()){
+                        break;
+                    }
+                    track.play();
+                }
+                mixer.mix(buffer, 0, buffer.length);
+                if(track.write(buffer, 0, buffer.length) < 0){
+                    Log.w(TAG, "AudioTrack write failed, sound disabled");
+                    break;
+                }
+            }
+            track.stop();
+        }finally{
+            track.release();
+        }
+    }
+
+    private boolean awaitResume(){
+        synchronized(pauseLock){
+            while(paused && running){
+                try{
+                    pauseLock.wait();
+                }catch(InterruptedException e){
+                    return false;
+                }
+            }
+        }
+        return running;
+    }
+}
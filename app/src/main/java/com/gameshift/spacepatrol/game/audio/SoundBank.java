@@ -0,0 +1,75 @@
+package com.gameshift.spacepatrol.game.audio;
+
+import java.util.Random;
+
+public class SoundBank {
+    public static final int SOUND_FIRE = 0;
+    public static final int SOUND_EXPLOSION = 1;
+    public static final int SOUND_BOMB = 2;
+    public static final int SOUND_AWARD = 3;
+    public static final int SOUND_COUNT = 4;
+
+    private SoundBank(){}
+
+    public static SoundEffect[] createDefault(int sampleRate){
+        SoundEffect[] effects = new SoundEffect[SOUND_COUNT];
+        effects[SOUND_FIRE] = new SoundEffect(chirp(sampleRate, 0.06f, 1800, 600, 0.25f), 1, 2);
+        effects[SOUND_EXPLOSION] = new SoundEffect(noise(sampleRate, 0.4f, 0.45f, 0.35f, 1), 2, 4);
+        effects[SOUND_BOMB] = new SoundEffect(rumble(sampleRate, 0.9f, 0.7f), 3, 1);
+        effects[SOUND_AWARD] = new SoundEffect(arpeggio(sampleRate, 0.15f, 880, 1320, 0.3f), 2, 1);
+        return effects;
+    }
+
+    private static short[] chirp(int sampleRate, float seconds, float startHz, float endHz, float volume){
+        int count = (int)(sampleRate * seconds);
+        short[] samples = new short[count];
+        double phase = 0;
+        for(int i = 0; i < count; i++){
+            float t = (float)i / count;
+            phase += 2 * Math.PI * (startHz + (endHz - startHz) * t) / sampleRate;
+            double envelope = (1 - t) * (1 - t);
+            samples[i] = toSample(Math.sin(phase) * envelope * volume);
+        }
+        return samples;
+    }
+
+    private static short[] noise(int sampleRate, float seconds, float volume, float smoothing, long seed){
+        int count = (int)(sampleRate * seconds);
+        short[] samples = new short[count];
+        Random random = new Random(seed);
+        double value = 0;
+        for(int i = 0; i < count; i++){
+            float t = (float)i / count;
+            value += (random.nextDouble() * 2 - 1 - value) * smoothing;
+            double envelope = Math.exp(-5 * t);
+            samples[i] = toSample(value * envelope * volume * 2);
+        }
+        return samples;
+    }
+
+    private static short[] rumble(int sampleRate, float seconds, float volume){
+        short[] noise = noise(sampleRate, seconds, volume, 0.05f, 2);
+        for(int i = 0; i < noise.length; i++){
+            float t = (float)i / noise.length;
+            double tone = Math.sin(2 * Math.PI * 55 * i / sampleRate) * (1 - t) * volume * 0.5;
+            noise[i] = toSample(noise[i] / 32767.0 + tone);
+        }
+        return noise;
+    }
+
+    private static short[] arpeggio(int sampleRate, float seconds, float firstHz, float secondHz, float volume){
+        int count = (int)(sampleRate * seconds);
+        short[] samples = new short[count];
+        for(int i = 0; i < count; i++){
+            float t = (float)i / count;
+            float hz = t < 0.5f ? firstHz : secondHz;
+            double envelope = 1 - t;
+            samples[i] = toSample(Math.sin(2 * Math.PI * hz * i / sampleRate) * envelope * volume);
+        }
+        return samples;
+    }
+
+    private static short toSample(double value){
+        return (short)Math.max(-32768, Math.min(32767, Math.round(value * 32767)));
+    }
+}
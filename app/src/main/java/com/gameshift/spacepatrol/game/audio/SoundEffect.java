@@ -0,0 +1,28 @@
+package com.gameshift.spacepatrol.game.audio;
+
+public class SoundEffect {
+    private final short[] samples;
+    private final int priority;
+    private final int maxInstances;
+
+    public SoundEffect(short[] samples, int priority, int maxInstances){
+        if(maxInstances < 1){
+            throw new IllegalArgumentException("maxInstances must be at least 1");
+        }
+        this.samples = samples;
+        this.priority = priority;
+        this.maxInstances = maxInstances;
+    }
+
+    public short[] getSamples(){
+        return samples;
+    }
+
+    public int getPriority(){
+        return priority;
+    }
+
+    public int getMaxInstances(){
+        return maxInstances;
+    }
+}
@@ -0,0 +1,220 @@
+package com.gameshift.spacepatrol.game.audio;
+
+public class SoundMixer {
+    private static final int GAIN_SHIFT = 8;
+    private static final int UNITY_GAIN = 1 << GAIN_SHIFT;
+    private static final int QUEUE_SIZE = 64;
+    private static final int STOP_ALL = -1;
+
+    private final SoundEffect[] effects;
+    private final int maxVoices;
+    private final int sampleRate;
+    private final SoundEffect[] voiceEffects;
+    private final int[] voiceEffectIndexes;
+    private final int[] voicePositions;
+    private final int[] voiceGains;
+    private final long[] voiceStarts;
+    private final int[] instanceCounts;
+    private final int[] queuedEffects = new int[QUEUE_SIZE];
+    private final int[] queuedGains = new int[QUEUE_SIZE];
+    private volatile int queueHead = 0;
+    private volatile int queueTail = 0;
+    private int[] accumulator = new int[0];
+    private long startSequence = 0;
+    private int activeVoices = 0;
+    private int masterGain = UNITY_GAIN;
+    private volatile long stolenVoices = 0;
+    private volatile long droppedRequests = 0;
+    private volatile long queueOverflows = 0;
+
+    public SoundMixer(SoundEffect[] effects, int maxVoices, int sampleRate){
+        if(maxVoices < 1){
+            throw new IllegalArgumentException("maxVoices must be at least 1");
+        }
+        this.effects = effects;
+        this.maxVoices = maxVoices;
+        this.sampleRate = sampleRate;
+        voiceEffects = new SoundEffect[maxVoices];
+        voiceEffectIndexes = new int[maxVoices];
+        voicePositions = new int[maxVoices];
+        voiceGains = new int[maxVoices];
+        voiceStarts = new long[maxVoices];
+        instanceCounts = new int[effects.length];
+    }
+
+    public int getSampleRate(){
+        return sampleRate;
+    }
+
+    public int getMaxVoices(){
+        return maxVoices;
+    }
+
+    public int getActiveVoices(){
+        return activeVoices;
+    }
+
+    public long getStolenVoices(){
+        return stolenVoices;
+    }
+
+    public long getDroppedRequests(){
+        return droppedRequests + queueOverflows;
+    }
+
+    public void setMasterVolume(float volume){
+        masterGain = Math.round(Math.max(0, Math.min(volume, 1)) * UNITY_GAIN);
+    }
+
+    public void play(int effect, float volume){
+        enqueue(effect, Math.round(Math.max(0, Math.min(volume, 1)) * UNITY_GAIN));
+    }
+
+    public void stopAll(){
+        enqueue(STOP_ALL, 0);
+    }
+
+    private void enqueue(int effect, int gain){
+        int tail = queueTail;
+        if(tail - queueHead >= QUEUE_SIZE){
+            queueOverflows++;
+            return;
+        }
+        int slot = tail % QUEUE_SIZE;
+        queuedEffects[slot] = effect;
+        queuedGains[slot] = gain;
+        queueTail = tail + 1;
+    }
+
+    public void mix(short[] out, int offset, int frames){
+        drainQueue();
+        if(accumulator.length < frames){
+            accumulator = new int[frames];
+        }
+        int[] accumulator = this.accumulator;
+        for(int i = 0; i < frames; i++){
+            accumulator[i] = 0;
+        }
+        for(int voice = 0; voice < maxVoices; voice++){
+            SoundEffect effect = voiceEffects[voice];
+            if(effect == null){
+                continue;
+            }
+            short[] samples = effect.getSamples();
+            int position = voicePositions[voice];
+            int count = Math.min(frames, samples.length - position);
+            int gain = voiceGains[voice];
+            for(int i = 0; i < count; i++){
+                accumulator[i] += samples[position + i] * gain;
+            }
+            position += count;
+            if(position >= samples.length){
+                release(voice);
+            }else{
+                voicePositions[voice] = position;
+            }
+        }
+        int master = masterGain;
+        for(int i = 0; i < frames; i++){
+            int value = (int)(((long)(accumulator[i] >> GAIN_SHIFT) * master) >> GAIN_SHIFT);
+            if(value > Short.MAX_VALUE){
+                value = Short.MAX_VALUE;
+            }else if(value < Short.MIN_VALUE){
+                value = Short.MIN_VALUE;
+            }
+            out[offset + i] = (short)value;
+        }
+    }
+
+    private void drainQueue(){
+        int head = queueHead;
+        int tail = queueTail;
+        while(head != tail){
+            int slot = head % QUEUE_SIZE;
+            if(queuedEffects[slot] == STOP_ALL){
+                for(int voice = 0; voice < maxVoices; voice++){
+                    release(voice);
+                }
+            }else{
+                start(queuedEffects[slot], queuedGains[slot]);
+            }
+            head++;
+        }
+        queueHead = head;
+    }
+
+    private void start(int effectIndex, int gain){
+        if(effectIndex < 0 || effectIndex >= effects.length || effects[effectIndex] == null){
+            return;
+        }
+        SoundEffect effect = effects[effectIndex];
+        int voice = -1;
+        if(instanceCounts[effectIndex] >= effect.getMaxInstances()){
+            voice = findOldest(effect);
+        }
+        if(voice < 0){
+            voice = findFree();
+        }
+        if(voice < 0){
+            voice = findVictim(effect.getPriority());
+            if(voice < 0){
+                droppedRequests++;
+                return;
+            }
+        }
+        if(voiceEffects[voice] != null){
+            stolenVoices++;
+            release(voice);
+        }
+        voiceEffects[voice] = effect;
+        voiceEffectIndexes[voice] = effectIndex;
+        voicePositions[voice] = 0;
+        voiceGains[voice] = gain;
+        voiceStarts[voice] = startSequence++;
+        instanceCounts[effectIndex]++;
+        activeVoices++;
+    }
+
+    private void release(int voice){
+        if(voiceEffects[voice] == null){
+            return;
+        }
+        instanceCounts[voiceEffectIndexes[voice]]--;
+        voiceEffects[voice] = null;
+        activeVoices--;
+    }
+
+    private int findFree(){
+        for(int voice = 0; voice < maxVoices; voice++){
+            if(voiceEffects[voice] == null){
+                return voice;
+            }
+        }
+        return -1;
+    }
+
+    private int findOldest(SoundEffect effect){
+        int oldest = -1;
+        for(int voice = 0; voice < maxVoices; voice++){
+            if(voiceEffects[voice] == effect && (oldest < 0 || voiceStarts[voice] < voiceStarts[oldest])){
+                oldest = voice;
+            }
+        }
+        return oldest;
+    }
+
+    private int findVictim(int priority){
+        int victim = -1;
+        for(int voice = 0; voice < maxVoices; voice++){
+            int voicePriority = voiceEffects[voice].getPriority();
+            if(voicePriority > priority){
+                continue;
+            }
+            if(victim < 0 || voicePriority < voiceEffects[victim].getPriority()
+                    || (voicePriority == voiceEffects[victim].getPriority() && voiceStarts[voice] < voiceStarts[victim])){
+                victim = voice;
+            }
+        }
+        return victim;
+    }
+}
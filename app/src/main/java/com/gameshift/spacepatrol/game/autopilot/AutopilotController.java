@@ -0,0 +1,127 @@
+package com.gameshift.spacepatrol.game.autopilot;
+
+import com.gameshift.spacepatrol.game.Award;
+import com.gameshift.spacepatrol.game.CombatAircraft;
+import com.gameshift.spacepatrol.game.EnemyPlane;
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.Sprite;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+
+import java.util.List;
+
+public class AutopilotController implements PlayerController {
+    private static final int LANE_COUNT = 24;
+    private static final int LOOKAHEAD_TICKS = 60;
+    private static final float DANGER_WEIGHT = 4;
+    private static final float AWARD_REWARD = 6;
+    private static final float TARGET_REWARD = 1;
+    private static final float BOMB_DANGER = 8;
+    private static final int MIN_BOMB_TARGETS = 5;
+
+    private final float[] danger = new float[LANE_COUNT];
+    private final float[] reward = new float[LANE_COUNT];
+    private float maxStep = 12;
+
+    public void setMaxStep(float maxStep){
+        this.maxStep = maxStep;
+    }
+
+    @Override
+    public void control(GameWorld world, int player, PlayerInput input){
+        CombatAircraft aircraft = world.getAircraft(player);
+        int width = world.getWidth();
+        int height = world.getHeight();
+        if(aircraft.isDestroyed() || aircraft.isCollide() || width <= 0){
+            return;
+        }
+        float laneWidth = (float)width / LANE_COUNT;
+        float aircraftWidth = aircraft.getWidth();
+        float aircraftHeight = aircraft.getHeight();
+        float restCenterY = height - aircraftHeight * 1.5f;
+        float aircraftTop = restCenterY - aircraftHeight / 2;
+        float aircraftBottom = restCenterY + aircraftHeight / 2;
+        for(int lane = 0; lane < LANE_COUNT; lane++){
+            danger[lane] = 0;
+            reward[lane] = 0;
+        }
+        int targets = 0;
+        List<Sprite> sprites = world.getSprites();
+        for(int i = 0; i < sprites.size(); i++){
+            Sprite s = sprites.get(i);
+            if(s.isDestroyed()){
+                continue;
+            }
+            if(s instanceof EnemyPlane){
+                EnemyPlane enemy = (EnemyPlane)s;
+                float speed = Math.max(enemy.getSpeed() * world.getDensity(), 0.1f);
+                float gap = aircraftTop - (enemy.getY() + enemy.getHeight());
+                if(enemy.getY() > aircraftBottom){
+                    continue;
+                }
+                float ticks = Math.max(gap / speed, 0);
+                if(ticks < LOOKAHEAD_TICKS){
+                    float weight = (LOOKAHEAD_TICKS - ticks) / LOOKAHEAD_TICKS;
+                    float futureX = enemy.predictX(ticks, world.getDensity());
+                    float left = Math.min(enemy.getX(), futureX);
+                    float right = Math.max(enemy.getX(), futureX) + enemy.getWidth();
+                    addToLanes(danger, left - aircraftWidth / 2, right + aircraftWidth / 2, laneWidth, weight * weight * 10);
+                    targets++;
+                }else{
+                    addToLanes(reward, enemy.getX(), enemy.getX() + enemy.getWidth(), laneWidth, TARGET_REWARD / enemy.getPower());
+                }
+            }else if(s instanceof Award){
+                if(s.getY() + s.getHeight() < aircraftBottom){
+                    addToLanes(reward, s.getX(), s.getX() + s.getWidth(), laneWidth, AWARD_REWARD);
+                }
+            }
+        }
+        float centerX = aircraft.getX() + aircraftWidth / 2;
+        float centerY = aircraft.getY() + aircraftHeight / 2;
+        int currentLane = clampLane((int)(centerX / laneWidth));
+        int minLane = clampLane((int)((aircraftWidth / 2) / laneWidth));
+        int maxLane = clampLane((int)((width - aircraftWidth / 2) / laneWidth));
+        int bestLane = currentLane;
+        float bestScore = -Float.MAX_VALUE;
+        for(int lane = minLane; lane <= maxLane; lane++){
+            float pathDanger = 0;
+            int direction = lane > currentLane ? 1 : -1;
+            for(int passed = currentLane; passed != lane; passed += direction){
+                pathDanger = Math.max(pathDanger, danger[passed]);
+            }
+            float risk = Math.max(danger[lane], pathDanger * 0.5f);
+            float score = reward[lane] - risk * DANGER_WEIGHT - Math.abs(lane - currentLane) * 0.05f;
+            if(score > bestScore){
+                bestScore = score;
+                bestLane = lane;
+            }
+        }
+        float step = maxStep * world.getDensity();
+        float targetX = (bestLane + 0.5f) * laneWidth;
+        int x = Math.round(centerX + clamp(targetX - centerX, step));
+        int y = Math.round(centerY + clamp(restCenterY - centerY, step));
+        input.moveTo(x, y);
+        if(aircraft.getBombCount() > 0){
+            if(danger[currentLane] >= BOMB_DANGER && danger[bestLane] >= BOMB_DANGER){
+                input.bomb();
+            }else if(targets >= MIN_BOMB_TARGETS){
+                input.bomb();
+            }
+        }
+    }
+
+    private static void addToLanes(float[] lanes, float left, float right, float laneWidth, float value){
+        int first = clampLane((int)Math.floor(left / laneWidth));
+        int last = clampLane((int)Math.floor(right / laneWidth));
+        for(int lane = first; lane <= last; lane++){
+            lanes[lane] += value;
+        }
+    }
+
+    private static int clampLane(int lane){
+        return Math.max(0, Math.min(LANE_COUNT - 1, lane));
+    }
+
+    private static float clamp(float value, float limit){
+        return Math.max(-limit, Math.min(limit, value));
+    }
+}
@@ -0,0 +1,9 @@
+package com.gameshift.spacepatrol.game.autopilot;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+
+public interface PlayerController {
+
+    void control(GameWorld world, int player, PlayerInput input);
+}
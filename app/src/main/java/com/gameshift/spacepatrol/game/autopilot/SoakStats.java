@@ -0,0 +1,56 @@
+package com.gameshift.spacepatrol.game.autopilot;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+
+import java.util.Locale;
+
+public class SoakStats {
+
+    private final long startNanos = System.nanoTime();
+    private long ticks = 0;
+    private long games = 0;
+    private long intervalTicks = 0;
+    private long intervalTickNanos = 0;
+    private long intervalMaxTickNanos = 0;
+    private long maxHeapUsed = 0;
+
+    public void recordTick(long nanos){
+        ticks++;
+        intervalTicks++;
+        intervalTickNanos += nanos;
+        if(nanos > intervalMaxTickNanos){
+            intervalMaxTickNanos = nanos;
+        }
+    }
+
+    public void recordGameOver(){
+        games++;
+    }
+
+    public long getTicks(){
+        return ticks;
+    }
+
+    public long getGames(){
+        return games;
+    }
+
+    public String report(GameWorld world){
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        maxHeapUsed = Math.max(maxHeapUsed, heapUsed);
+        double averageMicros = intervalTicks > 0 ? intervalTickNanos / 1000.0 / intervalTicks : 0;
+        String line = String.format(Locale.US,
+                "uptime=%ds ticks=%d games=%d sprites=%d pending=%d score=%d heapUsed=%.1fMB heapMax=%.1fMB tickAvg=%.1fus tickMax=%.1fus",
+                (System.nanoTime() - startNanos) / 1000000000L, ticks, games,
+                world != null ? world.getSprites().size() : 0,
+                world != null ? world.getPendingSpriteCount() : 0,
+                world != null ? world.getScore() : 0,
+                heapUsed / 1048576.0, maxHeapUsed / 1048576.0,
+                averageMicros, intervalMaxTickNanos / 1000.0);
+        intervalTicks = 0;
+        intervalTickNanos = 0;
+        intervalMaxTickNanos = 0;
+        return line;
+    }
+}
@@ -0,0 +1,39 @@
+package com.gameshift.spacepatrol.game.autopilot;
+
+import com.gameshift.spacepatrol.game.CombatAircraft;
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+
+import java.util.Random;
+
+public class WanderController implements PlayerController {
+
+    private final Random random;
+    private int targetX = -1;
+    private int targetY = -1;
+
+    public WanderController(long seed){
+        random = new Random(seed);
+    }
+
+    @Override
+    public void control(GameWorld world, int player, PlayerInput input){
+        CombatAircraft aircraft = world.getAircraft(player);
+        if(aircraft.isDestroyed() || world.getWidth() <= 0){
+            return;
+        }
+        if(targetX < 0 || random.nextInt(60) == 0){
+            targetX = random.nextInt(world.getWidth());
+            targetY = world.getHeight() / 2 + random.nextInt(world.getHeight() / 2);
+        }
+        float centerX = aircraft.getX() + aircraft.getWidth() / 2;
+        float centerY = aircraft.getY() + aircraft.getHeight() / 2;
+        float step = 8 * world.getDensity();
+        int x = Math.round(centerX + Math.max(-step, Math.min(step, targetX - centerX)));
+        int y = Math.round(centerY + Math.max(-step, Math.min(step, targetY - centerY)));
+        input.moveTo(x, y);
+        if(aircraft.getBombCount() > 0 && world.getAliveEnemyPlanes().size() >= 6){
+            input.bomb();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.gameshift.spacepatrol.game.background;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParallaxBackground {
+    private static final int PREFETCH_ROWS = 2;
+    private static final int MAX_PENDING = 32;
+    private static final int SPARE_BUDGET_FRACTION = 8;
+
+    private final ParallaxLayer[] layers;
+    private final int tileSize;
+    private final TileLoader loader;
+    private final TileCache cache;
+    private final long[] pending = new long[MAX_PENDING];
+    private int pendingCount = 0;
+    private final List<Bitmap> evicted = new ArrayList<Bitmap>();
+    private final Paint tilePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint fillPaint = new Paint();
+    private final RectF dst = new RectF();
+
+    public ParallaxBackground(Resources resources, ParallaxLayer[] layers, int tileSize, int maxTiles, long maxBytes){
+        this.layers = layers;
+        this.tileSize = tileSize;
+        long spareBytes = maxBytes / SPARE_BUDGET_FRACTION;
+        loader = new TileLoader(resources, layers, tileSize, spareBytes);
+        cache = new TileCache(maxTiles, maxBytes - spareBytes);
+        fillPaint.setStyle(Paint.Style.FILL);
+    }
+
+    public static boolean isSupported(){
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.GINGERBREAD_MR1;
+    }
+
+    public void start(){
+        loader.start();
+    }
+
+    public void close(){
+        loader.close();
+        cache.clear(evicted);
+        for(int i = 0; i < evicted.size(); i++){
+            evicted.get(i).recycle();
+        }
+        evicted.clear();
+        pendingCount = 0;
+    }
+
+    public String stats(){
+        return "tiles=" + cache.size() + " bytes=" + cache.getBytes() + " max=" + cache.getMaxBytes()
+                + " hits=" + cache.getHits() + " misses=" + cache.getMisses() + " evictions=" + cache.getEvictions()
+                + " spareBytes=" + loader.getSpareBytes() + " decodes=" + loader.getDecodes() + " reuses=" + loader.getReuses();
+    }
+
+    public void draw(Canvas canvas, long frame, float width, float height, float density){
+        if(layers.length == 0 || width <= 0 || height <= 0){
+            return;
+        }
+        if(!loader.isReady()){
+            if(layers[0].isOpaque()){
+                fill(canvas, layers[0].getFallbackColor(), 0, 0, width, height);
+            }
+            return;
+        }
+        drainResults();
+        for(int layer = 0; layer < layers.length; layer++){
+            drawLayer(canvas, layer, frame, width, height, density);
+        }
+    }
+
+    private void drainResults(){
+        TileLoader.Tile tile;
+        while((tile = loader.pollResult()) != null){
+            removePending(tile.key);
+            if(tile.bitmap != null){
+                cache.put(tile.key, tile.bitmap, evicted);
+            }
+        }
+        for(int i = 0; i < evicted.size(); i++){
+            loader.recycle(evicted.get(i));
+        }
+        evicted.clear();
+    }
+
+    private void drawLayer(Canvas canvas, int layer, long frame, float width, float height, float density){
+        ParallaxLayer parallaxLayer = layers[layer];
+        int imageWidth = loader.getWidth(layer);
+        int imageHeight = loader.getHeight(layer);
+        if(imageWidth <= 0 || imageHeight <= 0){
+            return;
+        }
+        float scale = width / imageWidth;
+        float scaledHeight = imageHeight * scale;
+        int rows = (imageHeight + tileSize - 1) / tileSize;
+        int columns = (imageWidth + tileSize - 1) / tileSize;
+        double offset = (double)frame * parallaxLayer.getSpeed() * density % scaledHeight;
+        if(offset < 0){
+            offset += scaledHeight;
+        }
+        float imageTop = (float)offset;
+        if(imageTop > 0){
+            imageTop -= scaledHeight;
+        }
+        for(float copyTop = imageTop; copyTop < height; copyTop += scaledHeight){
+            for(int row = 0; row < rows; row++){
+                float top = copyTop + row * tileSize * scale;
+                float bottom = copyTop + Math.min((row + 1) * tileSize, imageHeight) * scale;
+                if(bottom <= 0 || top >= height){
+                    continue;
+                }
+                for(int column = 0; column < columns; column++){
+                    float left = column * tileSize * scale;
+                    float right = Math.min((column + 1) * tileSize, imageWidth) * scale;
+                    drawTile(canvas, layer, row, column, left, top, right, bottom);
+                }
+            }
+        }
+        float edge = parallaxLayer.getSpeed() >= 0 ? 0 : height;
+        int edgeRow = (int)(((edge - imageTop) / scale % imageHeight) / tileSize);
+        int step = parallaxLayer.getSpeed() >= 0 ? -1 : 1;
+        for(int i = 1; i <= PREFETCH_ROWS; i++){
+            int row = ((edgeRow + step * i) % rows + rows) % rows;
+            for(int column = 0; column < columns; column++){
+                long key = TileLoader.key(layer, row, column);
+                if(!cache.contains(key)){
+                    request(key);
+                }
+            }
+        }
+    }
+
+    private void drawTile(Canvas canvas, int layer, int row, int column, float left, float top, float right, float bottom){
+        long key = TileLoader.key(layer, row, column);
+        Bitmap bitmap = cache.get(key);
+        if(bitmap == null){
+            request(key);
+            if(layers[layer].isOpaque()){
+                fill(canvas, layers[layer].getFallbackColor(), left, top, right, bottom);
+            }
+            return;
+        }
+        dst.set(left, top, right, bottom);
+        canvas.drawBitmap(bitmap, null, dst, tilePaint);
+    }
+
+    private void request(long key){
+        if(indexOfPending(key) >= 0){
+            return;
+        }
+        if(pendingCount == MAX_PENDING){
+            removePending(loader.dropOldestRequest());
+            if(pendingCount == MAX_PENDING){
+                return;
+            }
+        }
+        pending[pendingCount++] = key;
+        loader.request(key);
+    }
+
+    private int indexOfPending(long key){
+        for(int i = 0; i < pendingCount; i++){
+            if(pending[i] == key){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removePending(long key){
+        int index = indexOfPending(key);
+        if(index >= 0){
+            pending[index] = pending[--pendingCount];
+        }
+    }
+
+    private void fill(Canvas canvas, int color, float left, float top, float right, float bottom){
+        fillPaint.setColor(color);
+        dst.set(left, top, right, bottom);
+        canvas.drawRect(dst, fillPaint);
+    }
+}
@@ -0,0 +1,31 @@
+package com.gameshift.spacepatrol.game.background;
+
+public class ParallaxLayer {
+    private final int resourceId;
+    private final float speed;
+    private final boolean opaque;
+    private final int fallbackColor;
+
+    public ParallaxLayer(int resourceId, float speed, boolean opaque, int fallbackColor){
+        this.resourceId = resourceId;
+        this.speed = speed;
+        this.opaque = opaque;
+        this.fallbackColor = fallbackColor;
+    }
+
+    public int getResourceId(){
+        return resourceId;
+    }
+
+    public float getSpeed(){
+        return speed;
+    }
+
+    public boolean isOpaque(){
+        return opaque;
+    }
+
+    public int getFallbackColor(){
+        return fallbackColor;
+    }
+}
@@ -0,0 +1,115 @@
+package com.gameshift.spacepatrol.game.background;
+
+import android.graphics.Bitmap;
+
+import java.util.List;
+
+public class TileCache {
+    private final long[] keys;
+    private final Bitmap[] bitmaps;
+    private final long[] stamps;
+    private final long maxBytes;
+    private int count = 0;
+    private long bytes = 0;
+    private long clock = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public TileCache(int maxTiles, long maxBytes){
+        keys = new long[maxTiles];
+        bitmaps = new Bitmap[maxTiles];
+        stamps = new long[maxTiles];
+        this.maxBytes = maxBytes;
+    }
+
+    public int size(){
+        return count;
+    }
+
+    public long getBytes(){
+        return bytes;
+    }
+
+    public long getMaxBytes(){
+        return maxBytes;
+    }
+
+    public long getHits(){
+        return hits;
+    }
+
+    public long getMisses(){
+        return misses;
+    }
+
+    public long getEvictions(){
+        return evictions;
+    }
+
+    public Bitmap get(long key){
+        int index = indexOf(key);
+        if(index < 0){
+            misses++;
+            return null;
+        }
+        hits++;
+        stamps[index] = ++clock;
+        return bitmaps[index];
+    }
+
+    public boolean contains(long key){
+        return indexOf(key) >= 0;
+    }
+
+    public void put(long key, Bitmap bitmap, List<Bitmap> evicted){
+        int size = sizeOf(bitmap);
+        while(count > 0 && (count == keys.length || bytes + size > maxBytes)){
+            evictOldest(evicted);
+        }
+        keys[count] = key;
+        bitmaps[count] = bitmap;
+        stamps[count] = ++clock;
+        bytes += size;
+        count++;
+    }
+
+    public void clear(List<Bitmap> evicted){
+        for(int i = 0; i < count; i++){
+            evicted.add(bitmaps[i]);
+            bitmaps[i] = null;
+        }
+        count = 0;
+        bytes = 0;
+    }
+
+    private int indexOf(long key){
+        for(int i = 0; i < count; i++){
+            if(keys[i] == key){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void evictOldest(List<Bitmap> evicted){
+        int oldest = 0;
+        for(int i = 1; i < count; i++){
+            if(stamps[i] < stamps[oldest]){
+                oldest = i;
+            }
+        }
+        evicted.add(bitmaps[oldest]);
+        bytes -= sizeOf(bitmaps[oldest]);
+        count--;
+        keys[oldest] = keys[count];
+        bitmaps[oldest] = bitmaps[count];
+        stamps[oldest] = stamps[count];
+        bitmaps[count] = null;
+        evictions++;
+    }
+
+    static int sizeOf(Bitmap bitmap){
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+}
@@ -0,0 +1,270 @@
+package com.gameshift.spacepatrol.game.background;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapRegionDecoder;
+import android.graphics.Rect;
+import android.os.Build;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TileLoader implements Runnable {
+    private static final String TAG = "TileLoader";
+    private static final long NO_TILE = -1;
+    private static final int INITIAL_REQUESTS = 16;
+
+    private final Resources resources;
+    private final ParallaxLayer[] layers;
+    private final int tileSize;
+    private final int[] widths;
+    private final int[] heights;
+    private final BitmapRegionDecoder[] decoders;
+    private final long maxSpareBytes;
+    private final Object requestLock = new Object();
+    private long[] requests = new long[INITIAL_REQUESTS];
+    private int requestHead = 0;
+    private int requestCount = 0;
+    private final ConcurrentLinkedQueue<Tile> results = new ConcurrentLinkedQueue<Tile>();
+    private final ConcurrentLinkedQueue<Bitmap> spares = new ConcurrentLinkedQueue<Bitmap>();
+    private final AtomicLong spareBytes = new AtomicLong();
+    private final BitmapFactory.Options options = new BitmapFactory.Options();
+    private final Rect region = new Rect();
+    private volatile boolean ready = false;
+    private volatile boolean running = false;
+    private volatile long decodes = 0;
+    private volatile long reuses = 0;
+    private Thread thread = null;
+
+    public static class Tile {
+        public final long key;
+        public final Bitmap bitmap;
+
+        Tile(long key, Bitmap bitmap){
+            this.key = key;
+            this.bitmap = bitmap;
+        }
+    }
+
+    public TileLoader(Resources resources, ParallaxLayer[] layers, int tileSize, long maxSpareBytes){
+        this.resources = resources;
+        this.layers = layers;
+        this.tileSize = tileSize;
+        this.maxSpareBytes = maxSpareBytes;
+        widths = new int[layers.length];
+        heights = new int[layers.length];
+        decoders = new BitmapRegionDecoder[layers.length];
+    }
+
+    public static long key(int layer, int row, int column){
+        return ((long)layer << 48) | ((long)row << 24) | column;
+    }
+
+    public boolean isReady(){
+        return ready;
+    }
+
+    public int getWidth(int layer){
+        return widths[layer];
+    }
+
+    public int getHeight(int layer){
+        return heights[layer];
+    }
+
+    public long getDecodes(){
+        return decodes;
+    }
+
+    public long getReuses(){
+        return reuses;
+    }
+
+    public long getSpareBytes(){
+        return spareBytes.get();
+    }
+
+    public void start(){
+        if(thread != null){
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "TileLoader");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public void close(){
+        running = false;
+        if(thread != null){
+            thread.interrupt();
+            try{
+                thread.join();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        synchronized(requestLock){
+            requestCount = 0;
+        }
+        Tile tile;
+        while((tile = results.poll()) != null){
+            if(tile.bitmap != null){
+                tile.bitmap.recycle();
+            }
+        }
+        Bitmap spare;
+        while((spare = spares.poll()) != null){
+            spare.recycle();
+        }
+        spareBytes.set(0);
+    }
+
+    public void request(long key){
+        synchronized(requestLock){
+            if(requestCount == requests.length){
+                long[] grown = new long[requests.length * 2];
+                for(int i = 0; i < requestCount; i++){
+                    grown[i] = requests[(requestHead + i) % requests.length];
+                }
+                requests = grown;
+                requestHead = 0;
+            }
+            requestHead = (requestHead + requests.length - 1) % requests.length;
+            requests[requestHead] = key;
+            requestCount++;
+            requestLock.notify();
+        }
+    }
+
+    public long dropOldestRequest(){
+        synchronized(requestLock){
+            if(requestCount == 0){
+                return NO_TILE;
+            }
+            requestCount--;
+            return requests[(requestHead + requestCount) % requests.length];
+        }
+    }
+
+    private long takeRequest() throws InterruptedException {
+        synchronized(requestLock){
+            while(requestCount == 0){
+                requestLock.wait();
+            }
+            long key = requests[requestHead];
+            requestHead = (requestHead + 1) % requests.length;
+            requestCount--;
+            return key;
+        }
+    }
+
+    public Tile pollResult(){
+        return results.poll();
+    }
+
+    public void recycle(Bitmap bitmap){
+        int size = TileCache.sizeOf(bitmap);
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN && spareBytes.get() + size <= maxSpareBytes){
+            spareBytes.addAndGet(size);
+            spares.add(bitmap);
+        }else{
+            bitmap.recycle();
+        }
+    }
+
+    @Override
+    public void run(){
+        try{
+            open();
+            ready = true;
+            while(running){
+                long key;
+                try{
+                    key = takeRequest();
+                }catch(InterruptedException e){
+                    break;
+                }
+                results.add(new Tile(key, decode(key)));
+            }
+        }catch(IOException e){
+            Log.e(TAG, "Failed to open background layers", e);
+        }finally{
+            for(int i = 0; i < decoders.length; i++){
+                if(decoders[i] != null){
+                    decoders[i].recycle();
+                    decoders[i] = null;
+                }
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        for(int i = 0; i < layers.length; i++){
+            InputStream in = resources.openRawResource(layers[i].getResourceId());
+            try{
+                decoders[i] = BitmapRegionDecoder.newInstance(in, false);
+            }finally{
+                in.close();
+            }
+            widths[i] = decoders[i].getWidth();
+            heights[i] = decoders[i].getHeight();
+        }
+    }
+
+    private Bitmap decode(long key){
+        int layer = (int)(key >>> 48);
+        int row = (int)((key >>> 24) & 0xffffff);
+        int column = (int)(key & 0xffffff);
+        int left = column * tileSize;
+        int top = row * tileSize;
+        int right = Math.min(left + tileSize, widths[layer]);
+        int bottom = Math.min(top + tileSize, heights[layer]);
+        if(right <= left || bottom <= top){
+            return null;
+        }
+        region.set(left, top, right, bottom);
+        Bitmap.Config config = layers[layer].isOpaque() ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        options.inPreferredConfig = config;
+        Bitmap bitmap = null;
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN){
+            options.inBitmap = takeSpare(right - left, bottom - top, config);
+            if(options.inBitmap != null){
+                try{
+                    bitmap = decoders[layer].decodeRegion(region, options);
+                }catch(IllegalArgumentException e){
+                    options.inBitmap.recycle();
+                    bitmap = null;
+                }
+                options.inBitmap = null;
+                if(bitmap != null){
+                    reuses++;
+                }
+            }
+        }
+        if(bitmap == null){
+            bitmap = decoders[layer].decodeRegion(region, options);
+        }
+        decodes++;
+        return bitmap;
+    }
+
+    private Bitmap takeSpare(int width, int height, Bitmap.Config config){
+        Iterator<Bitmap> iterator = spares.iterator();
+        while(iterator.hasNext()){
+            Bitmap spare = iterator.next();
+            if(spare.getWidth() == width && spare.getHeight() == height && spare.getConfig() == config){
+                iterator.remove();
+                spareBytes.addAndGet(-TileCache.sizeOf(spare));
+                return spare;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.gameshift.spacepatrol.game.metrics;
+
+import android.os.Build;
+import android.os.Debug;
+
+public class ArtGcCountSource implements GcCountSource {
+    private static final String GC_COUNT_STAT = "art.gc.gc-count";
+
+    public static boolean isSupported(){
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+    }
+
+    @Override
+    public long getGcCount(){
+        String value = Debug.getRuntimeStat(GC_COUNT_STAT);
+        if(value == null){
+            return -1;
+        }
+        try{
+            return Long.parseLong(value);
+        }catch(NumberFormatException e){
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.gameshift.spacepatrol.game.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Gauge {
+    private final String name;
+    private final AtomicLong value = new AtomicLong();
+
+    Gauge(String name){
+        this.name = name;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public void set(long value){
+        this.value.set(value);
+    }
+
+    public void add(long delta){
+        value.addAndGet(delta);
+    }
+
+    public long get(){
+        return value.get();
+    }
+}
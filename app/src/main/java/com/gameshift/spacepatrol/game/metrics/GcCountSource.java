@@ -0,0 +1,5 @@
+package com.gameshift.spacepatrol.game.metrics;
+
+public interface GcCountSource {
+    long getGcCount();
+}
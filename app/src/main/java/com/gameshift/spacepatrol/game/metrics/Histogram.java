@@ -0,0 +1,133 @@
+package com.gameshift.spacepatrol.game.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class Histogram {
+    public static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final Phase first = new Phase();
+    private final Phase second = new Phase();
+    private volatile Phase active = first;
+
+    private static class Phase {
+        final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+        final AtomicInteger writers = new AtomicInteger();
+    }
+
+    public static class Snapshot {
+        private final long[] counts = new long[BUCKET_COUNT];
+        private long count = 0;
+        private long sum = 0;
+        private long max = 0;
+
+        public long[] getCounts(){
+            return counts;
+        }
+
+        public long getCount(){
+            return count;
+        }
+
+        public long getSum(){
+            return sum;
+        }
+
+        public long getMax(){
+            return max;
+        }
+
+        public long getMean(){
+            return count > 0 ? sum / count : 0;
+        }
+
+        public long valueAt(double quantile){
+            return Math.min(Histogram.valueAt(counts, count, quantile), max);
+        }
+    }
+
+    Histogram(String name){
+        this.name = name;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public void record(long value){
+        if(value < 0){
+            value = 0;
+        }
+        int bucket = bucketOf(value);
+        while(true){
+            Phase phase = active;
+            phase.writers.incrementAndGet();
+            if(phase == active){
+                phase.counts.incrementAndGet(bucket);
+                phase.sum.addAndGet(value);
+                long max = phase.max.get();
+                while(value > max && !phase.max.compareAndSet(max, value)){
+                    max = phase.max.get();
+                }
+                phase.writers.decrementAndGet();
+                return;
+            }
+            phase.writers.decrementAndGet();
+        }
+    }
+
+    public synchronized void drain(Snapshot out){
+        Phase phase = active;
+        active = phase == first ? second : first;
+        while(phase.writers.get() != 0){
+            Thread.yield();
+        }
+        long total = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            long count = phase.counts.getAndSet(i, 0);
+            out.counts[i] = count;
+            total += count;
+        }
+        out.count = total;
+        out.sum = phase.sum.getAndSet(0);
+        out.max = phase.max.getAndSet(0);
+    }
+
+    public static int bucketOf(long value){
+        if(value < SUB_BUCKETS){
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int)(value >>> shift);
+    }
+
+    public static long highestValueOf(int bucket){
+        if(bucket < SUB_BUCKETS){
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long)(bucket - shift * SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    public static long valueAt(long[] counts, long total, double quantile){
+        if(total <= 0){
+            return 0;
+        }
+        long rank = Math.max((long)Math.ceil(quantile * total), 1);
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            seen += counts[i];
+            if(seen >= rank){
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKET_COUNT - 1);
+    }
+}
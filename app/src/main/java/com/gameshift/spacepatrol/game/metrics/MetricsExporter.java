@@ -0,0 +1,166 @@
+package com.gameshift.spacepatrol.game.metrics;
+
+import com.gameshift.spacepatrol.game.telemetry.RotatingFileWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MetricsExporter extends RotatingFileWriter {
+    public static final int FORMAT_CSV = 0;
+    public static final int FORMAT_JSON = 1;
+    private static final String FILE_PREFIX = "metrics-";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99"};
+
+    private final MetricsRegistry registry;
+    private final int format;
+    private final long intervalMillis;
+    private final Histogram.Snapshot histogramSnapshot = new Histogram.Snapshot();
+    private final StringBuilder line = new StringBuilder();
+    private final long startMillis = System.currentTimeMillis();
+    private long nextSnapshotMillis;
+    private int fileMetricCount = -1;
+    private volatile long snapshots = 0;
+
+    public MetricsExporter(MetricsRegistry registry, File directory, int format, long intervalMillis, long maxFileBytes, int maxFiles){
+        super("MetricsExporter", directory, FILE_PREFIX, format == FORMAT_JSON ? ".json" : ".csv", maxFileBytes, maxFiles);
+        this.registry = registry;
+        this.format = format;
+        this.intervalMillis = intervalMillis;
+        nextSnapshotMillis = startMillis + intervalMillis;
+    }
+
+    public long getSnapshots(){
+        return snapshots;
+    }
+
+    @Override
+    protected long writeNext() throws IOException {
+        long now = System.currentTimeMillis();
+        if(now < nextSnapshotMillis){
+            return nextSnapshotMillis - now;
+        }
+        writeSnapshot();
+        nextSnapshotMillis = now + intervalMillis;
+        return intervalMillis;
+    }
+
+    @Override
+    protected void writeRemaining() throws IOException {
+        writeSnapshot();
+    }
+
+    private void writeSnapshot() throws IOException {
+        registry.sampleRuntime();
+        if(fileMetricCount != registry.size()){
+            closeFile();
+        }
+        line.setLength(0);
+        if(format == FORMAT_JSON){
+            appendJson();
+        }else{
+            appendCsv();
+        }
+        line.append('\n');
+        writeLine(line.toString());
+        flush();
+        snapshots++;
+    }
+
+    private void appendCsv(){
+        long now = System.currentTimeMillis();
+        line.append(now).append(',').append(now - startMillis);
+        for(Counter counter : registry.getCounters()){
+            line.append(',').append(counter.get());
+        }
+        for(Gauge gauge : registry.getGauges()){
+            line.append(',').append(gauge.get());
+        }
+        for(Histogram histogram : registry.getHistograms()){
+            histogram.drain(histogramSnapshot);
+            line.append(',').append(histogramSnapshot.getCount()).append(',').append(histogramSnapshot.getMean());
+            for(double quantile : QUANTILES){
+                line.append(',').append(histogramSnapshot.valueAt(quantile));
+            }
+            line.append(',').append(histogramSnapshot.getMax());
+        }
+    }
+
+    private void appendJson(){
+        long now = System.currentTimeMillis();
+        line.append("{\"time\":").append(now).append(",\"uptime\":").append(now - startMillis);
+        line.append(",\"counters\":{");
+        List<Counter> counters = registry.getCounters();
+        for(int i = 0; i < counters.size(); i++){
+            appendName(i, counters.get(i).getName()).append(counters.get(i).get());
+        }
+        line.append("},\"gauges\":{");
+        List<Gauge> gauges = registry.getGauges();
+        for(int i = 0; i < gauges.size(); i++){
+            appendName(i, gauges.get(i).getName()).append(gauges.get(i).get());
+        }
+        line.append("},\"histograms\":{");
+        List<Histogram> histograms = registry.getHistograms();
+        for(int i = 0; i < histograms.size(); i++){
+            Histogram histogram = histograms.get(i);
+            histogram.drain(histogramSnapshot);
+            appendName(i, histogram.getName()).append("{\"count\":").append(histogramSnapshot.getCount())
+                    .append(",\"mean\":").append(histogramSnapshot.getMean());
+            for(int q = 0; q < QUANTILES.length; q++){
+                line.append(",\"").append(QUANTILE_NAMES[q]).append("\":").append(histogramSnapshot.valueAt(QUANTILES[q]));
+            }
+            line.append(",\"max\":").append(histogramSnapshot.getMax()).append('}');
+        }
+        line.append("}}");
+    }
+
+    private StringBuilder appendName(int index, String name){
+        if(index > 0){
+            line.append(',');
+        }
+        return line.append('"').append(name).append("\":");
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        fileMetricCount = registry.size();
+        if(format == FORMAT_CSV){
+            writeLine(csvHeader());
+        }
+    }
+
+    private void writeLine(String text) throws IOException {
+        byte[] bytes = text.getBytes("UTF-8");
+        write(bytes, 0, bytes.length);
+    }
+
+    private String csvHeader(){
+        List<String> columns = new ArrayList<String>();
+        columns.add("time");
+        columns.add("uptime");
+        for(Counter counter : registry.getCounters()){
+            columns.add(counter.getName());
+        }
+        for(Gauge gauge : registry.getGauges()){
+            columns.add(gauge.getName());
+        }
+        for(Histogram histogram : registry.getHistograms()){
+            columns.add(histogram.getName() + "_count");
+            columns.add(histogram.getName() + "_mean");
+            for(String quantile : QUANTILE_NAMES){
+                columns.add(histogram.getName() + "_" + quantile);
+            }
+            columns.add(histogram.getName() + "_max");
+        }
+        StringBuilder header = new StringBuilder();
+        for(int i = 0; i < columns.size(); i++){
+            if(i > 0){
+                header.append(',');
+            }
+            header.append(columns.get(i));
+        }
+        return header.append('\n').toString();
+    }
+}
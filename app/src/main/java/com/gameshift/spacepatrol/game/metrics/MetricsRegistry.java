@@ -0,0 +1,86 @@
+package com.gameshift.spacepatrol.game.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class MetricsRegistry {
+    private final List<Counter> counters = new CopyOnWriteArrayList<Counter>();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<Gauge>();
+    private final List<Histogram> histograms = new CopyOnWriteArrayList<Histogram>();
+    private final Gauge heapUsed = gauge("heap_used_bytes");
+    private final GcCountSource gcCountSource;
+    private final Counter gcCount;
+    private long lastGcCount = -1;
+
+    public MetricsRegistry(){
+        this(null);
+    }
+
+    public MetricsRegistry(GcCountSource gcCountSource){
+        this.gcCountSource = gcCountSource;
+        gcCount = gcCountSource != null ? counter("gc_count") : null;
+    }
+
+    public synchronized Counter counter(String name){
+        for(Counter counter : counters){
+            if(counter.getName().equals(name)){
+                return counter;
+            }
+        }
+        Counter counter = new Counter(name);
+        counters.add(counter);
+        return counter;
+    }
+
+    public synchronized Gauge gauge(String name){
+        for(Gauge gauge : gauges){
+            if(gauge.getName().equals(name)){
+                return gauge;
+            }
+        }
+        Gauge gauge = new Gauge(name);
+        gauges.add(gauge);
+        return gauge;
+    }
+
+    public synchronized Histogram histogram(String name){
+        for(Histogram histogram : histograms){
+            if(histogram.getName().equals(name)){
+                return histogram;
+            }
+        }
+        Histogram histogram = new Histogram(name);
+        histograms.add(histogram);
+        return histogram;
+    }
+
+    public List<Counter> getCounters(){
+        return counters;
+    }
+
+    public List<Gauge> getGauges(){
+        return gauges;
+    }
+
+    public List<Histogram> getHistograms(){
+        return histograms;
+    }
+
+    public int size(){
+        return counters.size() + gauges.size() + histograms.size();
+    }
+
+    public void sampleRuntime(){
+        Runtime runtime = Runtime.getRuntime();
+        heapUsed.set(runtime.totalMemory() - runtime.freeMemory());
+        if(gcCountSource != null){
+            long count = gcCountSource.getGcCount();
+            if(count >= 0){
+                if(lastGcCount >= 0){
+                    gcCount.add(count - lastGcCount);
+                }
+                lastGcCount = count;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.gameshift.spacepatrol.game.net;
+
+public class InputCodec {
+    private static final int FLAGS_MASK = 0x03;
+    private static final int X_CHANGED = 0x04;
+    private static final int Y_CHANGED = 0x08;
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    public void wrap(byte[] buffer, int offset, int length){
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int getPosition(){
+        return position;
+    }
+
+    public boolean hasRemaining(){
+        return position < limit;
+    }
+
+    public void writeByte(int value){
+        if(position >= limit){
+            throw new IllegalStateException("Input packet overflow");
+        }
+        buffer[position++] = (byte)value;
+    }
+
+    public int readByte(){
+        if(position >= limit){
+            throw new IllegalStateException("Truncated input packet");
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    public void writeVarInt(int value){
+        while((value & ~0x7f) != 0){
+            writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    public int readVarInt(){
+        int value = 0;
+        int shift = 0;
+        int b;
+        do{
+            if(shift > 28){
+                throw new IllegalStateException("Malformed varint");
+            }
+            b = readByte();
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        }while((b & 0x80) != 0);
+        return value;
+    }
+
+    public void writeSignedVarInt(int value){
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public int readSignedVarInt(){
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public void writeInput(PlayerInput input, PlayerInput base){
+        int dx = input.getX() - base.getX();
+        int dy = input.getY() - base.getY();
+        int header = input.getFlags() & FLAGS_MASK;
+        if(dx != 0){
+            header |= X_CHANGED;
+        }
+        if(dy != 0){
+            header |= Y_CHANGED;
+        }
+        writeByte(header);
+        if(dx != 0){
+            writeSignedVarInt(dx);
+        }
+        if(dy != 0){
+            writeSignedVarInt(dy);
+        }
+    }
+
+    public void readInput(PlayerInput base, PlayerInput out){
+        int header = readByte();
+        int x = base.getX();
+        int y = base.getY();
+        if((header & X_CHANGED) != 0){
+            x += readSignedVarInt();
+        }
+        if((header & Y_CHANGED) != 0){
+            y += readSignedVarInt();
+        }
+        out.set(header & FLAGS_MASK, x, y);
+    }
+}
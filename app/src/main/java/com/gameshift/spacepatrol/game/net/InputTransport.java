@@ -0,0 +1,10 @@
+package com.gameshift.spacepatrol.game.net;
+
+public interface InputTransport {
+
+    void send(byte[] data, int length);
+
+    int receive(byte[] buffer);
+
+    void close();
+}
@@ -0,0 +1,181 @@
+package com.gameshift.spacepatrol.game.net;
+
+public class LockstepSession {
+    public static final int PLAYER_COUNT = 2;
+    private static final int PACKET_TYPE_INPUTS = 1;
+    private static final int BUFFER_SIZE = 128;
+    private static final int MAX_SEND_INPUTS = 32;
+    private static final int MAX_INPUT_DELAY = 16;
+
+    private final InputTransport transport;
+    private final int localPlayer;
+    private final int remotePlayer;
+    private final long seed;
+    private final int inputDelay;
+    private final PlayerInput[][] inputs = new PlayerInput[PLAYER_COUNT][BUFFER_SIZE];
+    private final int[] knownTicks = new int[PLAYER_COUNT];
+    private final PlayerInput emptyInput = new PlayerInput();
+    private final PlayerInput decodedInput = new PlayerInput();
+    private final PlayerInput pendingInput = new PlayerInput();
+    private final InputCodec codec = new InputCodec();
+    private final byte[] sendBuffer = new byte[UdpTransport.MAX_PACKET_SIZE];
+    private final byte[] receiveBuffer = new byte[UdpTransport.MAX_PACKET_SIZE];
+    private int remoteAcked = 0;
+    private int tick = 0;
+    private long bytesSent = 0;
+    private long packetsSent = 0;
+    private boolean closed = false;
+
+    public LockstepSession(InputTransport transport, int localPlayer, long seed, int inputDelay){
+        if(localPlayer < 0 || localPlayer >= PLAYER_COUNT){
+            throw new IllegalArgumentException("Invalid player index: " + localPlayer);
+        }
+        if(inputDelay < 1 || inputDelay > MAX_INPUT_DELAY){
+            throw new IllegalArgumentException("Input delay must be between 1 and " + MAX_INPUT_DELAY);
+        }
+        this.transport = transport;
+        this.localPlayer = localPlayer;
+        this.remotePlayer = 1 - localPlayer;
+        this.seed = seed;
+        this.inputDelay = inputDelay;
+        for(int player = 0; player < PLAYER_COUNT; player++){
+            for(int i = 0; i < BUFFER_SIZE; i++){
+                inputs[player][i] = new PlayerInput();
+            }
+            knownTicks[player] = inputDelay;
+        }
+        remoteAcked = inputDelay;
+    }
+
+    public int getLocalPlayer(){
+        return localPlayer;
+    }
+
+    public long getSeed(){
+        return seed;
+    }
+
+    public int getTick(){
+        return tick;
+    }
+
+    public long getBytesSent(){
+        return bytesSent;
+    }
+
+    public long getPacketsSent(){
+        return packetsSent;
+    }
+
+    public void setLocalPosition(int x, int y){
+        pendingInput.moveTo(x, y);
+    }
+
+    public void requestLocalBomb(){
+        pendingInput.bomb();
+    }
+
+    public void update(){
+        if(closed){
+            return;
+        }
+        receiveInputs();
+        if(!isTickReady()){
+            sendInputs();
+        }
+    }
+
+    public boolean isTickReady(){
+        return !closed && knownTicks[localPlayer] > tick && knownTicks[remotePlayer] > tick;
+    }
+
+    public PlayerInput getInput(int player){
+        return inputs[player][tick % BUFFER_SIZE];
+    }
+
+    public void advance(){
+        if(!isTickReady()){
+            throw new IllegalStateException("Tick " + tick + " is not ready");
+        }
+        int scheduledTick = knownTicks[localPlayer];
+        inputs[localPlayer][scheduledTick % BUFFER_SIZE].copyFrom(pendingInput);
+        knownTicks[localPlayer] = scheduledTick + 1;
+        pendingInput.clearFlags();
+        tick++;
+        sendInputs();
+    }
+
+    public void close(){
+        if(!closed){
+            closed = true;
+            transport.close();
+        }
+    }
+
+    private PlayerInput getBaseInput(int player, int forTick){
+        if(forTick <= inputDelay){
+            return emptyInput;
+        }
+        return inputs[player][(forTick - 1) % BUFFER_SIZE];
+    }
+
+    private void sendInputs(){
+        int firstTick = remoteAcked;
+        int count = Math.min(knownTicks[localPlayer] - firstTick, MAX_SEND_INPUTS);
+        codec.wrap(sendBuffer, 0, sendBuffer.length);
+        codec.writeByte(PACKET_TYPE_INPUTS);
+        codec.writeVarInt(knownTicks[remotePlayer]);
+        codec.writeSignedVarInt(firstTick - knownTicks[remotePlayer]);
+        codec.writeVarInt(Math.max(count, 0));
+        PlayerInput base = getBaseInput(localPlayer, firstTick);
+        for(int i = 0; i < count; i++){
+            PlayerInput input = inputs[localPlayer][(firstTick + i) % BUFFER_SIZE];
+            codec.writeInput(input, base);
+            base = input;
+        }
+        int length = codec.getPosition();
+        transport.send(sendBuffer, length);
+        bytesSent += length;
+        packetsSent++;
+    }
+
+    private void receiveInputs(){
+        int length;
+        while((length = transport.receive(receiveBuffer)) > 0){
+            try{
+                readPacket(length);
+            }catch(IllegalStateException e){
+                continue;
+            }
+        }
+    }
+
+    private void readPacket(int length){
+        codec.wrap(receiveBuffer, 0, length);
+        if(codec.readByte() != PACKET_TYPE_INPUTS){
+            return;
+        }
+        int ack = codec.readVarInt();
+        int firstTick = ack + codec.readSignedVarInt();
+        int count = codec.readVarInt();
+        if(ack > remoteAcked && ack <= knownTicks[localPlayer]){
+            remoteAcked = ack;
+        }
+        if(firstTick < inputDelay || firstTick > knownTicks[remotePlayer]){
+            return;
+        }
+        PlayerInput base = getBaseInput(remotePlayer, firstTick);
+        for(int i = 0; i < count; i++){
+            int inputTick = firstTick + i;
+            codec.readInput(base, decodedInput);
+            if(inputTick == knownTicks[remotePlayer]){
+                if(inputTick - tick >= BUFFER_SIZE){
+                    return;
+                }
+                inputs[remotePlayer][inputTick % BUFFER_SIZE].copyFrom(decodedInput);
+                knownTicks[remotePlayer] = inputTick + 1;
+            }
+            base = inputs[remotePlayer][inputTick % BUFFER_SIZE];
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gameshift.spacepatrol.game.net;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class LoopbackTransport implements InputTransport {
+
+    private final Queue<byte[]> inbox = new ConcurrentLinkedQueue<byte[]>();
+    private final Random random = new Random(0);
+    private LoopbackTransport peer = null;
+    private float dropRate = 0;
+    private boolean closed = false;
+
+    public static LoopbackTransport[] createPair(){
+        LoopbackTransport first = new LoopbackTransport();
+        LoopbackTransport second = new LoopbackTransport();
+        first.peer = second;
+        second.peer = first;
+        return new LoopbackTransport[]{first, second};
+    }
+
+    public void setDropRate(float dropRate){
+        this.dropRate = dropRate;
+    }
+
+    @Override
+    public void send(byte[] data, int length){
+        if(closed || peer.closed){
+            return;
+        }
+        if(dropRate > 0 && random.nextFloat() < dropRate){
+            return;
+        }
+        byte[] packet = new byte[length];
+        System.arraycopy(data, 0, packet, 0, length);
+        peer.inbox.offer(packet);
+    }
+
+    @Override
+    public int receive(byte[] buffer){
+        byte[] packet = inbox.poll();
+        if(packet == null){
+            return -1;
+        }
+        int length = Math.min(packet.length, buffer.length);
+        System.arraycopy(packet, 0, buffer, 0, length);
+        return length;
+    }
+
+    @Override
+    public void close(){
+        closed = true;
+        inbox.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package com.gameshift.spacepatrol.game.net;
+
+public class PlayerInput {
+    public static final int FLAG_MOVE = 1;
+    public static final int FLAG_BOMB = 2;
+
+    private int flags = 0;
+    private int x = 0;
+    private int y = 0;
+
+    public void set(int flags, int x, int y){
+        this.flags = flags;
+        this.x = x;
+        this.y = y;
+    }
+
+    public void copyFrom(PlayerInput input){
+        flags = input.flags;
+        x = input.x;
+        y = input.y;
+    }
+
+    public void reset(){
+        flags = 0;
+        x = 0;
+        y = 0;
+    }
+
+    public void moveTo(int x, int y){
+        flags |= FLAG_MOVE;
+        this.x = x;
+        this.y = y;
+    }
+
+    public void bomb(){
+        flags |= FLAG_BOMB;
+    }
+
+    public void clearFlags(){
+        flags = 0;
+    }
+
+    public int getFlags(){
+        return flags;
+    }
+
+    public boolean isMove(){
+        return (flags & FLAG_MOVE) != 0;
+    }
+
+    public boolean isBomb(){
+        return (flags & FLAG_BOMB) != 0;
+    }
+
+    public int getX(){
+        return x;
+    }
+
+    public int getY(){
+        return y;
+    }
+}
@@ -0,0 +1,111 @@
+package com.gameshift.spacepatrol.game.net;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class UdpTransport implements InputTransport {
+    public static final int MAX_PACKET_SIZE = 512;
+
+    private final DatagramSocket socket;
+    private final InetAddress peerAddress;
+    private final int peerPort;
+    private final Queue<byte[]> inbox = new ConcurrentLinkedQueue<byte[]>();
+    private final BlockingQueue<byte[]> outbox = new LinkedBlockingQueue<byte[]>();
+    private final Thread receiveThread;
+    private final Thread sendThread;
+    private volatile boolean closed = false;
+
+    public UdpTransport(int localPort, InetAddress peerAddress, int peerPort) throws SocketException {
+        this.socket = new DatagramSocket(localPort);
+        this.peerAddress = peerAddress;
+        this.peerPort = peerPort;
+        receiveThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                receiveLoop();
+            }
+        }, "UdpTransport-receive");
+        sendThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                sendLoop();
+            }
+        }, "UdpTransport-send");
+        receiveThread.setDaemon(true);
+        sendThread.setDaemon(true);
+        receiveThread.start();
+        sendThread.start();
+    }
+
+    private void receiveLoop(){
+        byte[] buffer = new byte[MAX_PACKET_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while(!closed){
+            try{
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                if(peerPort == packet.getPort() && peerAddress.equals(packet.getAddress())){
+                    byte[] data = new byte[packet.getLength()];
+                    System.arraycopy(buffer, 0, data, 0, data.length);
+                    inbox.offer(data);
+                }
+            }catch(IOException e){
+                if(closed){
+                    return;
+                }
+            }
+        }
+    }
+
+    private void sendLoop(){
+        while(!closed){
+            try{
+                byte[] data = outbox.take();
+                socket.send(new DatagramPacket(data, data.length, peerAddress, peerPort));
+            }catch(InterruptedException e){
+                return;
+            }catch(IOException e){
+                if(closed){
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void send(byte[] data, int length){
+        if(closed){
+            return;
+        }
+        byte[] packet = new byte[length];
+        System.arraycopy(data, 0, packet, 0, length);
+        outbox.offer(packet);
+    }
+
+    @Override
+    public int receive(byte[] buffer){
+        byte[] packet = inbox.poll();
+        if(packet == null){
+            return -1;
+        }
+        int length = Math.min(packet.length, buffer.length);
+        System.arraycopy(packet, 0, buffer, 0, length);
+        return length;
+    }
+
+    @Override
+    public void close(){
+        closed = true;
+        socket.close();
+        sendThread.interrupt();
+        inbox.clear();
+        outbox.clear();
+    }
+}
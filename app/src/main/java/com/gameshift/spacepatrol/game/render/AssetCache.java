@@ -0,0 +1,77 @@
+package com.gameshift.spacepatrol.game.render;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AssetCache {
+    private final BitmapManager bitmapManager;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private int acquires = 0;
+    private int shared = 0;
+
+    private static class Entry {
+        Bitmap bitmap;
+        int resourceId;
+        int density;
+        int references;
+    }
+
+    public AssetCache(BitmapManager bitmapManager){
+        this.bitmapManager = bitmapManager;
+    }
+
+    public BitmapManager getBitmapManager(){
+        return bitmapManager;
+    }
+
+    public int getAcquires(){
+        return acquires;
+    }
+
+    public int getShared(){
+        return shared;
+    }
+
+    public int getHeldCount(){
+        return entries.size();
+    }
+
+    public Bitmap acquire(int resourceId, int density){
+        acquires++;
+        for(int i = 0; i < entries.size(); i++){
+            Entry entry = entries.get(i);
+            if(entry.resourceId == resourceId && entry.density == density){
+                entry.references++;
+                shared++;
+                return entry.bitmap;
+            }
+        }
+        Entry entry = new Entry();
+        entry.bitmap = bitmapManager.decode(resourceId, density);
+        entry.resourceId = resourceId;
+        entry.density = density;
+        entry.references = 1;
+        entries.add(entry);
+        return entry.bitmap;
+    }
+
+    public void release(Bitmap bitmap){
+        for(int i = 0; i < entries.size(); i++){
+            Entry entry = entries.get(i);
+            if(entry.bitmap == bitmap){
+                if(--entry.references == 0){
+                    entries.remove(i);
+                    bitmapManager.release(bitmap);
+                }
+                return;
+            }
+        }
+        bitmapManager.release(bitmap);
+    }
+
+    public void releaseIdle(){
+        bitmapManager.clear();
+    }
+}
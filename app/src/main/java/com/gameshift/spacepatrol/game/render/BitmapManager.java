@@ -0,0 +1,271 @@
+package com.gameshift.spacepatrol.game.render;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BitmapManager {
+    public static final int NO_RESOURCE = 0;
+    private static final int MAX_REUSE_WASTE = 2;
+
+    private final Resources resources;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final List<Integer> configIds = new ArrayList<Integer>();
+    private final List<Bitmap.Config> configs = new ArrayList<Bitmap.Config>();
+    private final BitmapFactory.Options options = new BitmapFactory.Options();
+    private long budgetBytes;
+    private long usedBytes = 0;
+    private long activeBytes = 0;
+    private long peakBytes = 0;
+    private long clock = 0;
+    private int decodes = 0;
+    private int cacheHits = 0;
+    private int reuses = 0;
+    private int evictions = 0;
+
+    private static class Entry {
+        Bitmap bitmap;
+        int resourceId;
+        int density;
+        int bytes;
+        boolean active;
+        long lastUsed;
+    }
+
+    public BitmapManager(Resources resources, long budgetBytes){
+        this.resources = resources;
+        this.budgetBytes = budgetBytes;
+    }
+
+    public void setConfig(int resourceId, Bitmap.Config config){
+        int index = configIds.indexOf(resourceId);
+        if(index >= 0){
+            configs.set(index, config);
+        }else{
+            configIds.add(resourceId);
+            configs.add(config);
+        }
+    }
+
+    public Bitmap.Config getConfig(int resourceId){
+        int index = configIds.indexOf(resourceId);
+        return index >= 0 ? configs.get(index) : Bitmap.Config.ARGB_8888;
+    }
+
+    public void setBudgetBytes(long budgetBytes){
+        this.budgetBytes = budgetBytes;
+        trimToBudget(0);
+    }
+
+    public long getBudgetBytes(){
+        return budgetBytes;
+    }
+
+    public long getUsedBytes(){
+        return usedBytes;
+    }
+
+    public long getActiveBytes(){
+        return activeBytes;
+    }
+
+    public long getIdleBytes(){
+        return usedBytes - activeBytes;
+    }
+
+    public long getPeakBytes(){
+        return peakBytes;
+    }
+
+    public int getDecodes(){
+        return decodes;
+    }
+
+    public int getCacheHits(){
+        return cacheHits;
+    }
+
+    public int getReuses(){
+        return reuses;
+    }
+
+    public int getEvictions(){
+        return evictions;
+    }
+
+    public Bitmap decode(int resourceId, int density){
+        for(int i = 0; i < entries.size(); i++){
+            Entry entry = entries.get(i);
+            if(!entry.active && entry.resourceId == resourceId && entry.density == density){
+                activate(entry);
+                cacheHits++;
+                return entry.bitmap;
+            }
+        }
+        Bitmap.Config config = getConfig(resourceId);
+        resetOptions(density, config);
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resourceId, options);
+        options.inJustDecodeBounds = false;
+        int bytes = options.outWidth * options.outHeight * bytesPerPixel(config);
+        Bitmap bitmap = null;
+        Entry reusable = canReuse() ? findReusable(bytes) : null;
+        if(reusable != null){
+            options.inBitmap = reusable.bitmap;
+            try{
+                bitmap = BitmapFactory.decodeResource(resources, resourceId, options);
+            }catch(IllegalArgumentException e){
+                bitmap = null;
+            }
+            options.inBitmap = null;
+            if(bitmap != null){
+                reuses++;
+                remove(reusable, false);
+            }
+        }
+        if(bitmap == null){
+            trimToBudget(bytes);
+            bitmap = BitmapFactory.decodeResource(resources, resourceId, options);
+        }
+        decodes++;
+        return add(bitmap, resourceId, density);
+    }
+
+    public Bitmap obtain(int width, int height, Bitmap.Config config){
+        int bytes = width * height * bytesPerPixel(config);
+        if(canReuse()){
+            Entry reusable = findReusable(bytes);
+            if(reusable != null){
+                remove(reusable, false);
+                reusable.bitmap.reconfigure(width, height, config);
+                reusable.bitmap.eraseColor(0);
+                reuses++;
+                return add(reusable.bitmap, NO_RESOURCE, 0);
+            }
+        }
+        trimToBudget(bytes);
+        return add(Bitmap.createBitmap(width, height, config), NO_RESOURCE, 0);
+    }
+
+    public void release(Bitmap bitmap){
+        for(int i = 0; i < entries.size(); i++){
+            Entry entry = entries.get(i);
+            if(entry.bitmap == bitmap){
+                if(entry.active){
+                    entry.active = false;
+                    entry.lastUsed = ++clock;
+                    activeBytes -= entry.bytes;
+                }
+                trimToBudget(0);
+                return;
+            }
+        }
+        bitmap.recycle();
+    }
+
+    public void trimToBudget(long incomingBytes){
+        while(usedBytes + incomingBytes > budgetBytes){
+            Entry oldest = null;
+            for(int i = 0; i < entries.size(); i++){
+                Entry entry = entries.get(i);
+                if(!entry.active && (oldest == null || entry.lastUsed < oldest.lastUsed)){
+                    oldest = entry;
+                }
+            }
+            if(oldest == null){
+                return;
+            }
+            remove(oldest, true);
+            evictions++;
+        }
+    }
+
+    public void clear(){
+        for(int i = entries.size() - 1; i >= 0; i--){
+            Entry entry = entries.get(i);
+            if(!entry.active){
+                remove(entry, true);
+            }
+        }
+    }
+
+    private boolean canReuse(){
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+    }
+
+    private Entry findReusable(int bytes){
+        Entry best = null;
+        for(int i = 0; i < entries.size(); i++){
+            Entry entry = entries.get(i);
+            if(entry.active || entry.bytes < bytes || entry.bytes > bytes * MAX_REUSE_WASTE){
+                continue;
+            }
+            if(best == null || entry.bytes < best.bytes || (entry.bytes == best.bytes && entry.lastUsed < best.lastUsed)){
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    private void activate(Entry entry){
+        entry.active = true;
+        activeBytes += entry.bytes;
+    }
+
+    private Bitmap add(Bitmap bitmap, int resourceId, int density){
+        Entry entry = new Entry();
+        entry.bitmap = bitmap;
+        entry.resourceId = resourceId;
+        entry.density = density;
+        entry.bytes = sizeOf(bitmap);
+        entries.add(entry);
+        usedBytes += entry.bytes;
+        peakBytes = Math.max(peakBytes, usedBytes);
+        activate(entry);
+        return bitmap;
+    }
+
+    private void remove(Entry entry, boolean recycle){
+        entries.remove(entry);
+        usedBytes -= entry.bytes;
+        if(entry.active){
+            activeBytes -= entry.bytes;
+        }
+        if(recycle){
+            entry.bitmap.recycle();
+        }
+    }
+
+    private void resetOptions(int density, Bitmap.Config config){
+        options.inJustDecodeBounds = false;
+        options.inPreferredConfig = config;
+        options.inTargetDensity = density;
+        options.inSampleSize = 1;
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB){
+            options.inBitmap = null;
+            options.inMutable = true;
+        }
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config){
+        if(config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444){
+            return 2;
+        }else if(config == Bitmap.Config.ALPHA_8){
+            return 1;
+        }
+        return 4;
+    }
+
+    private static int sizeOf(Bitmap bitmap){
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT){
+            return bitmap.getAllocationByteCount();
+        }else if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1){
+            return bitmap.getByteCount();
+        }
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+}
@@ -0,0 +1,122 @@
+package com.gameshift.spacepatrol.game.render;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.os.Build;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+public class CanvasRenderBackend implements RenderBackend {
+    private static final int VERSION_CODE_Q = 29;
+    private static final int SHADER_CACHE_SIZE = GameWorld.IMAGE_COUNT;
+
+    private final short[] indices = new short[SpriteBatcher.MAX_BATCH_SPRITES * 6];
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect srcRect = new Rect();
+    private final RectF dstRect = new RectF();
+    private final SpriteImage[] shaderImages = new SpriteImage[SHADER_CACHE_SIZE];
+    private final Bitmap[] shaderBitmaps = new Bitmap[SHADER_CACHE_SIZE];
+    private final Paint[] shaderPaints = new Paint[SHADER_CACHE_SIZE];
+    private int nextShaderSlot = 0;
+    private Canvas canvas = null;
+    private boolean useVertices = false;
+    private int drawCalls = 0;
+
+    public CanvasRenderBackend(){
+        for(int i = 0; i < SpriteBatcher.MAX_BATCH_SPRITES; i++){
+            int vertex = i * 4;
+            int offset = i * 6;
+            indices[offset] = (short)vertex;
+            indices[offset + 1] = (short)(vertex + 1);
+            indices[offset + 2] = (short)(vertex + 2);
+            indices[offset + 3] = (short)vertex;
+            indices[offset + 4] = (short)(vertex + 2);
+            indices[offset + 5] = (short)(vertex + 3);
+        }
+    }
+
+    public void setCanvas(Canvas canvas){
+        this.canvas = canvas;
+        if(Build.VERSION.SDK_INT >= VERSION_CODE_Q){
+            useVertices = true;
+        }else if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB){
+            useVertices = !canvas.isHardwareAccelerated();
+        }else{
+            useVertices = true;
+        }
+    }
+
+    @Override
+    public void beginFrame(){
+        drawCalls = 0;
+    }
+
+    @Override
+    public void drawBatch(SpriteImage image, float[] vertices, float[] texCoords, int spriteCount){
+        Bitmap bitmap = image.getBitmap();
+        if(bitmap == null || bitmap.isRecycled()){
+            return;
+        }
+        if(useVertices && spriteCount > 1){
+            Paint paint = getShaderPaint(image, bitmap);
+            canvas.drawVertices(Canvas.VertexMode.TRIANGLES, spriteCount * 8, vertices, 0, texCoords, 0,
+                    null, 0, indices, 0, spriteCount * 6, paint);
+            drawCalls++;
+        }else{
+            for(int i = 0; i < spriteCount; i++){
+                int offset = i * 8;
+                srcRect.set((int)texCoords[offset], (int)texCoords[offset + 1], (int)texCoords[offset + 4], (int)texCoords[offset + 5]);
+                dstRect.set(vertices[offset], vertices[offset + 1], vertices[offset + 4], vertices[offset + 5]);
+                canvas.drawBitmap(bitmap, srcRect, dstRect, bitmapPaint);
+                drawCalls++;
+            }
+        }
+    }
+
+    @Override
+    public void endFrame(){
+        canvas = null;
+    }
+
+    public int getDrawCalls(){
+        return drawCalls;
+    }
+
+    private Paint getShaderPaint(SpriteImage image, Bitmap bitmap){
+        int slot = -1;
+        for(int i = 0; i < SHADER_CACHE_SIZE; i++){
+            if(shaderImages[i] == image){
+                slot = i;
+                break;
+            }
+        }
+        if(slot < 0){
+            slot = nextShaderSlot;
+            nextShaderSlot = (nextShaderSlot + 1) % SHADER_CACHE_SIZE;
+            shaderImages[slot] = image;
+            shaderBitmaps[slot] = null;
+        }
+        if(shaderBitmaps[slot] != bitmap){
+            Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+            paint.setShader(new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+            shaderPaints[slot] = paint;
+            shaderBitmaps[slot] = bitmap;
+        }
+        return shaderPaints[slot];
+    }
+
+    public void release(){
+        for(int i = 0; i < SHADER_CACHE_SIZE; i++){
+            shaderImages[i] = null;
+            shaderBitmaps[i] = null;
+            shaderPaints[i] = null;
+        }
+        nextShaderSlot = 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.gameshift.spacepatrol.game.render;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+
+public class OffscreenTarget {
+    private final BitmapManager bitmapManager;
+    private final Paint blitPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect srcRect = new Rect();
+    private final Rect dstRect = new Rect();
+    private Bitmap bitmap = null;
+    private Canvas canvas = null;
+    private int saveCount = 0;
+
+    public OffscreenTarget(BitmapManager bitmapManager){
+        this.bitmapManager = bitmapManager;
+    }
+
+    public Canvas begin(int width, int height, float scale, float maxScale){
+        int capacityWidth = (int)Math.ceil(width * maxScale);
+        int capacityHeight = (int)Math.ceil(height * maxScale);
+        if(bitmap == null || bitmap.getWidth() != capacityWidth || bitmap.getHeight() != capacityHeight){
+            release();
+            bitmap = bitmapManager.obtain(capacityWidth, capacityHeight, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+        }
+        int scaledWidth = Math.min(capacityWidth, (int)Math.ceil(width * scale));
+        int scaledHeight = Math.min(capacityHeight, (int)Math.ceil(height * scale));
+        srcRect.set(0, 0, scaledWidth, scaledHeight);
+        dstRect.set(0, 0, width, height);
+        saveCount = canvas.save();
+        canvas.clipRect(srcRect);
+        canvas.drawColor(0, PorterDuff.Mode.CLEAR);
+        canvas.scale((float)scaledWidth / width, (float)scaledHeight / height);
+        return canvas;
+    }
+
+    public void blit(Canvas screen){
+        canvas.restoreToCount(saveCount);
+        screen.drawBitmap(bitmap, srcRect, dstRect, blitPaint);
+    }
+
+    public int getWidth(){
+        return srcRect.width();
+    }
+
+    public int getHeight(){
+        return srcRect.height();
+    }
+
+    public void release(){
+        if(bitmap != null){
+            bitmapManager.release(bitmap);
+            bitmap = null;
+            canvas = null;
+        }
+    }
+}
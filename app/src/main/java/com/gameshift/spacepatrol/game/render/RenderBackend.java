@@ -0,0 +1,12 @@
+package com.gameshift.spacepatrol.game.render;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+public interface RenderBackend {
+
+    void beginFrame();
+
+    void drawBatch(SpriteImage image, float[] vertices, float[] texCoords, int spriteCount);
+
+    void endFrame();
+}
@@ -0,0 +1,105 @@
+package com.gameshift.spacepatrol.game.render;
+
+public class RenderScaleController {
+    private static final float SMOOTHING = 0.1f;
+    private static final float OVER_BUDGET = 1.15f;
+    private static final float UNDER_BUDGET = 1.05f;
+    private static final int DOWNSCALE_FRAMES = 15;
+    private static final int UPSCALE_FRAMES = 180;
+    private static final int MAX_UPSCALE_BACKOFF = 8;
+    private static final long MAX_FRAME_NANOS = 250000000L;
+
+    private final float minScale;
+    private final float maxScale;
+    private final float step;
+    private final int maxLevel;
+    private final long budgetNanos;
+    private int level = 0;
+    private float averageNanos = 0;
+    private int overFrames = 0;
+    private int underFrames = 0;
+    private int upscaleBackoff = 1;
+    private boolean probing = false;
+    private long lastFrameTime = 0;
+
+    public RenderScaleController(float minScale, float maxScale, float step, long budgetNanos){
+        this.minScale = minScale;
+        this.maxScale = maxScale;
+        this.step = step;
+        this.maxLevel = (int)Math.ceil((maxScale - minScale) / step - 0.001f);
+        this.budgetNanos = budgetNanos;
+    }
+
+    public float getScale(){
+        return Math.max(minScale, maxScale - level * step);
+    }
+
+    public float getMaxScale(){
+        return maxScale;
+    }
+
+    public float getAverageFrameMillis(){
+        return averageNanos / 1000000f;
+    }
+
+    public boolean isAdaptive(){
+        return minScale < maxScale;
+    }
+
+    public void onFrame(long frameTime){
+        long last = lastFrameTime;
+        lastFrameTime = frameTime;
+        if(last == 0){
+            return;
+        }
+        long frameNanos = frameTime - last;
+        if(frameNanos <= 0 || frameNanos > MAX_FRAME_NANOS){
+            return;
+        }
+        averageNanos = averageNanos == 0 ? frameNanos : averageNanos + (frameNanos - averageNanos) * SMOOTHING;
+        if(!isAdaptive()){
+            return;
+        }
+        if(averageNanos > budgetNanos * OVER_BUDGET){
+            underFrames = 0;
+            if(++overFrames >= DOWNSCALE_FRAMES && level < maxLevel){
+                if(probing){
+                    upscaleBackoff = Math.min(upscaleBackoff * 2, MAX_UPSCALE_BACKOFF);
+                    probing = false;
+                }
+                setLevel(level + 1);
+            }
+        }else if(averageNanos <= budgetNanos * UNDER_BUDGET){
+            overFrames = 0;
+            if(++underFrames >= UPSCALE_FRAMES * upscaleBackoff){
+                if(probing){
+                    upscaleBackoff = Math.max(upscaleBackoff / 2, 1);
+                }
+                if(level > 0){
+                    setLevel(level - 1);
+                    probing = true;
+                }else{
+                    underFrames = 0;
+                    probing = false;
+                }
+            }
+        }else{
+            overFrames = 0;
+            underFrames = 0;
+        }
+    }
+
+    private void setLevel(int level){
+        this.level = level;
+        averageNanos = 0;
+        overFrames = 0;
+        underFrames = 0;
+    }
+
+    public void reset(){
+        lastFrameTime = 0;
+        averageNanos = 0;
+        overFrames = 0;
+        underFrames = 0;
+    }
+}
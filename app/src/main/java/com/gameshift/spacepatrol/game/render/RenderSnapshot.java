@@ -0,0 +1,116 @@
+package com.gameshift.spacepatrol.game.render;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+import java.util.Arrays;
+
+public class RenderSnapshot implements SpriteSink {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long sequence = 0;
+    private long frame = 0;
+    private long score = 0;
+    private int playerCount = 0;
+    private int[] bombCounts = new int[1];
+    private boolean[] aircraftAlive = new boolean[1];
+    private int count = 0;
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private SpriteImage[] images = new SpriteImage[INITIAL_CAPACITY];
+    private float[] rects = new float[INITIAL_CAPACITY * 8];
+
+    public void begin(long frame, long score, int playerCount){
+        this.frame = frame;
+        this.score = score;
+        this.playerCount = playerCount;
+        if(bombCounts.length < playerCount){
+            bombCounts = new int[playerCount];
+            aircraftAlive = new boolean[playerCount];
+        }
+        count = 0;
+    }
+
+    public void setPlayer(int player, int bombCount, boolean alive){
+        bombCounts[player] = bombCount;
+        aircraftAlive[player] = alive;
+    }
+
+    @Override
+    public void add(int layer, SpriteImage image, float srcLeft, float srcTop, float srcRight, float srcBottom,
+                    float dstLeft, float dstTop, float dstRight, float dstBottom){
+        if(count == layers.length){
+            int capacity = count * 2;
+            layers = Arrays.copyOf(layers, capacity);
+            images = Arrays.copyOf(images, capacity);
+            rects = Arrays.copyOf(rects, capacity * 8);
+        }
+        layers[count] = layer;
+        images[count] = image;
+        int offset = count * 8;
+        rects[offset] = srcLeft;
+        rects[offset + 1] = srcTop;
+        rects[offset + 2] = srcRight;
+        rects[offset + 3] = srcBottom;
+        rects[offset + 4] = dstLeft;
+        rects[offset + 5] = dstTop;
+        rects[offset + 6] = dstRight;
+        rects[offset + 7] = dstBottom;
+        count++;
+    }
+
+    public void submitTo(SpriteSink sink){
+        for(int i = 0; i < count; i++){
+            int offset = i * 8;
+            sink.add(layers[i], images[i], rects[offset], rects[offset + 1], rects[offset + 2], rects[offset + 3],
+                    rects[offset + 4], rects[offset + 5], rects[offset + 6], rects[offset + 7]);
+        }
+    }
+
+    void setSequence(long sequence){
+        this.sequence = sequence;
+    }
+
+    public long getSequence(){
+        return sequence;
+    }
+
+    public long getFrame(){
+        return frame;
+    }
+
+    public long getScore(){
+        return score;
+    }
+
+    public int getPlayerCount(){
+        return playerCount;
+    }
+
+    public int getBombCount(int player){
+        return player < playerCount ? bombCounts[player] : 0;
+    }
+
+    public boolean isAircraftAlive(int player){
+        return player < playerCount && aircraftAlive[player];
+    }
+
+    public int getSpriteCount(){
+        return count;
+    }
+
+    public float getDstLeft(int index){
+        return rects[index * 8 + 4];
+    }
+
+    public float getDstTop(int index){
+        return rects[index * 8 + 5];
+    }
+
+    public void clear(){
+        Arrays.fill(images, null);
+        count = 0;
+        playerCount = 0;
+        frame = 0;
+        score = 0;
+        sequence = 0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.gameshift.spacepatrol.game.render;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SnapshotExchange {
+    private static final int INDEX_MASK = 0x3;
+    private static final int FRESH = 0x4;
+
+    private final RenderSnapshot[] buffers = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+    private long published = 0;
+    private boolean hasFront = false;
+
+    public RenderSnapshot beginWrite(){
+        return buffers[back];
+    }
+
+    public void publish(){
+        buffers[back].setSequence(++published);
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    public RenderSnapshot acquire(){
+        if((middle.get() & FRESH) != 0){
+            front = middle.getAndSet(front) & INDEX_MASK;
+            hasFront = true;
+        }
+        return hasFront ? buffers[front] : null;
+    }
+
+    public long getPublishedCount(){
+        return published;
+    }
+
+    public void clear(){
+        for(RenderSnapshot buffer : buffers){
+            buffer.clear();
+        }
+        middle.set(1);
+        back = 0;
+        front = 2;
+        published = 0;
+        hasFront = false;
+    }
+}
@@ -0,0 +1,117 @@
+package com.gameshift.spacepatrol.game.render;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+import java.util.Arrays;
+
+public class SpriteBatcher implements SpriteSink {
+    public static final int MAX_BATCH_SPRITES = 8190;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_LAYER = 0xfff;
+    private static final int MAX_IMAGE_ID = 0xfffff;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private SpriteImage[] images = new SpriteImage[INITIAL_CAPACITY];
+    private float[] rects = new float[INITIAL_CAPACITY * 8];
+    private float[] vertices = new float[INITIAL_CAPACITY * 8];
+    private float[] texCoords = new float[INITIAL_CAPACITY * 8];
+    private int count = 0;
+    private int lastBatchCount = 0;
+
+    public void begin(){
+        count = 0;
+    }
+
+    @Override
+    public void add(int layer, SpriteImage image, float srcLeft, float srcTop, float srcRight, float srcBottom,
+                    float dstLeft, float dstTop, float dstRight, float dstBottom){
+        if(count == keys.length){
+            grow();
+        }
+        long group = ((long)(layer & MAX_LAYER) << 20) | (image.getId() & MAX_IMAGE_ID);
+        keys[count] = (group << 32) | count;
+        images[count] = image;
+        int offset = count * 8;
+        rects[offset] = srcLeft;
+        rects[offset + 1] = srcTop;
+        rects[offset + 2] = srcRight;
+        rects[offset + 3] = srcBottom;
+        rects[offset + 4] = dstLeft;
+        rects[offset + 5] = dstTop;
+        rects[offset + 6] = dstRight;
+        rects[offset + 7] = dstBottom;
+        count++;
+    }
+
+    private void grow(){
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        images = Arrays.copyOf(images, capacity);
+        rects = Arrays.copyOf(rects, capacity * 8);
+        int batchFloats = Math.min(capacity, MAX_BATCH_SPRITES) * 8;
+        if(vertices.length < batchFloats){
+            vertices = new float[batchFloats];
+            texCoords = new float[batchFloats];
+        }
+    }
+
+    public void flush(RenderBackend backend){
+        Arrays.sort(keys, 0, count);
+        backend.beginFrame();
+        int batches = 0;
+        int i = 0;
+        while(i < count){
+            long group = keys[i] >>> 32;
+            SpriteImage image = images[(int)keys[i]];
+            int batchSize = 0;
+            while(i < count && (keys[i] >>> 32) == group && batchSize < MAX_BATCH_SPRITES){
+                writeQuad((int)keys[i], batchSize * 8);
+                batchSize++;
+                i++;
+            }
+            backend.drawBatch(image, vertices, texCoords, batchSize);
+            batches++;
+        }
+        backend.endFrame();
+        for(int j = 0; j < count; j++){
+            images[j] = null;
+        }
+        lastBatchCount = batches;
+    }
+
+    private void writeQuad(int command, int offset){
+        int r = command * 8;
+        float srcLeft = rects[r];
+        float srcTop = rects[r + 1];
+        float srcRight = rects[r + 2];
+        float srcBottom = rects[r + 3];
+        float dstLeft = rects[r + 4];
+        float dstTop = rects[r + 5];
+        float dstRight = rects[r + 6];
+        float dstBottom = rects[r + 7];
+        vertices[offset] = dstLeft;
+        vertices[offset + 1] = dstTop;
+        vertices[offset + 2] = dstRight;
+        vertices[offset + 3] = dstTop;
+        vertices[offset + 4] = dstRight;
+        vertices[offset + 5] = dstBottom;
+        vertices[offset + 6] = dstLeft;
+        vertices[offset + 7] = dstBottom;
+        texCoords[offset] = srcLeft;
+        texCoords[offset + 1] = srcTop;
+        texCoords[offset + 2] = srcRight;
+        texCoords[offset + 3] = srcTop;
+        texCoords[offset + 4] = srcRight;
+        texCoords[offset + 5] = srcBottom;
+        texCoords[offset + 6] = srcLeft;
+        texCoords[offset + 7] = srcBottom;
+    }
+
+    public int getCommandCount(){
+        return count;
+    }
+
+    public int getLastBatchCount(){
+        return lastBatchCount;
+    }
+}
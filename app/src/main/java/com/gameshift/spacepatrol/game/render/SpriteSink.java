@@ -0,0 +1,8 @@
+package com.gameshift.spacepatrol.game.render;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+public interface SpriteSink {
+    void add(int layer, SpriteImage image, float srcLeft, float srcTop, float srcRight, float srcBottom,
+             float dstLeft, float dstTop, float dstRight, float dstBottom);
+}
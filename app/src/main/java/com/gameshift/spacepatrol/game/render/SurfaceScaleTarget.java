@@ -0,0 +1,89 @@
+package com.gameshift.spacepatrol.game.render;
+
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.os.Build;
+import android.view.Surface;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import android.view.View;
+
+public class SurfaceScaleTarget implements SurfaceHolder.Callback {
+    private final SurfaceView view;
+    private final SurfaceHolder holder;
+    private boolean created = false;
+    private int fixedWidth = 0;
+    private int fixedHeight = 0;
+    private Canvas canvas = null;
+    private Surface hardwareSurface = null;
+    private int saveCount = 0;
+
+    public SurfaceScaleTarget(SurfaceView view){
+        this.view = view;
+        this.holder = view.getHolder();
+        holder.addCallback(this);
+    }
+
+    public void setActive(boolean active){
+        int visibility = active ? View.VISIBLE : View.GONE;
+        if(view.getVisibility() != visibility){
+            view.setVisibility(visibility);
+        }
+    }
+
+    public boolean isReady(){
+        return created && view.getVisibility() == View.VISIBLE;
+    }
+
+    public Canvas begin(int width, int height, float scale){
+        int scaledWidth = Math.max((int)Math.ceil(width * scale), 1);
+        int scaledHeight = Math.max((int)Math.ceil(height * scale), 1);
+        if(scaledWidth != fixedWidth || scaledHeight != fixedHeight){
+            holder.setFixedSize(scaledWidth, scaledHeight);
+            fixedWidth = scaledWidth;
+            fixedHeight = scaledHeight;
+        }
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M){
+            Surface surface = holder.getSurface();
+            try{
+                canvas = surface.lockHardwareCanvas();
+                hardwareSurface = surface;
+            }catch(IllegalStateException e){
+                canvas = null;
+            }
+        }else{
+            canvas = holder.lockCanvas();
+        }
+        if(canvas == null){
+            return null;
+        }
+        saveCount = canvas.save();
+        canvas.drawColor(0, PorterDuff.Mode.CLEAR);
+        canvas.scale((float)canvas.getWidth() / width, (float)canvas.getHeight() / height);
+        return canvas;
+    }
+
+    public void end(){
+        canvas.restoreToCount(saveCount);
+        if(hardwareSurface != null){
+            hardwareSurface.unlockCanvasAndPost(canvas);
+            hardwareSurface = null;
+        }else{
+            holder.unlockCanvasAndPost(canvas);
+        }
+        canvas = null;
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder){
+        created = true;
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height){}
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder){
+        created = false;
+    }
+}
@@ -0,0 +1,116 @@
+package com.gameshift.spacepatrol.game.replay;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+class ChunkReader {
+    private final byte[] data;
+    private final int limit;
+    private int position;
+    private int chunkOffset = 0;
+    private int type = 0;
+    private long tick = 0;
+    private long tickCount = 0;
+    private int width = 0;
+    private int height = 0;
+    private int payloadOffset = 0;
+    private int payloadLength = 0;
+
+    ChunkReader(Replay replay, int offset){
+        this.data = replay.getData();
+        this.limit = replay.getLength();
+        this.position = offset;
+    }
+
+    void seek(int offset){
+        position = offset;
+    }
+
+    boolean next() throws IOException {
+        if(position >= limit){
+            return false;
+        }
+        int start = position;
+        try{
+            type = data[position++] & 0xff;
+            tick = readVarLong();
+            payloadLength = 0;
+            if(type == ReplayWriter.CHUNK_INPUTS){
+                tickCount = readVarLong();
+                payloadLength = (int)readVarLong();
+            }else if(type == ReplayWriter.CHUNK_KEYFRAME){
+                payloadLength = (int)readVarLong();
+            }else if(type == ReplayWriter.CHUNK_RESIZE){
+                width = (int)readVarLong();
+                height = (int)readVarLong();
+            }else{
+                throw new IOException("Unknown replay chunk type " + type + " at " + start);
+            }
+        }catch(EOFException e){
+            position = limit;
+            return false;
+        }
+        payloadOffset = position;
+        if(payloadLength < 0 || payloadOffset + payloadLength > limit){
+            position = limit;
+            return false;
+        }
+        position += payloadLength;
+        chunkOffset = start;
+        return true;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do{
+            if(shift > 63){
+                throw new IOException("Malformed varint in replay");
+            }
+            if(position >= limit){
+                throw new EOFException("Truncated replay chunk");
+            }
+            b = data[position++] & 0xff;
+            value |= (long)(b & 0x7f) << shift;
+            shift += 7;
+        }while((b & 0x80) != 0);
+        return value;
+    }
+
+    int getChunkOffset(){
+        return chunkOffset;
+    }
+
+    int getType(){
+        return type;
+    }
+
+    long getTick(){
+        return tick;
+    }
+
+    long getTickCount(){
+        return tickCount;
+    }
+
+    int getWidth(){
+        return width;
+    }
+
+    int getHeight(){
+        return height;
+    }
+
+    byte[] getData(){
+        return data;
+    }
+
+    int getPayloadOffset(){
+        return payloadOffset;
+    }
+
+    int getPayloadLength(){
+        return payloadLength;
+    }
+}
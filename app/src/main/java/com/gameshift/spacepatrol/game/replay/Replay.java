@@ -0,0 +1,143 @@
+package com.gameshift.spacepatrol.game.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+public class Replay {
+    private static final int HEADER_BYTES = 28;
+
+    private final byte[] data;
+    private final int length;
+    private final long seed;
+    private final int playerCount;
+    private final float density;
+    private final int keyframeInterval;
+    private long[] keyframeTicks = new long[16];
+    private int[] keyframeOffsets = new int[16];
+    private int keyframeCount = 0;
+    private long tickCount = 0;
+
+    private Replay(byte[] data, int length) throws IOException {
+        this.data = data;
+        this.length = length;
+        if(length < HEADER_BYTES || readInt(0) != ReplayWriter.MAGIC){
+            throw new IOException("Not a replay file");
+        }
+        int version = readInt(4);
+        if(version != ReplayWriter.FORMAT_VERSION){
+            throw new IOException("Unsupported replay version " + version);
+        }
+        seed = ((long)readInt(8) << 32) | (readInt(12) & 0xffffffffL);
+        playerCount = readInt(16);
+        density = Float.intBitsToFloat(readInt(20));
+        keyframeInterval = readInt(24);
+        indexChunks();
+    }
+
+    public static Replay read(File file) throws IOException {
+        InputStream in = new GZIPInputStream(new FileInputStream(file));
+        try{
+            return read(in);
+        }finally{
+            in.close();
+        }
+    }
+
+    public static Replay read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try{
+            int n;
+            while((n = in.read(buffer)) > 0){
+                bytes.write(buffer, 0, n);
+            }
+        }catch(EOFException e){
+            // A recording cut short by a crash still replays up to its last complete chunk.
+        }
+        byte[] data = bytes.toByteArray();
+        return new Replay(data, data.length);
+    }
+
+    private void indexChunks() throws IOException {
+        ChunkReader reader = new ChunkReader(this, firstChunkOffset());
+        while(reader.next()){
+            if(reader.getType() == ReplayWriter.CHUNK_KEYFRAME){
+                if(keyframeCount == keyframeTicks.length){
+                    keyframeTicks = Arrays.copyOf(keyframeTicks, keyframeCount * 2);
+                    keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+                }
+                keyframeTicks[keyframeCount] = reader.getTick();
+                keyframeOffsets[keyframeCount] = reader.getChunkOffset();
+                keyframeCount++;
+            }else if(reader.getType() == ReplayWriter.CHUNK_INPUTS){
+                tickCount = Math.max(tickCount, reader.getTick() + reader.getTickCount());
+            }
+        }
+        if(keyframeCount == 0){
+            throw new IOException("Replay has no keyframes");
+        }
+    }
+
+    int firstChunkOffset(){
+        return HEADER_BYTES;
+    }
+
+    int findKeyframe(long tick){
+        int index = Arrays.binarySearch(keyframeTicks, 0, keyframeCount, tick);
+        if(index < 0){
+            index = -index - 2;
+        }
+        return Math.max(index, 0);
+    }
+
+    long getKeyframeTick(int index){
+        return keyframeTicks[index];
+    }
+
+    int getKeyframeOffset(int index){
+        return keyframeOffsets[index];
+    }
+
+    byte[] getData(){
+        return data;
+    }
+
+    int getLength(){
+        return length;
+    }
+
+    private int readInt(int offset){
+        return ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16)
+                | ((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff);
+    }
+
+    public long getSeed(){
+        return seed;
+    }
+
+    public int getPlayerCount(){
+        return playerCount;
+    }
+
+    public float getDensity(){
+        return density;
+    }
+
+    public int getKeyframeInterval(){
+        return keyframeInterval;
+    }
+
+    public int getKeyframeCount(){
+        return keyframeCount;
+    }
+
+    public long getTickCount(){
+        return tickCount;
+    }
+}
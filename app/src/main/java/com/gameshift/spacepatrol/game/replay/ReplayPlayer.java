@@ -0,0 +1,119 @@
+package com.gameshift.spacepatrol.game.replay;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.net.InputCodec;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+public class ReplayPlayer {
+    private final Replay replay;
+    private final SpriteImage[] images;
+    private final ChunkReader reader;
+    private final InputCodec codec = new InputCodec();
+    private final PlayerInput[] run;
+    private final PlayerInput[] previous;
+    private GameWorld world = null;
+    private int keyframe = -1;
+    private long chunkRemaining = 0;
+    private int runRemaining = 0;
+
+    public ReplayPlayer(Replay replay, SpriteImage[] images){
+        this.replay = replay;
+        this.images = images;
+        this.reader = new ChunkReader(replay, replay.firstChunkOffset());
+        int playerCount = replay.getPlayerCount();
+        run = new PlayerInput[playerCount];
+        previous = new PlayerInput[playerCount];
+        for(int player = 0; player < playerCount; player++){
+            run[player] = new PlayerInput();
+            previous[player] = new PlayerInput();
+        }
+    }
+
+    public GameWorld getWorld(){
+        return world;
+    }
+
+    public long getTick(){
+        return world != null ? world.getFrame() : 0;
+    }
+
+    public Replay getReplay(){
+        return replay;
+    }
+
+    public void seek(long tick) throws IOException {
+        int target = replay.findKeyframe(tick);
+        if(world == null || target != keyframe || tick < world.getFrame()){
+            restore(target);
+        }
+        while(world.getFrame() < tick && step()){
+        }
+    }
+
+    private void restore(int index) throws IOException {
+        reader.seek(replay.getKeyframeOffset(index));
+        if(!reader.next() || reader.getType() != ReplayWriter.CHUNK_KEYFRAME){
+            throw new IOException("Missing keyframe " + index);
+        }
+        if(world != null){
+            world.destroy();
+        }
+        world = new GameWorld(images, replay.getPlayerCount(), replay.getSeed(), replay.getDensity());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(reader.getData(),
+                reader.getPayloadOffset(), reader.getPayloadLength()));
+        world.loadState(in);
+        keyframe = index;
+        chunkRemaining = 0;
+        runRemaining = 0;
+    }
+
+    public boolean step() throws IOException {
+        if(world == null){
+            restore(0);
+        }
+        while(chunkRemaining == 0){
+            if(!reader.next()){
+                return false;
+            }
+            int type = reader.getType();
+            if(type == ReplayWriter.CHUNK_INPUTS){
+                codec.wrap(reader.getData(), reader.getPayloadOffset(), reader.getPayloadLength());
+                chunkRemaining = reader.getTickCount();
+                runRemaining = 0;
+                for(PlayerInput input : previous){
+                    input.reset();
+                }
+            }else if(type == ReplayWriter.CHUNK_RESIZE){
+                world.setSize(reader.getWidth(), reader.getHeight());
+            }else if(type == ReplayWriter.CHUNK_KEYFRAME){
+                keyframe++;
+            }
+        }
+        if(runRemaining == 0){
+            runRemaining = codec.readVarInt();
+            for(int player = 0; player < run.length; player++){
+                codec.readInput(previous[player], run[player]);
+                previous[player].copyFrom(run[player]);
+            }
+        }
+        for(int player = 0; player < run.length; player++){
+            world.applyInput(player, run[player]);
+        }
+        world.update();
+        runRemaining--;
+        chunkRemaining--;
+        return true;
+    }
+
+    public void destroy(){
+        if(world != null){
+            world.destroy();
+            world = null;
+        }
+    }
+}
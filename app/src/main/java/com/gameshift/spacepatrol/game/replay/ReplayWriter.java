@@ -0,0 +1,200 @@
+package com.gameshift.spacepatrol.game.replay;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.net.InputCodec;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class ReplayWriter implements Closeable {
+    public static final int MAGIC = 0x53505250;
+    public static final int FORMAT_VERSION = 1;
+    static final int CHUNK_INPUTS = 1;
+    static final int CHUNK_KEYFRAME = 2;
+    static final int CHUNK_RESIZE = 3;
+    private static final int MAX_RUN_BYTES = 5;
+    private static final int MAX_SAMPLE_BYTES = 11;
+
+    private final DataOutputStream out;
+    private final int playerCount;
+    private final int keyframeInterval;
+    private final InputCodec codec = new InputCodec();
+    private final byte[] chunk;
+    private final PlayerInput[] pending;
+    private final PlayerInput[] run;
+    private final PlayerInput[] previous;
+    private final ByteArrayOutputStream stateBytes = new ByteArrayOutputStream();
+    private final DataOutputStream stateOut = new DataOutputStream(stateBytes);
+    private long chunkFirstTick = -1;
+    private int chunkTicks = 0;
+    private int runLength = 0;
+    private boolean tickOpen = false;
+    private int width = -1;
+    private int height = -1;
+    private long ticks = 0;
+    private long keyframes = 0;
+
+    public ReplayWriter(File file, GameWorld world, int keyframeInterval) throws IOException {
+        this(new GZIPOutputStream(new FileOutputStream(file)), world, keyframeInterval);
+    }
+
+    public ReplayWriter(OutputStream out, GameWorld world, int keyframeInterval) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.playerCount = world.getPlayerCount();
+        this.keyframeInterval = Math.max(keyframeInterval, 1);
+        chunk = new byte[this.keyframeInterval * (MAX_RUN_BYTES + MAX_SAMPLE_BYTES * playerCount) + 2 * MAX_RUN_BYTES];
+        pending = new PlayerInput[playerCount];
+        run = new PlayerInput[playerCount];
+        previous = new PlayerInput[playerCount];
+        for(int player = 0; player < playerCount; player++){
+            pending[player] = new PlayerInput();
+            run[player] = new PlayerInput();
+            previous[player] = new PlayerInput();
+        }
+        codec.wrap(chunk, 0, chunk.length);
+        this.out.writeInt(MAGIC);
+        this.out.writeInt(FORMAT_VERSION);
+        this.out.writeLong(world.getSeed());
+        this.out.writeInt(playerCount);
+        this.out.writeFloat(world.getDensity());
+        this.out.writeInt(this.keyframeInterval);
+    }
+
+    public void beginTick(GameWorld world) throws IOException {
+        endTick();
+        long tick = world.getFrame();
+        if(chunkFirstTick < 0 || tick % keyframeInterval == 0){
+            flushInputs();
+            writeKeyframe(world, tick);
+        }else if(world.getWidth() != width || world.getHeight() != height){
+            flushInputs();
+            writeResize(world, tick);
+        }
+        if(chunkFirstTick < 0){
+            chunkFirstTick = tick;
+        }
+        for(int player = 0; player < playerCount; player++){
+            pending[player].clearFlags();
+        }
+        tickOpen = true;
+    }
+
+    public void recordInput(int player, PlayerInput input){
+        pending[player].copyFrom(input);
+    }
+
+    private void endTick(){
+        if(!tickOpen){
+            return;
+        }
+        tickOpen = false;
+        if(runLength > 0 && sameAsRun()){
+            runLength++;
+        }else{
+            writeRun();
+            for(int player = 0; player < playerCount; player++){
+                run[player].copyFrom(pending[player]);
+            }
+            runLength = 1;
+        }
+        chunkTicks++;
+        ticks++;
+    }
+
+    private boolean sameAsRun(){
+        for(int player = 0; player < playerCount; player++){
+            PlayerInput a = pending[player];
+            PlayerInput b = run[player];
+            if(a.getFlags() != b.getFlags() || a.getX() != b.getX() || a.getY() != b.getY()){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeRun(){
+        if(runLength == 0){
+            return;
+        }
+        codec.writeVarInt(runLength);
+        for(int player = 0; player < playerCount; player++){
+            codec.writeInput(run[player], previous[player]);
+            previous[player].copyFrom(run[player]);
+        }
+        runLength = 0;
+    }
+
+    private void flushInputs() throws IOException {
+        endTick();
+        writeRun();
+        if(chunkTicks > 0){
+            int length = codec.getPosition();
+            out.writeByte(CHUNK_INPUTS);
+            writeVarLong(out, chunkFirstTick);
+            writeVarLong(out, chunkTicks);
+            writeVarLong(out, length);
+            out.write(chunk, 0, length);
+        }
+        codec.wrap(chunk, 0, chunk.length);
+        for(int player = 0; player < playerCount; player++){
+            previous[player].reset();
+        }
+        chunkFirstTick = -1;
+        chunkTicks = 0;
+    }
+
+    private void writeKeyframe(GameWorld world, long tick) throws IOException {
+        stateBytes.reset();
+        world.saveState(stateOut);
+        stateOut.flush();
+        out.writeByte(CHUNK_KEYFRAME);
+        writeVarLong(out, tick);
+        writeVarLong(out, stateBytes.size());
+        stateBytes.writeTo(out);
+        width = world.getWidth();
+        height = world.getHeight();
+        keyframes++;
+    }
+
+    private void writeResize(GameWorld world, long tick) throws IOException {
+        width = world.getWidth();
+        height = world.getHeight();
+        out.writeByte(CHUNK_RESIZE);
+        writeVarLong(out, tick);
+        writeVarLong(out, width);
+        writeVarLong(out, height);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while((value & ~0x7fL) != 0){
+            out.writeByte((int)(value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int)value);
+    }
+
+    public long getTicks(){
+        return ticks;
+    }
+
+    public long getKeyframes(){
+        return keyframes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try{
+            flushInputs();
+        }finally{
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.gameshift.spacepatrol.game.telemetry;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+
+public abstract class RotatingFileWriter implements Runnable {
+    private final String threadName;
+    private final File directory;
+    private final String filePrefix;
+    private final String fileSuffix;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private OutputStream out = null;
+    private long fileBytes = 0;
+    private int fileSequence = 0;
+    private volatile boolean running = false;
+    private Thread thread = null;
+    private volatile IOException failure = null;
+
+    protected RotatingFileWriter(String threadName, File directory, String filePrefix, String fileSuffix,
+                                 long maxFileBytes, int maxFiles){
+        this.threadName = threadName;
+        this.directory = directory;
+        this.filePrefix = filePrefix;
+        this.fileSuffix = fileSuffix;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    public IOException getFailure(){
+        return failure;
+    }
+
+    public void start(){
+        if(thread != null){
+            return;
+        }
+        running = true;
+        thread = new Thread(this, threadName);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public void close(){
+        running = false;
+        if(thread != null){
+            thread.interrupt();
+            try{
+                thread.join();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run(){
+        try{
+            while(running){
+                long sleepMillis = writeNext();
+                if(sleepMillis > 0){
+                    try{
+                        Thread.sleep(sleepMillis);
+                    }catch(InterruptedException e){
+                        break;
+                    }
+                }
+            }
+            writeRemaining();
+            closeFile();
+        }catch(IOException e){
+            failure = e;
+        }
+    }
+
+    protected abstract long writeNext() throws IOException;
+
+    protected abstract void writeRemaining() throws IOException;
+
+    protected OutputStream wrap(OutputStream file) throws IOException {
+        return new BufferedOutputStream(file, 8192);
+    }
+
+    protected void writeHeader() throws IOException {}
+
+    protected final void write(byte[] data, int offset, int length) throws IOException {
+        if(out == null){
+            openFile();
+        }
+        out.write(data, offset, length);
+        fileBytes += length;
+        if(fileBytes >= maxFileBytes){
+            closeFile();
+        }
+    }
+
+    protected final void flush() throws IOException {
+        if(out != null){
+            out.flush();
+        }
+    }
+
+    protected final void closeFile() throws IOException {
+        if(out != null){
+            out.close();
+            out = null;
+        }
+    }
+
+    private void openFile() throws IOException {
+        if(!directory.isDirectory() && !directory.mkdirs()){
+            throw new IOException("Cannot create " + directory);
+        }
+        deleteOldFiles(directory, filePrefix, fileSuffix, maxFiles - 1);
+        String name = String.format(Locale.US, "%s%d-%04d%s", filePrefix, System.currentTimeMillis(), fileSequence++, fileSuffix);
+        out = wrap(new FileOutputStream(new File(directory, name)));
+        fileBytes = 0;
+        writeHeader();
+    }
+
+    public static void deleteOldFiles(File directory, String filePrefix, String fileSuffix, int keep){
+        File[] files = directory.listFiles();
+        if(files == null){
+            return;
+        }
+        int count = 0;
+        for(File file : files){
+            String name = file.getName();
+            if(name.startsWith(filePrefix) && name.endsWith(fileSuffix)){
+                files[count++] = file;
+            }
+        }
+        if(count <= keep){
+            return;
+        }
+        File[] ownFiles = Arrays.copyOf(files, count);
+        Arrays.sort(ownFiles);
+        for(int i = 0; i < count - Math.max(keep, 0); i++){
+            ownFiles[i].delete();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.gameshift.spacepatrol.game.telemetry;
+
+public class TelemetryRing {
+    public static final int TYPE_SESSION_START = 1;
+    public static final int TYPE_SPAWN = 2;
+    public static final int TYPE_KILL = 3;
+    public static final int TYPE_PICKUP = 4;
+    public static final int TYPE_BOMB = 5;
+    public static final int TYPE_DEATH = 6;
+    public static final int TYPE_SCORE = 7;
+    public static final int TYPE_SESSION_END = 8;
+
+    public static final int KIND_NONE = 0;
+    public static final int KIND_PLAYER = 1;
+    public static final int KIND_SMALL = 2;
+    public static final int KIND_MIDDLE = 3;
+    public static final int KIND_BIG = 4;
+    public static final int KIND_BOMB_AWARD = 5;
+    public static final int KIND_BULLET_AWARD = 6;
+
+    public static final int LONGS_PER_EVENT = 4;
+
+    private final long[] data;
+    private final int mask;
+    private volatile long head = 0;
+    private volatile long tail = 0;
+    private volatile long dropped = 0;
+
+    public TelemetryRing(int capacity){
+        if(capacity < 2 || Integer.bitCount(capacity) != 1){
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        data = new long[capacity * LONGS_PER_EVENT];
+        mask = capacity - 1;
+    }
+
+    public int getCapacity(){
+        return mask + 1;
+    }
+
+    public long getDropped(){
+        return dropped;
+    }
+
+    public long getRecorded(){
+        return tail;
+    }
+
+    public boolean record(int type, long frame, int kind, int player, long value, float x, float y){
+        long t = tail;
+        if(t - head > mask){
+            dropped++;
+            return false;
+        }
+        int offset = (int)(t & mask) * LONGS_PER_EVENT;
+        data[offset] = frame;
+        data[offset + 1] = ((long)type << 56) | ((long)(kind & 0xff) << 48) | ((long)(player & 0xff) << 40);
+        data[offset + 2] = value;
+        data[offset + 3] = ((long)Float.floatToRawIntBits(x) << 32) | (Float.floatToRawIntBits(y) & 0xffffffffL);
+        tail = t + 1;
+        return true;
+    }
+
+    public int drain(long[] out, int maxEvents){
+        long h = head;
+        int count = (int)Math.min(tail - h, Math.min(maxEvents, out.length / LONGS_PER_EVENT));
+        for(int i = 0; i < count; i++){
+            int offset = (int)((h + i) & mask) * LONGS_PER_EVENT;
+            System.arraycopy(data, offset, out, i * LONGS_PER_EVENT, LONGS_PER_EVENT);
+        }
+        head = h + count;
+        return count;
+    }
+
+    public static int typeOf(long header){
+        return (int)(header >>> 56);
+    }
+
+    public static int kindOf(long header){
+        return (int)(header >>> 48) & 0xff;
+    }
+
+    public static int playerOf(long header){
+        return (int)(header >>> 40) & 0xff;
+    }
+}
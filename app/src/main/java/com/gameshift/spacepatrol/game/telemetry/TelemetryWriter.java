@@ -0,0 +1,79 @@
+package com.gameshift.spacepatrol.game.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class TelemetryWriter extends RotatingFileWriter {
+    public static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x5350544c;
+    private static final int BATCH_EVENTS = 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 250;
+    private static final String FILE_PREFIX = "telemetry-";
+    private static final String FILE_SUFFIX = ".bin.gz";
+
+    private final TelemetryRing ring;
+    private final long[] batch = new long[BATCH_EVENTS * TelemetryRing.LONGS_PER_EVENT];
+    private final byte[] bytes = new byte[BATCH_EVENTS * TelemetryRing.LONGS_PER_EVENT * 8];
+    private volatile long writtenEvents = 0;
+
+    public TelemetryWriter(TelemetryRing ring, File directory, long maxFileBytes, int maxFiles){
+        super("TelemetryWriter", directory, FILE_PREFIX, FILE_SUFFIX, maxFileBytes, maxFiles);
+        this.ring = ring;
+    }
+
+    public long getWrittenEvents(){
+        return writtenEvents;
+    }
+
+    @Override
+    protected long writeNext() throws IOException {
+        return drainOnce() > 0 ? 0 : FLUSH_INTERVAL_MILLIS;
+    }
+
+    @Override
+    protected void writeRemaining() throws IOException {
+        while(drainOnce() > 0){
+        }
+    }
+
+    @Override
+    protected OutputStream wrap(OutputStream file) throws IOException {
+        return new GZIPOutputStream(file, 8192);
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        byte[] header = new byte[12];
+        writeInt(header, 0, MAGIC);
+        writeInt(header, 4, FORMAT_VERSION);
+        writeInt(header, 8, TelemetryRing.LONGS_PER_EVENT * 8);
+        write(header, 0, header.length);
+    }
+
+    private int drainOnce() throws IOException {
+        int count = ring.drain(batch, BATCH_EVENTS);
+        if(count == 0){
+            return 0;
+        }
+        int length = 0;
+        int longs = count * TelemetryRing.LONGS_PER_EVENT;
+        for(int i = 0; i < longs; i++){
+            long value = batch[i];
+            for(int shift = 56; shift >= 0; shift -= 8){
+                bytes[length++] = (byte)(value >>> shift);
+            }
+        }
+        write(bytes, 0, length);
+        writtenEvents += count;
+        return count;
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value){
+        buffer[offset] = (byte)(value >>> 24);
+        buffer[offset + 1] = (byte)(value >>> 16);
+        buffer[offset + 2] = (byte)(value >>> 8);
+        buffer[offset + 3] = (byte)value;
+    }
+}
@@ -0,0 +1,152 @@
+package com.gameshift.spacepatrol.game.trace;
+
+import com.gameshift.spacepatrol.game.Sprite;
+import com.gameshift.spacepatrol.game.TickProbe;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class TraceRecorder implements TickProbe {
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_CLASSES = 64;
+    private static final int NO_CLASS = -1;
+
+    private final int capacity;
+    private final long[] starts;
+    private final long[] durations;
+    private final byte[] sections;
+    private final byte[] classSlots;
+    private final long[] openStarts = new long[MAX_DEPTH];
+    private final Map<Class<?>, Integer> classIndexes = new IdentityHashMap<Class<?>, Integer>();
+    private final Class<?>[] classes = new Class<?>[MAX_CLASSES];
+    private final long originNanos = System.nanoTime();
+    private final int threadId;
+    private int depth = 0;
+    private long recorded = 0;
+
+    public TraceRecorder(int capacity, int threadId){
+        this.capacity = capacity;
+        this.threadId = threadId;
+        starts = new long[capacity];
+        durations = new long[capacity];
+        sections = new byte[capacity];
+        classSlots = new byte[capacity];
+    }
+
+    public int getCapacity(){
+        return capacity;
+    }
+
+    public int getThreadId(){
+        return threadId;
+    }
+
+    public long getRecorded(){
+        return recorded;
+    }
+
+    public int getRetained(){
+        return (int)Math.min(recorded, capacity);
+    }
+
+    @Override
+    public void begin(int section, Sprite sprite){
+        if(depth < MAX_DEPTH){
+            openStarts[depth] = System.nanoTime();
+        }
+        depth++;
+    }
+
+    @Override
+    public void end(int section, Sprite sprite){
+        long now = System.nanoTime();
+        depth--;
+        if(depth >= MAX_DEPTH || depth < 0){
+            depth = Math.max(depth, 0);
+            return;
+        }
+        int slot = (int)(recorded % capacity);
+        starts[slot] = openStarts[depth];
+        durations[slot] = now - openStarts[depth];
+        sections[slot] = (byte)section;
+        classSlots[slot] = (byte)(sprite != null ? getClassIndex(sprite.getClass()) : NO_CLASS);
+        recorded++;
+    }
+
+    private int getClassIndex(Class<?> spriteClass){
+        Integer index = classIndexes.get(spriteClass);
+        if(index == null){
+            if(classIndexes.size() >= MAX_CLASSES){
+                return NO_CLASS;
+            }
+            index = classIndexes.size();
+            classes[index] = spriteClass;
+            classIndexes.put(spriteClass, index);
+        }
+        return index;
+    }
+
+    public void clear(){
+        recorded = 0;
+    }
+
+    public void writeChromeTrace(File file) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try{
+            writeChromeTrace(out);
+        }finally{
+            out.close();
+        }
+    }
+
+    public void writeChromeTrace(Writer out) throws IOException {
+        int retained = getRetained();
+        long first = recorded - retained;
+        StringBuilder line = new StringBuilder(160);
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+        out.write(String.format(Locale.US,
+                "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,\"args\":{\"name\":\"game %d\"}}",
+                threadId, threadId));
+        for(long i = first; i < recorded; i++){
+            int slot = (int)(i % capacity);
+            int section = sections[slot];
+            int classSlot = classSlots[slot];
+            line.setLength(0);
+            line.append(",\n{\"name\":\"");
+            if(classSlot != NO_CLASS){
+                line.append(classes[classSlot].getSimpleName()).append('.');
+            }
+            line.append(SECTION_NAMES[section]).append("\",\"cat\":\"").append(classSlot == NO_CLASS ? "phase" : "sprite");
+            line.append("\",\"ph\":\"X\",\"ts\":");
+            appendMicros(line, starts[slot] - originNanos);
+            line.append(",\"dur\":");
+            appendMicros(line, durations[slot]);
+            line.append(",\"pid\":1,\"tid\":").append(threadId).append('}');
+            out.append(line);
+        }
+        out.write("\n]}\n");
+    }
+
+    private static void appendMicros(StringBuilder line, long nanos){
+        if(nanos < 0){
+            line.append('-');
+            nanos = -nanos;
+        }
+        long fraction = nanos % 1000;
+        line.append(nanos / 1000).append('.');
+        if(fraction < 100){
+            line.append('0');
+        }
+        if(fraction < 10){
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+}
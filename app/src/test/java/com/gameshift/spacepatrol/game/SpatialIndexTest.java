@@ -0,0 +1,273 @@
+package com.gameshift.spacepatrol.game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpatialIndexTest {
+    private static final float WORLD_SIZE = 1000;
+    private static final float MARGIN = 8;
+    private static final int OPERATIONS = 20000;
+    private static final SpriteImage[] IMAGES = {
+            new SpriteImage(4, 4),
+            new SpriteImage(20, 44),
+            new SpriteImage(136, 100),
+            new SpriteImage(1, 300)
+    };
+
+    private final List<Sprite> sprites = new ArrayList<Sprite>();
+    private final List<Integer> proxies = new ArrayList<Integer>();
+    private final List<Sprite> result = new ArrayList<Sprite>();
+
+    @Test
+    public void randomOperationsMatchLinearScan(){
+        for(long seed = 1; seed <= 5; seed++){
+            run(new Random(seed));
+        }
+    }
+
+    private void run(Random random){
+        SpatialIndex<Sprite> index = new SpatialIndex<Sprite>(MARGIN);
+        sprites.clear();
+        proxies.clear();
+        for(int op = 0; op < OPERATIONS; op++){
+            int choice = random.nextInt(100);
+            if(choice < 30 || sprites.isEmpty()){
+                Sprite sprite = new Sprite(IMAGES[random.nextInt(IMAGES.length)]);
+                sprite.moveTo(coordinate(random), coordinate(random));
+                sprites.add(sprite);
+                proxies.add(index.insert(sprite));
+            }else if(choice < 55){
+                int i = random.nextInt(sprites.size());
+                Sprite sprite = sprites.get(i);
+                if(random.nextBoolean()){
+                    sprite.move(random.nextFloat() * 6 - 3, random.nextFloat() * 6 - 3);
+                }else{
+                    sprite.moveTo(coordinate(random), coordinate(random));
+                }
+                index.update(proxies.get(i));
+            }else if(choice < 70){
+                int i = random.nextInt(sprites.size());
+                index.remove(proxies.get(i));
+                removeAt(i);
+            }else if(choice < 73){
+                sprites.get(random.nextInt(sprites.size())).destroy();
+            }else if(choice < 82){
+                checkQueryBox(index, random);
+            }else if(choice < 88){
+                checkQueryRadius(index, random);
+            }else if(choice < 94){
+                checkNearest(index, random);
+            }else{
+                checkRaycast(index, random);
+            }
+            assertEquals(sprites.size(), index.size());
+        }
+        for(int i = sprites.size() - 1; i >= 0; i--){
+            index.remove(proxies.get(i));
+            removeAt(i);
+        }
+        assertEquals(0, index.size());
+        assertNull(index.nearest(0, 0, Float.MAX_VALUE));
+    }
+
+    private void removeAt(int i){
+        int last = sprites.size() - 1;
+        sprites.set(i, sprites.get(last));
+        proxies.set(i, proxies.get(last));
+        sprites.remove(last);
+        proxies.remove(last);
+    }
+
+    private void checkQueryBox(SpatialIndex<Sprite> index, Random random){
+        float left = coordinate(random);
+        float top = coordinate(random);
+        float right = left + random.nextFloat() * 400;
+        float bottom = top + random.nextFloat() * 400;
+        result.clear();
+        int found = index.queryBox(left, top, right, bottom, result);
+        List<Sprite> expected = new ArrayList<Sprite>();
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && s.getX() < right && s.getX() + s.getWidth() > left
+                    && s.getY() < bottom && s.getY() + s.getHeight() > top){
+                expected.add(s);
+            }
+        }
+        assertEquals(result.size(), found);
+        assertSameSprites(expected, result);
+    }
+
+    private void checkQueryRadius(SpatialIndex<Sprite> index, Random random){
+        float x = coordinate(random);
+        float y = coordinate(random);
+        float radius = random.nextFloat() * 300;
+        result.clear();
+        int found = index.queryRadius(x, y, radius, result);
+        List<Sprite> expected = new ArrayList<Sprite>();
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && distanceSquared(s, x, y) <= radius * radius){
+                expected.add(s);
+            }
+        }
+        assertEquals(result.size(), found);
+        assertSameSprites(expected, result);
+    }
+
+    private void checkNearest(SpatialIndex<Sprite> index, Random random){
+        final float x = coordinate(random);
+        final float y = coordinate(random);
+        float maxDistance = random.nextBoolean() ? Float.MAX_VALUE : random.nextFloat() * 300;
+        int k = 1 + random.nextInt(6);
+        List<Sprite> expected = new ArrayList<Sprite>();
+        for(Sprite s : sprites){
+            if(!s.isDestroyed() && distanceSquared(s, x, y) <= maxDistance * maxDistance){
+                expected.add(s);
+            }
+        }
+        Collections.sort(expected, new Comparator<Sprite>() {
+            @Override
+            public int compare(Sprite a, Sprite b){
+                return Float.compare(distanceSquared(a, x, y), distanceSquared(b, x, y));
+            }
+        });
+
+        Sprite nearest = index.nearest(x, y, maxDistance);
+        if(expected.isEmpty()){
+            assertNull(nearest);
+        }else{
+            assertEquals(distanceSquared(expected.get(0), x, y), distanceSquared(nearest, x, y), 0);
+        }
+
+        result.clear();
+        int found = index.nearest(x, y, k, maxDistance, result);
+        assertEquals(Math.min(k, expected.size()), found);
+        assertEquals(found, result.size());
+        for(int i = 0; i < found; i++){
+            assertEquals("rank " + i, distanceSquared(expected.get(i), x, y), distanceSquared(result.get(i), x, y), 0);
+        }
+        assertEquals(found, new HashSet<Sprite>(result).size());
+    }
+
+    @Test
+    public void axisAlignedRayAlongBoxEdgeHits(){
+        SpatialIndex<Sprite> index = new SpatialIndex<Sprite>(0);
+        Sprite low = new Sprite(IMAGES[1]);
+        low.moveTo(100, 500);
+        Sprite high = new Sprite(IMAGES[1]);
+        high.moveTo(100, 200);
+        Sprite side = new Sprite(IMAGES[0]);
+        side.moveTo(300, 300);
+        index.insert(low);
+        index.insert(high);
+        index.insert(side);
+        assertTrue(index.raycast(100, 900, 0, -1, Float.MAX_VALUE) == low);
+        assertTrue(index.raycast(120, 900, 0, -1, Float.MAX_VALUE) == low);
+        assertTrue(index.raycast(100, 400, 0, -1, Float.MAX_VALUE) == high);
+        assertTrue(index.raycast(0, 200, 1, 0, Float.MAX_VALUE) == high);
+        assertTrue(index.raycast(0, 304, 1, 0, Float.MAX_VALUE) == side);
+        assertNull(index.raycast(99, 900, 0, -1, Float.MAX_VALUE));
+        assertNull(index.raycast(100, 900, 0, -1, 300));
+    }
+
+    private void checkRaycast(SpatialIndex<Sprite> index, Random random){
+        float x = coordinate(random);
+        float y = coordinate(random);
+        float directionX;
+        float directionY;
+        int kind = random.nextInt(4);
+        if(kind == 0){
+            double angle = random.nextDouble() * 2 * Math.PI;
+            directionX = (float)Math.cos(angle);
+            directionY = (float)Math.sin(angle);
+        }else{
+            boolean vertical = random.nextBoolean();
+            float sign = random.nextBoolean() ? 1 : -1;
+            directionX = vertical ? 0 : sign;
+            directionY = vertical ? sign : 0;
+            if(kind == 2){
+                Sprite s = sprites.get(random.nextInt(sprites.size()));
+                if(vertical){
+                    x = random.nextBoolean() ? s.getX() : s.getX() + s.getWidth();
+                }else{
+                    y = random.nextBoolean() ? s.getY() : s.getY() + s.getHeight();
+                }
+            }else if(kind == 3){
+                Sprite s = sprites.get(random.nextInt(sprites.size()));
+                float offset = random.nextBoolean() ? -MARGIN : MARGIN;
+                if(vertical){
+                    x = (random.nextBoolean() ? s.getX() : s.getX() + s.getWidth()) + offset;
+                }else{
+                    y = (random.nextBoolean() ? s.getY() : s.getY() + s.getHeight()) + offset;
+                }
+            }
+        }
+        float maxDistance = random.nextBoolean() ? Float.MAX_VALUE : random.nextFloat() * 600;
+        double expected = Double.MAX_VALUE;
+        for(Sprite s : sprites){
+            if(!s.isDestroyed()){
+                expected = Math.min(expected, rayDistance(s, x, y, directionX, directionY));
+            }
+        }
+        Sprite hit = index.raycast(x, y, directionX, directionY, maxDistance);
+        String ray = "ray (" + x + ", " + y + ") dir (" + directionX + ", " + directionY + ") max " + maxDistance;
+        if(expected > maxDistance){
+            assertNull(ray, hit);
+        }else{
+            assertTrue(ray + " expected hit at " + expected, hit != null);
+            assertEquals(ray, expected, rayDistance(hit, x, y, directionX, directionY), 1e-3);
+        }
+    }
+
+    private static double rayDistance(Sprite s, double x, double y, double directionX, double directionY){
+        double near = 0;
+        double far = Double.MAX_VALUE;
+        double[] origin = {x, y};
+        double[] direction = {directionX, directionY};
+        double[] low = {s.getX(), s.getY()};
+        double[] high = {s.getX() + s.getWidth(), s.getY() + s.getHeight()};
+        for(int axis = 0; axis < 2; axis++){
+            if(direction[axis] == 0){
+                if(origin[axis] < low[axis] || origin[axis] > high[axis]){
+                    return Double.MAX_VALUE;
+                }
+            }else{
+                double t1 = (low[axis] - origin[axis]) / direction[axis];
+                double t2 = (high[axis] - origin[axis]) / direction[axis];
+                near = Math.max(near, Math.min(t1, t2));
+                far = Math.min(far, Math.max(t1, t2));
+            }
+        }
+        return near <= far ? near : Double.MAX_VALUE;
+    }
+
+    private static void assertSameSprites(List<Sprite> expected, List<Sprite> actual){
+        assertEquals(expected.size(), actual.size());
+        HashSet<Sprite> actualSet = new HashSet<Sprite>(actual);
+        assertEquals("duplicate results " + Arrays.toString(actual.toArray()), actual.size(), actualSet.size());
+        assertTrue(actualSet.containsAll(expected));
+    }
+
+    private static float coordinate(Random random){
+        return random.nextFloat() * (WORLD_SIZE + 200) - 100;
+    }
+
+    private static float distanceSquared(Sprite s, float x, float y){
+        float left = s.getX();
+        float top = s.getY();
+        float right = left + s.getWidth();
+        float bottom = top + s.getHeight();
+        float dx = x < left ? left - x : (x > right ? x - right : 0);
+        float dy = y < top ? top - y : (y > bottom ? y - bottom : 0);
+        return dx * dx + dy * dy;
+    }
+}
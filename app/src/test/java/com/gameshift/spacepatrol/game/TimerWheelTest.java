@@ -0,0 +1,141 @@
+package com.gameshift.spacepatrol.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimerWheelTest {
+    private static final long[] CASCADE_DELAYS = {
+            1, 2, 255, 256, 257, 16383, 16384, 16385, (1L << 20) - 1, 1L << 20, (1L << 20) + 1,
+            TimerWheel.MAX_DELAY - 1, TimerWheel.MAX_DELAY, TimerWheel.MAX_DELAY + 1, TimerWheel.MAX_DELAY + 300
+    };
+
+    private final TimerWheel wheel = new TimerWheel();
+    private long[] fired = new long[0];
+
+    private final TimerTarget recorder = new TimerTarget() {
+        @Override
+        public void onTimer(GameWorld world, int action) {
+            assertEquals("action " + action + " fired twice", 0, fired[action]);
+            fired[action] = wheel.getNow();
+        }
+    };
+
+    @Test
+    public void firesOnExactTickAcrossCascades(){
+        checkCascades(0);
+        checkCascades(1234567);
+    }
+
+    private void checkCascades(long start){
+        wheel.reset(start);
+        long dispatched = wheel.getDispatched();
+        fired = new long[CASCADE_DELAYS.length];
+        for(int i = 0; i < CASCADE_DELAYS.length; i++){
+            wheel.schedule(start + CASCADE_DELAYS[i], recorder, i);
+        }
+        long end = start + CASCADE_DELAYS[CASCADE_DELAYS.length - 1];
+        while(wheel.getNow() < end){
+            wheel.advance(null);
+        }
+        for(int i = 0; i < CASCADE_DELAYS.length; i++){
+            assertEquals("delay " + CASCADE_DELAYS[i] + " from " + start, start + CASCADE_DELAYS[i], fired[i]);
+        }
+        assertEquals(0, wheel.size());
+        assertEquals(CASCADE_DELAYS.length, wheel.getDispatched() - dispatched);
+    }
+
+    @Test
+    public void randomTimersMatchReference(){
+        Random random = new Random(11);
+        int count = 20000;
+        long[] due = new long[count];
+        int[] handles = new int[count];
+        boolean[] cancelled = new boolean[count];
+        fired = new long[count];
+        int scheduled = 0;
+        long last = 0;
+        while(scheduled < count || wheel.getNow() < last){
+            if(scheduled < count && random.nextInt(4) == 0){
+                int batch = Math.min(1 + random.nextInt(8), count - scheduled);
+                for(int i = 0; i < batch; i++){
+                    int bound = random.nextBoolean() ? 300 : (random.nextBoolean() ? 20000 : 2900000);
+                    due[scheduled] = wheel.getNow() + 1 + random.nextInt(bound);
+                    handles[scheduled] = wheel.schedule(due[scheduled], recorder, scheduled);
+                    last = Math.max(last, due[scheduled]);
+                    scheduled++;
+                }
+            }
+            if(scheduled > 0 && random.nextInt(16) == 0){
+                int victim = random.nextInt(scheduled);
+                boolean pending = !cancelled[victim] && fired[victim] == 0;
+                assertEquals("cancel " + victim, pending, wheel.cancel(handles[victim]));
+                cancelled[victim] = true;
+            }
+            wheel.advance(null);
+        }
+        for(int i = 0; i < count; i++){
+            if(fired[i] != 0){
+                assertEquals("timer " + i, due[i], fired[i]);
+            }else{
+                assertTrue("timer " + i + " due at " + due[i] + " never fired", cancelled[i]);
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cancelIgnoresReusedSlot(){
+        fired = new long[4];
+        int first = wheel.schedule(10, recorder, 0);
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        int second = wheel.schedule(20, recorder, 1);
+        assertEquals(first & 0xfffff, second & 0xfffff);
+        assertFalse(wheel.cancel(first));
+        while(wheel.getNow() < 20){
+            wheel.advance(null);
+        }
+        assertEquals(20, fired[1]);
+        assertFalse(wheel.cancel(second));
+        int third = wheel.schedule(30, recorder, 2);
+        assertFalse(wheel.cancel(second));
+        assertFalse(wheel.cancel(TimerWheel.NO_TIMER));
+        assertTrue(wheel.cancel(third));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void resetDropsPendingTimers(){
+        fired = new long[8];
+        int[] handles = new int[4];
+        for(int i = 0; i < handles.length; i++){
+            handles[i] = wheel.schedule(100 + i * 1000, recorder, i);
+        }
+        wheel.advance(null);
+        wheel.reset(500);
+        assertEquals(0, wheel.size());
+        assertEquals(500, wheel.getNow());
+        for(int handle : handles){
+            assertFalse(wheel.cancel(handle));
+        }
+        int handle = wheel.schedule(520, recorder, 4);
+        wheel.schedule(499, recorder, 5);
+        for(int handleAfter : handles){
+            assertFalse(wheel.cancel(handleAfter));
+        }
+        while(wheel.getNow() < 5000){
+            wheel.advance(null);
+        }
+        for(int i = 0; i < handles.length; i++){
+            assertEquals("timer " + i + " survived reset", 0, fired[i]);
+        }
+        assertEquals(520, fired[4]);
+        assertEquals(501, fired[5]);
+        assertFalse(wheel.cancel(handle));
+    }
+}
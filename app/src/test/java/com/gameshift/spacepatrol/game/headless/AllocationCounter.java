@@ -0,0 +1,71 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+public class AllocationCounter {
+    public static final String UNSUPPORTED = "SKIPPED: thread allocation counters are not available on this VM";
+    private static final int CALIBRATION_ROUNDS = 20000;
+
+    private final Object threadBean;
+    private final Method allocatedBytesMethod;
+    private final Object[] args;
+    private long overhead = 0;
+    private long[] lastResult = null;
+
+    private AllocationCounter(Object threadBean, Method allocatedBytesMethod, Object[] args){
+        this.threadBean = threadBean;
+        this.allocatedBytesMethod = allocatedBytesMethod;
+        this.args = args;
+    }
+
+    public static AllocationCounter create(){
+        try{
+            Class<?> factoryClass = Class.forName("java.lang.management.ManagementFactory");
+            Object threadBean = factoryClass.getMethod("getThreadMXBean").invoke(null);
+            Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+            beanClass.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threadBean, true);
+            Method method = beanClass.getMethod("getThreadAllocatedBytes", long[].class);
+            long[] threadIds = {Thread.currentThread().getId()};
+            AllocationCounter counter = new AllocationCounter(threadBean, method, new Object[]{threadIds});
+            counter.calibrate();
+            return counter;
+        }catch(ClassNotFoundException e){
+            return null;
+        }catch(NoSuchMethodException e){
+            return null;
+        }catch(UnsupportedOperationException e){
+            return null;
+        }catch(InvocationTargetException e){
+            if(e.getCause() instanceof UnsupportedOperationException){
+                return null;
+            }
+            throw new IllegalStateException(e.getCause());
+        }catch(IllegalAccessException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long read(){
+        try{
+            lastResult = (long[])allocatedBytesMethod.invoke(threadBean, args);
+            return lastResult[0];
+        }catch(Exception e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long getOverhead(){
+        return overhead;
+    }
+
+    private void calibrate(){
+        long min = Long.MAX_VALUE;
+        for(int i = 0; i < CALIBRATION_ROUNDS; i++){
+            long first = read();
+            long second = read();
+            min = Math.min(min, second - first);
+        }
+        overhead = min;
+    }
+}
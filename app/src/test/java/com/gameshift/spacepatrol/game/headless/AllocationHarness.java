@@ -0,0 +1,120 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Locale;
+
+public class AllocationHarness {
+    public static final long DEFAULT_THRESHOLD = 640;
+    public static final String ALLOW_UNSUPPORTED_PROPERTY = "allocationCheck.allowUnsupported";
+
+    private final SpriteImage[] images;
+    private final int width;
+    private final int height;
+    private final float density;
+    private final AllocationCounter counter;
+    private HeadlessSession session;
+    private long seed = 1;
+    private AllocationProbe probe = null;
+
+    public AllocationHarness(SpriteImage[] images, int width, int height, float density, AllocationCounter counter){
+        this.images = images;
+        this.width = width;
+        this.height = height;
+        this.density = density;
+        this.counter = counter;
+        this.session = createSession();
+    }
+
+    private HeadlessSession createSession(){
+        PlayerController[] controllers = {new AutopilotController()};
+        HeadlessSession session = new HeadlessSession(images, width, height, density, seed++, controllers);
+        session.getWorld().setProbe(probe);
+        return session;
+    }
+
+    private void ensureRunning(){
+        if(session.getWorld().isGameOver()){
+            session.destroy();
+            session = createSession();
+        }
+    }
+
+    public void warmUp(int ticks){
+        for(int i = 0; i < ticks; i++){
+            ensureRunning();
+            session.tick();
+        }
+    }
+
+    public long[] measure(int ticks){
+        long total = 0;
+        long max = 0;
+        for(int i = 0; i < ticks; i++){
+            ensureRunning();
+            session.applyInputs();
+            GameWorld world = session.getWorld();
+            long before = counter.read();
+            world.update();
+            long bytes = Math.max(0, counter.read() - before - counter.getOverhead());
+            total += bytes;
+            max = Math.max(max, bytes);
+        }
+        return new long[]{total, max};
+    }
+
+    public AllocationProbe attachProbe(){
+        probe = new AllocationProbe(counter);
+        session.getWorld().setProbe(probe);
+        return probe;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 1){
+            System.err.println("usage: AllocationHarness <drawableDir> [maxBytesPerTick] [warmupTicks] [measureTicks] [density]");
+            System.exit(2);
+        }
+        File drawableDir = new File(args[0]);
+        long threshold = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_THRESHOLD;
+        int warmupTicks = args.length > 2 ? Integer.parseInt(args[2]) : 6000;
+        int measureTicks = args.length > 3 ? Integer.parseInt(args[3]) : 6000;
+        float density = args.length > 4 ? Float.parseFloat(args[4]) : 2;
+        PrintStream out = System.out;
+        AllocationCounter counter = AllocationCounter.create();
+        if(counter == null){
+            if(Boolean.getBoolean(ALLOW_UNSUPPORTED_PROPERTY)){
+                out.println(AllocationCounter.UNSUPPORTED);
+                return;
+            }
+            out.println("FAILED: thread allocation counters are not available on this VM"
+                    + " (set -D" + ALLOW_UNSUPPORTED_PROPERTY + "=true to skip)");
+            System.exit(1);
+        }
+        SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+        AllocationHarness harness = new AllocationHarness(images, Math.round(360 * density), Math.round(640 * density), density, counter);
+
+        harness.warmUp(warmupTicks);
+        long[] result = harness.measure(measureTicks);
+        double average = (double)result[0] / measureTicks;
+        out.println(String.format(Locale.US, "steady state: %.1f B/tick average, %d B/tick max over %d ticks (threshold %d B/tick)",
+                average, result[1], measureTicks, threshold));
+
+        AllocationProbe probe = harness.attachProbe();
+        harness.warmUp(warmupTicks / 10);
+        probe.reset();
+        harness.measure(measureTicks);
+        out.println("per call site:");
+        for(String line : probe.getBreakdown(measureTicks)){
+            out.println(line);
+        }
+        if(average > threshold){
+            out.println("FAILED: steady-state allocation exceeds " + threshold + " B/tick");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.Sprite;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.TickProbe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class AllocationProbe implements TickProbe {
+    private static final int MAX_DEPTH = 16;
+    private static final int MAX_CLASSES = 64;
+    private static final int CALIBRATION_ROUNDS = 20000;
+
+    private final AllocationCounter counter;
+    private final long[] startBytes = new long[MAX_DEPTH];
+    private final long[] childBytes = new long[MAX_DEPTH];
+    private final Map<Class<?>, Integer> classIndexes = new IdentityHashMap<Class<?>, Integer>();
+    private final Class<?>[] classes = new Class<?>[MAX_CLASSES];
+    private final long[][] bytes = new long[SECTION_COUNT][MAX_CLASSES + 1];
+    private final long[][] calls = new long[SECTION_COUNT][MAX_CLASSES + 1];
+    private int depth = 0;
+    private long spanOverhead = 0;
+    private long nestedOverhead = 0;
+    private long lastRawBytes = 0;
+
+    public AllocationProbe(AllocationCounter counter){
+        this.counter = counter;
+        calibrate();
+    }
+
+    private void calibrate(){
+        Sprite calibrationSprite = new Sprite((SpriteImage)null);
+        long span = Long.MAX_VALUE;
+        for(int i = 0; i < CALIBRATION_ROUNDS; i++){
+            begin(SECTION_BEFORE_UPDATE, calibrationSprite);
+            end(SECTION_BEFORE_UPDATE, calibrationSprite);
+            span = Math.min(span, lastRawBytes);
+        }
+        spanOverhead = span;
+        long nested = Long.MAX_VALUE;
+        for(int i = 0; i < CALIBRATION_ROUNDS; i++){
+            begin(SECTION_TICK, null);
+            begin(SECTION_BEFORE_UPDATE, calibrationSprite);
+            end(SECTION_BEFORE_UPDATE, calibrationSprite);
+            end(SECTION_TICK, null);
+            nested = Math.min(nested, lastRawBytes - spanOverhead);
+        }
+        nestedOverhead = nested;
+        reset();
+    }
+
+    @Override
+    public void begin(int section, Sprite sprite){
+        childBytes[depth] = 0;
+        startBytes[depth] = counter.read();
+        depth++;
+    }
+
+    @Override
+    public void end(int section, Sprite sprite){
+        long now = counter.read();
+        depth--;
+        lastRawBytes = now - startBytes[depth];
+        long inclusive = Math.max(0, lastRawBytes - spanOverhead);
+        long exclusive = Math.max(0, inclusive - childBytes[depth]);
+        if(depth > 0){
+            childBytes[depth - 1] += inclusive + nestedOverhead;
+        }
+        int slot = sprite != null ? getClassIndex(sprite.getClass()) : MAX_CLASSES;
+        bytes[section][slot] += exclusive;
+        calls[section][slot]++;
+    }
+
+    private int getClassIndex(Class<?> spriteClass){
+        Integer index = classIndexes.get(spriteClass);
+        if(index == null){
+            index = classIndexes.size();
+            if(index >= MAX_CLASSES){
+                return MAX_CLASSES - 1;
+            }
+            classes[index] = spriteClass;
+            classIndexes.put(spriteClass, index);
+        }
+        return index;
+    }
+
+    public void reset(){
+        for(int section = 0; section < SECTION_COUNT; section++){
+            for(int slot = 0; slot <= MAX_CLASSES; slot++){
+                bytes[section][slot] = 0;
+                calls[section][slot] = 0;
+            }
+        }
+    }
+
+    public List<String> getBreakdown(long ticks){
+        List<long[]> rows = new ArrayList<long[]>();
+        for(int section = 0; section < SECTION_COUNT; section++){
+            for(int slot = 0; slot <= MAX_CLASSES; slot++){
+                if(bytes[section][slot] > 0){
+                    rows.add(new long[]{section, slot, bytes[section][slot], calls[section][slot]});
+                }
+            }
+        }
+        Collections.sort(rows, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] a, long[] b) {
+                return a[2] < b[2] ? 1 : (a[2] > b[2] ? -1 : 0);
+            }
+        });
+        List<String> lines = new ArrayList<String>();
+        for(long[] row : rows){
+            int section = (int)row[0];
+            int slot = (int)row[1];
+            String site = slot == MAX_CLASSES ? SECTION_NAMES[section]
+                    : classes[slot].getSimpleName() + "." + SECTION_NAMES[section];
+            lines.add(String.format(Locale.US, "%10.1f B/tick %10.1f B/call  %s",
+                    (double)row[2] / Math.max(ticks, 1), (double)row[2] / Math.max(row[3], 1), site));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,88 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.ProjectileStore;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.render.RecordingRenderBackend;
+import com.gameshift.spacepatrol.game.render.SpriteBatcher;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Locale;
+
+public class BulletHellBenchmark {
+    private static final int BUCKET_SIZE = 1000;
+    private static final long FRAME_BUDGET_NANOS = 1000000000L / 60;
+
+    private final int bucketCount = ProjectileStore.MAX_PROJECTILES / BUCKET_SIZE + 1;
+    private final long[] bucketTicks = new long[bucketCount];
+    private final long[] bucketUpdateNanos = new long[bucketCount];
+    private final long[] bucketSubmitNanos = new long[bucketCount];
+    private final long[] bucketMaxNanos = new long[bucketCount];
+    private final SpriteBatcher batcher = new SpriteBatcher();
+    private final RecordingRenderBackend backend = new RecordingRenderBackend();
+    private long overBudget = 0;
+    private int peakProjectiles = 0;
+
+    public void run(SpriteImage[] images, int width, int height, float density, int intensity, int ticks){
+        PlayerController[] controllers = {new AutopilotController()};
+        HeadlessSession session = new HeadlessSession(images, width, height, density, 1, controllers);
+        GameWorld world = session.getWorld();
+        world.setBulletHellIntensity(intensity);
+        world.getAircraft(0).setInvulnerable(true);
+        for(int i = 0; i < ticks; i++){
+            long start = System.nanoTime();
+            session.tick();
+            long updated = System.nanoTime();
+            batcher.begin();
+            world.getProjectiles().submit(batcher);
+            batcher.flush(backend);
+            long submitted = System.nanoTime();
+            int live = world.getProjectiles().size();
+            int bucket = live / BUCKET_SIZE;
+            long total = submitted - start;
+            bucketTicks[bucket]++;
+            bucketUpdateNanos[bucket] += updated - start;
+            bucketSubmitNanos[bucket] += submitted - updated;
+            bucketMaxNanos[bucket] = Math.max(bucketMaxNanos[bucket], total);
+            if(total > FRAME_BUDGET_NANOS){
+                overBudget++;
+            }
+            peakProjectiles = Math.max(peakProjectiles, live);
+        }
+        session.destroy();
+    }
+
+    public void report(PrintStream out){
+        out.println("projectiles  ticks  updateAvg  submitAvg  frameMax");
+        for(int bucket = 0; bucket < bucketCount; bucket++){
+            long ticks = bucketTicks[bucket];
+            if(ticks == 0){
+                continue;
+            }
+            out.println(String.format(Locale.US, "%5d-%-5d %6d %8.1fus %8.1fus %8.1fus",
+                    bucket * BUCKET_SIZE, (bucket + 1) * BUCKET_SIZE - 1, ticks,
+                    bucketUpdateNanos[bucket] / 1000.0 / ticks, bucketSubmitNanos[bucket] / 1000.0 / ticks,
+                    bucketMaxNanos[bucket] / 1000.0));
+        }
+        out.println(String.format(Locale.US, "peakProjectiles=%d overBudget=%d (budget %.2fms)",
+                peakProjectiles, overBudget, FRAME_BUDGET_NANOS / 1000000.0));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 1){
+            System.err.println("usage: BulletHellBenchmark <drawableDir> [intensity] [ticks] [density]");
+            System.exit(1);
+        }
+        File drawableDir = new File(args[0]);
+        int intensity = args.length > 1 ? Integer.parseInt(args[1]) : 96;
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+        float density = args.length > 3 ? Float.parseFloat(args[3]) : 2;
+        SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+        BulletHellBenchmark benchmark = new BulletHellBenchmark();
+        benchmark.run(images, Math.round(360 * density), Math.round(640 * density), density, intensity, ticks);
+        benchmark.report(System.out);
+    }
+}
@@ -0,0 +1,55 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+public class HeadlessAssets {
+    private static final String[] DRAWABLE_NAMES = {
+            "plane",
+            "explosion",
+            "yellow_bullet",
+            "blue_bullet",
+            "small",
+            "middle",
+            "big",
+            "bomb_award",
+            "bullet_award"
+    };
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+    private static final int IHDR = 0x49484452;
+
+    private HeadlessAssets(){}
+
+    public static SpriteImage[] load(File drawableDir, float density) throws IOException {
+        SpriteImage[] images = new SpriteImage[GameWorld.IMAGE_COUNT];
+        for(int i = 0; i < images.length; i++){
+            File file = new File(drawableDir, DRAWABLE_NAMES[i] + ".png");
+            int[] size = readPngSize(file);
+            int width = (int)(size[0] * density + 0.5f);
+            int height = (int)(size[1] * density + 0.5f);
+            images[i] = new SpriteImage(width, height);
+        }
+        return images;
+    }
+
+    private static int[] readPngSize(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try{
+            if(in.readLong() != PNG_SIGNATURE){
+                throw new IOException("Not a PNG file: " + file);
+            }
+            in.readInt();
+            if(in.readInt() != IHDR){
+                throw new IOException("Missing IHDR chunk: " + file);
+            }
+            return new int[]{in.readInt(), in.readInt()};
+        }finally{
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import java.util.Locale;
+
+public class HeadlessReport {
+
+    private final int sessions;
+    private final long ticks;
+    private final long elapsedNanos;
+    private final long totalScore;
+    private final long bytesPerSession;
+
+    public HeadlessReport(int sessions, long ticks, long elapsedNanos, long totalScore, long bytesPerSession){
+        this.sessions = sessions;
+        this.ticks = ticks;
+        this.elapsedNanos = elapsedNanos;
+        this.totalScore = totalScore;
+        this.bytesPerSession = bytesPerSession;
+    }
+
+    public int getSessions(){
+        return sessions;
+    }
+
+    public long getTicks(){
+        return ticks;
+    }
+
+    public double getSessionsPerSecond(){
+        return sessions * 1e9 / Math.max(elapsedNanos, 1);
+    }
+
+    public double getTicksPerSecond(){
+        return ticks * 1e9 / Math.max(elapsedNanos, 1);
+    }
+
+    public long getBytesPerSession(){
+        return bytesPerSession;
+    }
+
+    public double getAverageScore(){
+        return sessions > 0 ? (double)totalScore / sessions : 0;
+    }
+
+    @Override
+    public String toString(){
+        return String.format(Locale.US,
+                "sessions=%d ticks=%d time=%.2fs sessions/s=%.1f ticks/s=%.0f memory/session=%.1fKB avgScore=%.0f",
+                sessions, ticks, elapsedNanos / 1e9, getSessionsPerSecond(), getTicksPerSecond(),
+                bytesPerSession / 1024.0, getAverageScore());
+    }
+}
@@ -0,0 +1,113 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.autopilot.WanderController;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HeadlessServer {
+    private static final int MEMORY_SAMPLE_SESSIONS = 64;
+    private static final int MEMORY_SAMPLE_TICKS = 600;
+
+    private final SpriteImage[] images;
+    private final int width;
+    private final int height;
+    private final float density;
+    private final ExecutorService executor;
+
+    public HeadlessServer(SpriteImage[] images, int width, int height, float density, int threads){
+        this.images = images;
+        this.width = width;
+        this.height = height;
+        this.density = density;
+        this.executor = Executors.newFixedThreadPool(threads);
+    }
+
+    protected HeadlessSession createSession(long seed){
+        PlayerController[] controllers = {new WanderController(seed)};
+        return new HeadlessSession(images, width, height, density, seed, controllers);
+    }
+
+    public HeadlessReport run(int sessionCount, final int maxTicks, long baseSeed) throws InterruptedException {
+        final AtomicLong ticks = new AtomicLong();
+        final AtomicLong score = new AtomicLong();
+        final CountDownLatch latch = new CountDownLatch(sessionCount);
+        long startTime = System.nanoTime();
+        for(int i = 0; i < sessionCount; i++){
+            final long seed = baseSeed + i;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try{
+                        HeadlessSession session = createSession(seed);
+                        ticks.addAndGet(session.run(maxTicks));
+                        score.addAndGet(session.getWorld().getScore());
+                        session.destroy();
+                    }finally{
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+        long elapsedNanos = System.nanoTime() - startTime;
+        long bytesPerSession = measureBytesPerSession(baseSeed);
+        return new HeadlessReport(sessionCount, ticks.get(), elapsedNanos, score.get(), bytesPerSession);
+    }
+
+    private long measureBytesPerSession(long seed){
+        Runtime runtime = Runtime.getRuntime();
+        long before = usedMemory(runtime);
+        List<HeadlessSession> sessions = new ArrayList<HeadlessSession>(MEMORY_SAMPLE_SESSIONS);
+        for(int i = 0; i < MEMORY_SAMPLE_SESSIONS; i++){
+            HeadlessSession session = createSession(seed + i);
+            session.run(MEMORY_SAMPLE_TICKS);
+            sessions.add(session);
+        }
+        long after = usedMemory(runtime);
+        long bytesPerSession = Math.max(0, after - before) / sessions.size();
+        for(HeadlessSession session : sessions){
+            session.destroy();
+        }
+        return bytesPerSession;
+    }
+
+    private static long usedMemory(Runtime runtime){
+        for(int i = 0; i < 3; i++){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public void shutdown(){
+        executor.shutdown();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 1){
+            System.err.println("usage: HeadlessServer <drawableDir> [sessions] [threads] [maxTicks] [density]");
+            System.exit(1);
+        }
+        File drawableDir = new File(args[0]);
+        int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int maxTicks = args.length > 3 ? Integer.parseInt(args[3]) : 3600;
+        float density = args.length > 4 ? Float.parseFloat(args[4]) : 2;
+        SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+        int width = Math.round(360 * density);
+        int height = Math.round(640 * density);
+        HeadlessServer server = new HeadlessServer(images, width, height, density, threads);
+        try{
+            System.out.println(server.run(sessions, maxTicks, 1));
+        }finally{
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+
+public class HeadlessSession {
+
+    private final GameWorld world;
+    private final PlayerController[] controllers;
+    private final PlayerInput[] inputs;
+
+    public HeadlessSession(SpriteImage[] images, int width, int height, float density, long seed, PlayerController[] controllers){
+        this.world = new GameWorld(images, controllers.length, seed, density);
+        this.world.setSize(width, height);
+        this.controllers = controllers;
+        this.inputs = new PlayerInput[controllers.length];
+        for(int player = 0; player < inputs.length; player++){
+            inputs[player] = new PlayerInput();
+        }
+    }
+
+    public GameWorld getWorld(){
+        return world;
+    }
+
+    public void tick(){
+        applyInputs();
+        world.update();
+    }
+
+    public void applyInputs(){
+        for(int player = 0; player < controllers.length; player++){
+            PlayerInput input = inputs[player];
+            input.clearFlags();
+            controllers[player].control(world, player, input);
+            world.applyInput(player, input);
+        }
+    }
+
+    public int run(int maxTicks){
+        int ticks = 0;
+        while(ticks < maxTicks && !world.isGameOver()){
+            tick();
+            ticks++;
+        }
+        return ticks;
+    }
+
+    public void destroy(){
+        world.destroy();
+    }
+}
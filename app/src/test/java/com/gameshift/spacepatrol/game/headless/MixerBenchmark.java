@@ -0,0 +1,76 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.audio.SoundBank;
+import com.gameshift.spacepatrol.game.audio.SoundMixer;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class MixerBenchmark {
+
+    public static void main(String[] args){
+        int maxVoices = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        int burstFrames = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int sampleRate = args.length > 3 ? Integer.parseInt(args[3]) : 48000;
+        SoundMixer mixer = new SoundMixer(SoundBank.createDefault(sampleRate), maxVoices, sampleRate);
+        short[] buffer = new short[burstFrames];
+        Random random = new Random(1);
+        int bursts = (int)((long)seconds * sampleRate / burstFrames);
+        int warmup = Math.min(bursts / 10, 20000);
+        AllocationCounter counter = AllocationCounter.create();
+        if(counter == null){
+            System.out.println(AllocationCounter.UNSUPPORTED);
+            return;
+        }
+        long allocated = 0;
+        long mixNanos = 0;
+        int maxActive = 0;
+        long checksum = 0;
+        for(int burst = 0; burst < warmup + bursts; burst++){
+            triggerEffects(mixer, random);
+            long bytesBefore = counter.read();
+            long start = System.nanoTime();
+            mixer.mix(buffer, 0, burstFrames);
+            long elapsed = System.nanoTime() - start;
+            long bytes = counter.read() - bytesBefore - counter.getOverhead();
+            checksum += buffer[burst % burstFrames];
+            maxActive = Math.max(maxActive, mixer.getActiveVoices());
+            if(burst >= warmup){
+                mixNanos += elapsed;
+                allocated += Math.max(bytes, 0);
+            }
+        }
+        double audioSeconds = (double)bursts * burstFrames / sampleRate;
+        System.out.println(String.format(Locale.US,
+                "voices=%d burst=%d frames audio=%.0fs mix=%.1fms realtime=%.0fx perBurst=%.2fus allocated=%dB maxActive=%d stolen=%d dropped=%d checksum=%d",
+                maxVoices, burstFrames, audioSeconds, mixNanos / 1000000.0, audioSeconds * 1e9 / Math.max(mixNanos, 1),
+                mixNanos / 1000.0 / bursts, allocated, maxActive, mixer.getStolenVoices(), mixer.getDroppedRequests(), checksum));
+        if(maxActive > maxVoices){
+            System.exit(1);
+        }
+    }
+
+    private static void triggerEffects(SoundMixer mixer, Random random){
+        int roll = random.nextInt(100);
+        if(roll < 30){
+            mixer.play(SoundBank.SOUND_FIRE, 0.6f);
+        }
+        if(roll < 10){
+            for(int i = 0; i < 12; i++){
+                mixer.play(SoundBank.SOUND_EXPLOSION, 1);
+            }
+        }else if(roll < 20){
+            mixer.play(SoundBank.SOUND_EXPLOSION, 1);
+        }
+        if(roll == 99){
+            mixer.play(SoundBank.SOUND_BOMB, 1);
+            for(int i = 0; i < 40; i++){
+                mixer.play(SoundBank.SOUND_EXPLOSION, 1);
+            }
+        }
+        if(roll == 50){
+            mixer.play(SoundBank.SOUND_AWARD, 1);
+        }
+    }
+}
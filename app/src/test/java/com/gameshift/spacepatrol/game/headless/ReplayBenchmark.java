@@ -0,0 +1,120 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+import com.gameshift.spacepatrol.game.replay.Replay;
+import com.gameshift.spacepatrol.game.replay.ReplayPlayer;
+import com.gameshift.spacepatrol.game.replay.ReplayWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+public class ReplayBenchmark {
+    private static final int TICKS_PER_MINUTE = 3600;
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 2){
+            System.err.println("usage: ReplayBenchmark <drawableDir> <outputFile> [ticks] [keyframeInterval] [seeks] [bulletHellIntensity] [density]");
+            System.exit(1);
+        }
+        File drawableDir = new File(args[0]);
+        File outputFile = new File(args[1]);
+        int maxTicks = args.length > 2 ? Integer.parseInt(args[2]) : 36000;
+        int keyframeInterval = args.length > 3 ? Integer.parseInt(args[3]) : 300;
+        int seeks = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+        int intensity = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        float density = args.length > 6 ? Float.parseFloat(args[6]) : 2;
+        SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+
+        Random random = new Random(7);
+        long[] checkTicks = new long[seeks];
+        for(int i = 0; i < seeks; i++){
+            checkTicks[i] = random.nextInt(maxTicks);
+        }
+        Arrays.sort(checkTicks);
+        byte[][] expected = new byte[seeks][];
+
+        GameWorld world = new GameWorld(images, 1, 1, density);
+        world.setSize(Math.round(360 * density), Math.round(640 * density));
+        world.setBulletHellIntensity(intensity);
+        AutopilotController autopilot = new AutopilotController();
+        PlayerInput input = new PlayerInput();
+        ReplayWriter writer = new ReplayWriter(outputFile, world, keyframeInterval);
+        int next = 0;
+        long recordNanos = 0;
+        while(world.getFrame() < maxTicks && !world.isGameOver()){
+            while(next < seeks && checkTicks[next] == world.getFrame()){
+                expected[next++] = saveState(world);
+            }
+            long start = System.nanoTime();
+            writer.beginTick(world);
+            input.clearFlags();
+            autopilot.control(world, 0, input);
+            writer.recordInput(0, input);
+            world.applyInput(0, input);
+            world.update();
+            recordNanos += System.nanoTime() - start;
+        }
+        writer.close();
+        long recordedTicks = world.getFrame();
+        world.destroy();
+
+        Replay replay = Replay.read(outputFile);
+        ReplayPlayer player = new ReplayPlayer(replay, images);
+        int checked = 0;
+        int mismatches = 0;
+        long maxSeekNanos = 0;
+        long totalSeekNanos = 0;
+        for(int pass = 0; pass < 2; pass++){
+            Random order = new Random(pass);
+            for(int i = 0; i < seeks; i++){
+                int index = order.nextInt(seeks);
+                if(expected[index] == null){
+                    continue;
+                }
+                long start = System.nanoTime();
+                player.seek(checkTicks[index]);
+                long elapsed = System.nanoTime() - start;
+                if(pass == 1){
+                    checked++;
+                    maxSeekNanos = Math.max(maxSeekNanos, elapsed);
+                    totalSeekNanos += elapsed;
+                    if(!Arrays.equals(expected[index], saveState(player.getWorld()))){
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        player.seek(0);
+        long playedTicks = 0;
+        while(player.step()){
+            playedTicks++;
+        }
+        player.destroy();
+
+        long bytes = outputFile.length();
+        System.out.println(String.format(Locale.US,
+                "ticks=%d played=%d keyframes=%d bytes=%d bytesPerMinute=%.0f recordOverhead=%.1fus/tick seekAvg=%.1fms seekMax=%.1fms checked=%d mismatches=%d",
+                recordedTicks, playedTicks, replay.getKeyframeCount(), bytes, bytes * (double)TICKS_PER_MINUTE / recordedTicks,
+                recordNanos / 1000.0 / recordedTicks, checked > 0 ? totalSeekNanos / 1e6 / checked : 0, maxSeekNanos / 1e6,
+                checked, mismatches));
+        if(mismatches > 0 || playedTicks != recordedTicks){
+            System.exit(1);
+        }
+    }
+
+    private static byte[] saveState(GameWorld world) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        world.saveState(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
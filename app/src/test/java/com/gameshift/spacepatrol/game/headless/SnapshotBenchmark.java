@@ -0,0 +1,143 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.render.RenderBackend;
+import com.gameshift.spacepatrol.game.render.RenderSnapshot;
+import com.gameshift.spacepatrol.game.render.SnapshotExchange;
+import com.gameshift.spacepatrol.game.render.SpriteBatcher;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SnapshotBenchmark {
+    private static final int WARMUP_TICKS = 2000;
+    private static final int WARMUP_FRAMES = 100;
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 1){
+            System.err.println("usage: SnapshotBenchmark <drawableDir> [ticks] [bulletHellIntensity] [frameMillis] [density]");
+            System.exit(1);
+        }
+        if(AllocationCounter.create() == null){
+            System.out.println(AllocationCounter.UNSUPPORTED);
+            return;
+        }
+        File drawableDir = new File(args[0]);
+        final int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        final int intensity = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        long frameMillis = args.length > 3 ? Long.parseLong(args[3]) : 4;
+        final float density = args.length > 4 ? Float.parseFloat(args[4]) : 2;
+        if(ticks <= WARMUP_TICKS){
+            System.err.println("ticks must be greater than the " + WARMUP_TICKS + " warmup ticks");
+            System.exit(1);
+        }
+        final SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+        final SnapshotExchange exchange = new SnapshotExchange();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final long[] writerStats = new long[3];
+
+        Thread simulation = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                AllocationCounter allocations = AllocationCounter.create();
+                long seed = 1;
+                HeadlessSession session = null;
+                long bytes = 0;
+                long nanos = 0;
+                long measured = 0;
+                for(int i = 0; i < ticks; i++){
+                    if(session == null || session.getWorld().isGameOver()){
+                        if(session != null){
+                            session.destroy();
+                        }
+                        PlayerController[] controllers = {new AutopilotController()};
+                        session = new HeadlessSession(images, Math.round(360 * density), Math.round(640 * density), density, seed++, controllers);
+                        session.getWorld().setBulletHellIntensity(intensity);
+                    }
+                    session.tick();
+                    GameWorld world = session.getWorld();
+                    long before = allocations.read();
+                    long start = System.nanoTime();
+                    world.writeSnapshot(exchange.beginWrite());
+                    exchange.publish();
+                    long elapsed = System.nanoTime() - start;
+                    long allocated = allocations.read() - before - allocations.getOverhead();
+                    if(i >= WARMUP_TICKS){
+                        nanos += elapsed;
+                        bytes += Math.max(allocated, 0);
+                        measured++;
+                    }
+                }
+                session.destroy();
+                writerStats[0] = nanos;
+                writerStats[1] = bytes;
+                writerStats[2] = measured;
+                running.set(false);
+            }
+        }, "simulation");
+
+        final SpriteBatcher batcher = new SpriteBatcher();
+        final long[] drawn = new long[1];
+        RenderBackend backend = new RenderBackend() {
+            @Override
+            public void beginFrame(){}
+
+            @Override
+            public void drawBatch(SpriteImage image, float[] vertices, float[] texCoords, int spriteCount){
+                drawn[0] += spriteCount;
+            }
+
+            @Override
+            public void endFrame(){}
+        };
+        AllocationCounter allocations = AllocationCounter.create();
+        simulation.start();
+        long frames = 0;
+        long fresh = 0;
+        long torn = 0;
+        long lastSequence = 0;
+        long renderBytes = 0;
+        long acquireNanos = 0;
+        while(running.get()){
+            Thread.sleep(frameMillis);
+            long before = allocations.read();
+            long start = System.nanoTime();
+            RenderSnapshot snapshot = exchange.acquire();
+            acquireNanos += System.nanoTime() - start;
+            if(snapshot == null){
+                continue;
+            }
+            long sequence = snapshot.getSequence();
+            long frame = snapshot.getFrame();
+            drawn[0] = 0;
+            batcher.begin();
+            snapshot.submitTo(batcher);
+            batcher.flush(backend);
+            if(drawn[0] != snapshot.getSpriteCount() || snapshot.getSequence() != sequence
+                    || snapshot.getFrame() != frame || sequence < lastSequence){
+                torn++;
+            }
+            if(sequence != lastSequence){
+                fresh++;
+                lastSequence = sequence;
+            }
+            frames++;
+            long allocated = allocations.read() - before - allocations.getOverhead();
+            if(frames > WARMUP_FRAMES){
+                renderBytes += Math.max(allocated, 0);
+            }
+        }
+        simulation.join();
+        System.out.println(String.format(Locale.US,
+                "published=%d rendered=%d fresh=%d torn=%d writer=%.2fus/snapshot writerAlloc=%dB renderAlloc=%dB acquire=%.0fns",
+                exchange.getPublishedCount(), frames, fresh, torn, writerStats[0] / 1000.0 / writerStats[2],
+                writerStats[1], renderBytes, frames > 0 ? (double)acquireNanos / frames : 0));
+        if(torn > 0){
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.GameMetrics;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.autopilot.SoakStats;
+import com.gameshift.spacepatrol.game.metrics.GcCountSource;
+import com.gameshift.spacepatrol.game.metrics.MetricsExporter;
+import com.gameshift.spacepatrol.game.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+public class SoakRunner {
+
+    private final SpriteImage[] images;
+    private final int width;
+    private final int height;
+    private final float density;
+    private final SoakStats stats = new SoakStats();
+    private GameMetrics metrics = null;
+
+    public SoakRunner(SpriteImage[] images, int width, int height, float density){
+        this.images = images;
+        this.width = width;
+        this.height = height;
+        this.density = density;
+    }
+
+    private HeadlessSession createSession(long seed){
+        PlayerController[] controllers = {new AutopilotController()};
+        HeadlessSession session = new HeadlessSession(images, width, height, density, seed, controllers);
+        session.getWorld().setMetrics(metrics);
+        return session;
+    }
+
+    public void setMetrics(GameMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    public SoakStats getStats(){
+        return stats;
+    }
+
+    public void run(long durationMillis, int ticksPerSecond, long reportIntervalMillis, PrintStream out) throws InterruptedException {
+        long seed = 1;
+        HeadlessSession session = createSession(seed);
+        long startTime = System.nanoTime();
+        long endTime = durationMillis > 0 ? startTime + durationMillis * 1000000L : Long.MAX_VALUE;
+        long tickInterval = ticksPerSecond > 0 ? 1000000000L / ticksPerSecond : 0;
+        long nextTickTime = startTime;
+        long nextReportTime = startTime + reportIntervalMillis * 1000000L;
+        while(true){
+            long now = System.nanoTime();
+            if(now >= endTime){
+                break;
+            }
+            if(session.getWorld().isGameOver()){
+                stats.recordGameOver();
+                if(metrics != null){
+                    metrics.recordGameOver();
+                }
+                session.destroy();
+                session = createSession(++seed);
+            }
+            long tickStart = System.nanoTime();
+            session.tick();
+            long tickNanos = System.nanoTime() - tickStart;
+            stats.recordTick(tickNanos);
+            if(metrics != null){
+                metrics.recordTick(tickNanos);
+                metrics.sample(session.getWorld());
+            }
+            if(now >= nextReportTime){
+                out.println(stats.report(session.getWorld()));
+                nextReportTime += reportIntervalMillis * 1000000L;
+            }
+            if(tickInterval > 0){
+                nextTickTime += tickInterval;
+                long sleepNanos = nextTickTime - System.nanoTime();
+                if(sleepNanos > 0){
+                    Thread.sleep(sleepNanos / 1000000L, (int)(sleepNanos % 1000000L));
+                }
+            }
+        }
+        out.println(stats.report(session.getWorld()));
+        session.destroy();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 1){
+            System.err.println("usage: SoakRunner <drawableDir> [minutes, 0 = forever] [ticksPerSecond, 0 = unthrottled] [reportSeconds] [density] [metricsDir] [csv|json]");
+            System.exit(1);
+        }
+        File drawableDir = new File(args[0]);
+        long minutes = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        int ticksPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 600;
+        long reportSeconds = args.length > 3 ? Long.parseLong(args[3]) : 10;
+        float density = args.length > 4 ? Float.parseFloat(args[4]) : 2;
+        SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+        SoakRunner runner = new SoakRunner(images, Math.round(360 * density), Math.round(640 * density), density);
+        MetricsExporter exporter = null;
+        if(args.length > 5){
+            int format = args.length > 6 && args[6].equals("json") ? MetricsExporter.FORMAT_JSON : MetricsExporter.FORMAT_CSV;
+            GameMetrics metrics = new GameMetrics(new MetricsRegistry(new GcCountSource() {
+                @Override
+                public long getGcCount(){
+                    long count = 0;
+                    for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()){
+                        count += Math.max(collector.getCollectionCount(), 0);
+                    }
+                    return count;
+                }
+            }));
+            exporter = new MetricsExporter(metrics.getRegistry(), new File(args[5]), format, reportSeconds * 1000L, 4 << 20, 8);
+            runner.setMetrics(metrics);
+            exporter.start();
+        }
+        runner.run(minutes * 60000L, ticksPerSecond, reportSeconds * 1000L, System.out);
+        if(exporter != null){
+            exporter.close();
+            if(exporter.getFailure() != null){
+                throw exporter.getFailure();
+            }
+        }
+    }
+}
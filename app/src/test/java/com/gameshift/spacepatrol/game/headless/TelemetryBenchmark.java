@@ -0,0 +1,128 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.telemetry.TelemetryRing;
+import com.gameshift.spacepatrol.game.telemetry.TelemetryWriter;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+public class TelemetryBenchmark {
+    private static final int RING_CAPACITY = 8192;
+    private static final int MICRO_EVENTS = 20000000;
+
+    public static void main(String[] args) throws Exception {
+        if(args.length < 2){
+            System.err.println("usage: TelemetryBenchmark <drawableDir> <outputDir> [ticks] [bulletHellIntensity] [density]");
+            System.exit(1);
+        }
+        File drawableDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 200000;
+        int intensity = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        float density = args.length > 4 ? Float.parseFloat(args[4]) : 2;
+        SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+
+        double nanosPerEvent = measureRecordCost();
+        runSession(images, density, intensity, ticks, new TelemetryRing(RING_CAPACITY));
+        long plainNanos = runSession(images, density, intensity, ticks, null);
+
+        TelemetryRing ring = new TelemetryRing(RING_CAPACITY);
+        TelemetryWriter writer = new TelemetryWriter(ring, outputDir, 1 << 20, 64);
+        writer.start();
+        long telemetryNanos = runSession(images, density, intensity, ticks, ring);
+        writer.close();
+        if(writer.getFailure() != null){
+            throw writer.getFailure();
+        }
+        long readBack = countRecords(outputDir);
+        double eventsPerTick = (double)ring.getRecorded() / ticks;
+        double tickNanos = (double)plainNanos / ticks;
+        System.out.println(String.format(Locale.US,
+                "record=%.1fns/event events/tick=%.3f tick=%.1fus estimatedOverhead=%.4f%% measuredDelta=%.2f%% recorded=%d dropped=%d written=%d readBack=%d",
+                nanosPerEvent, eventsPerTick, tickNanos / 1000, nanosPerEvent * eventsPerTick / tickNanos * 100,
+                (telemetryNanos - plainNanos) * 100.0 / plainNanos,
+                ring.getRecorded(), ring.getDropped(), writer.getWrittenEvents(), readBack));
+        if(readBack != writer.getWrittenEvents()){
+            System.exit(1);
+        }
+    }
+
+    private static double measureRecordCost(){
+        TelemetryRing ring = new TelemetryRing(RING_CAPACITY);
+        long[] sink = new long[RING_CAPACITY * TelemetryRing.LONGS_PER_EVENT];
+        long best = Long.MAX_VALUE;
+        for(int round = 0; round < 5; round++){
+            long start = System.nanoTime();
+            for(int i = 0; i < MICRO_EVENTS; i++){
+                if(!ring.record(TelemetryRing.TYPE_KILL, i, TelemetryRing.KIND_SMALL, 0, 1000, i, -i)){
+                    ring.drain(sink, RING_CAPACITY);
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double)best / MICRO_EVENTS;
+    }
+
+    private static long runSession(SpriteImage[] images, float density, int intensity, int ticks, TelemetryRing ring){
+        long seed = 1;
+        long elapsed = 0;
+        HeadlessSession session = null;
+        for(int i = 0; i < ticks; i++){
+            if(session == null || session.getWorld().isGameOver()){
+                if(session != null){
+                    session.destroy();
+                }
+                PlayerController[] controllers = {new AutopilotController()};
+                session = new HeadlessSession(images, Math.round(360 * density), Math.round(640 * density), density, seed++, controllers);
+                session.getWorld().setBulletHellIntensity(intensity);
+                session.getWorld().setTelemetry(ring);
+            }
+            long start = System.nanoTime();
+            session.tick();
+            elapsed += System.nanoTime() - start;
+        }
+        session.destroy();
+        return elapsed;
+    }
+
+    private static long countRecords(File directory) throws IOException {
+        long records = 0;
+        File[] files = directory.listFiles();
+        if(files == null){
+            return 0;
+        }
+        for(File file : files){
+            if(!file.getName().endsWith(".bin.gz")){
+                continue;
+            }
+            DataInputStream in = new DataInputStream(new GZIPInputStream(new FileInputStream(file)));
+            try{
+                in.readInt();
+                if(in.readInt() != TelemetryWriter.FORMAT_VERSION){
+                    throw new IOException("Unexpected version in " + file);
+                }
+                int recordSize = in.readInt();
+                byte[] record = new byte[recordSize];
+                while(true){
+                    try{
+                        in.readFully(record);
+                    }catch(EOFException e){
+                        break;
+                    }
+                    records++;
+                }
+            }finally{
+                in.close();
+            }
+        }
+        return records;
+    }
+}
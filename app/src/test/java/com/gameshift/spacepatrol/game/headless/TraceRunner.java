@@ -0,0 +1,31 @@
+package com.gameshift.spacepatrol.game.headless;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.trace.TraceRecorder;
+
+import java.io.File;
+
+public class TraceRunner {
+    public static void main(String[] args) throws Exception {
+        if(args.length < 2){
+            System.err.println("usage: TraceRunner <drawableDir> <outputFile> [ticks] [capacity] [density]");
+            System.exit(1);
+        }
+        File drawableDir = new File(args[0]);
+        File outputFile = new File(args[1]);
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 600;
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 1 << 20;
+        float density = args.length > 4 ? Float.parseFloat(args[4]) : 2;
+        SpriteImage[] images = HeadlessAssets.load(drawableDir, density);
+        TraceRecorder recorder = new TraceRecorder(capacity, 1);
+        PlayerController[] controllers = {new AutopilotController()};
+        HeadlessSession session = new HeadlessSession(images, Math.round(360 * density), Math.round(640 * density), density, 1, controllers);
+        session.getWorld().setProbe(recorder);
+        int ran = session.run(ticks);
+        session.destroy();
+        recorder.writeChromeTrace(outputFile);
+        System.out.println("ticks=" + ran + " spans=" + recorder.getRecorded() + " written=" + recorder.getRetained() + " -> " + outputFile);
+    }
+}
@@ -0,0 +1,94 @@
+package com.gameshift.spacepatrol.game.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramTest {
+    private static final int WRITERS = 4;
+    private static final int VALUES_PER_WRITER = 200000;
+
+    @Test
+    public void snapshotReportsCountSumMaxAndQuantiles(){
+        Histogram histogram = new Histogram("test");
+        for(long value = 1; value <= 1000; value++){
+            histogram.record(value);
+        }
+        histogram.record(-5);
+        Histogram.Snapshot snapshot = new Histogram.Snapshot();
+        histogram.drain(snapshot);
+        assertEquals(1001, snapshot.getCount());
+        assertEquals(500500, snapshot.getSum());
+        assertEquals(1000, snapshot.getMax());
+        long median = snapshot.valueAt(0.5);
+        assertTrue("median " + median, median >= 500 && median <= 500 * 17 / 16);
+        assertEquals(1000, snapshot.valueAt(1));
+
+        histogram.drain(snapshot);
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getSum());
+        assertEquals(0, snapshot.getMax());
+    }
+
+    @Test
+    public void concurrentDrainsLoseNothing() throws InterruptedException {
+        final Histogram histogram = new Histogram("test");
+        final CountDownLatch done = new CountDownLatch(WRITERS);
+        final AtomicBoolean start = new AtomicBoolean();
+        for(int w = 0; w < WRITERS; w++){
+            final int writer = w;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while(!start.get()){
+                        Thread.yield();
+                    }
+                    for(int i = 1; i <= VALUES_PER_WRITER; i++){
+                        histogram.record(i + writer);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        Histogram.Snapshot snapshot = new Histogram.Snapshot();
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        int drains = 0;
+        start.set(true);
+        while(done.getCount() > 0){
+            histogram.drain(snapshot);
+            count += checkedCount(snapshot);
+            sum += snapshot.getSum();
+            max = Math.max(max, snapshot.getMax());
+            drains++;
+        }
+        histogram.drain(snapshot);
+        count += checkedCount(snapshot);
+        sum += snapshot.getSum();
+        max = Math.max(max, snapshot.getMax());
+
+        long n = VALUES_PER_WRITER;
+        long expectedSum = 0;
+        for(int w = 0; w < WRITERS; w++){
+            expectedSum += n * (n + 1) / 2 + n * w;
+        }
+        assertTrue(drains > 1);
+        assertEquals(WRITERS * n, count);
+        assertEquals(expectedSum, sum);
+        assertEquals(n + WRITERS - 1, max);
+    }
+
+    private static long checkedCount(Histogram.Snapshot snapshot){
+        long total = 0;
+        for(long count : snapshot.getCounts()){
+            total += count;
+        }
+        assertEquals(total, snapshot.getCount());
+        return total;
+    }
+}
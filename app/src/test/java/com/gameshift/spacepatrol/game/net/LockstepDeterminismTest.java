@@ -0,0 +1,120 @@
+package com.gameshift.spacepatrol.game.net;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LockstepDeterminismTest {
+    private static final int WORLD_WIDTH = 720;
+    private static final int WORLD_HEIGHT = 1280;
+    private static final float DENSITY = 2;
+    private static final int INPUT_DELAY = 4;
+    private static final int TICKS = 5000;
+    private static final int MAX_STEPS = TICKS * 50;
+
+    private static class Peer {
+        final LockstepSession session;
+        final GameWorld world;
+        final List<Long> checksums = new ArrayList<Long>();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final CRC32 crc = new CRC32();
+
+        Peer(InputTransport transport, int player, long seed){
+            session = new LockstepSession(transport, player, seed, INPUT_DELAY);
+            world = new GameWorld(createImages(), LockstepSession.PLAYER_COUNT, seed, DENSITY);
+            world.setSize(WORLD_WIDTH, WORLD_HEIGHT);
+        }
+
+        boolean isDone(){
+            return world.isGameOver() || session.getTick() >= TICKS;
+        }
+
+        void step() throws IOException {
+            session.update();
+            if(!session.isTickReady()){
+                return;
+            }
+            for(int player = 0; player < LockstepSession.PLAYER_COUNT; player++){
+                world.applyInput(player, session.getInput(player));
+            }
+            world.update();
+            int tick = session.getTick();
+            int player = session.getLocalPlayer();
+            double phase = tick * 0.013 + player * 2.1;
+            int x = (int)(WORLD_WIDTH / 2 + WORLD_WIDTH / 3 * StrictMath.sin(phase));
+            int y = (int)(WORLD_HEIGHT * 0.75 + WORLD_HEIGHT / 8 * StrictMath.cos(phase * 0.7));
+            session.setLocalPosition(x, y);
+            if(tick % (500 + 170 * player) == 0){
+                session.requestLocalBomb();
+            }
+            session.advance();
+            checksums.add(checksum());
+        }
+
+        long checksum() throws IOException {
+            bytes.reset();
+            world.saveState(new DataOutputStream(bytes));
+            crc.reset();
+            crc.update(bytes.toByteArray());
+            return crc.getValue();
+        }
+    }
+
+    private static SpriteImage[] createImages(){
+        return new SpriteImage[]{
+                new SpriteImage(200, 248),
+                new SpriteImage(1792, 128),
+                new SpriteImage(20, 44),
+                new SpriteImage(20, 44),
+                new SpriteImage(136, 100),
+                new SpriteImage(184, 240),
+                new SpriteImage(440, 660),
+                new SpriteImage(120, 212),
+                new SpriteImage(120, 212)
+        };
+    }
+
+    @Test
+    public void peersStayInSyncOverLossyLoopback() throws IOException {
+        runPeers(0.2f, 7);
+    }
+
+    @Test
+    public void peersStayInSyncWithoutLoss() throws IOException {
+        runPeers(0, 11);
+    }
+
+    private void runPeers(float dropRate, long seed) throws IOException {
+        LoopbackTransport[] transports = LoopbackTransport.createPair();
+        transports[0].setDropRate(dropRate);
+        transports[1].setDropRate(dropRate);
+        Peer[] peers = {new Peer(transports[0], 0, seed), new Peer(transports[1], 1, seed)};
+        Random schedule = new Random(seed);
+        for(int steps = 0; steps < MAX_STEPS && !(peers[0].isDone() && peers[1].isDone()); steps++){
+            Peer peer = peers[schedule.nextInt(2)];
+            if(!peer.isDone()){
+                peer.step();
+            }
+        }
+        peers[0].session.close();
+        peers[1].session.close();
+        assertTrue("peers stalled", peers[0].isDone() && peers[1].isDone());
+        assertEquals(peers[0].checksums.size(), peers[1].checksums.size());
+        assertTrue("too few ticks simulated: " + peers[0].checksums.size(), peers[0].checksums.size() > 500);
+        for(int tick = 0; tick < peers[0].checksums.size(); tick++){
+            assertEquals("desync at tick " + tick, peers[0].checksums.get(tick), peers[1].checksums.get(tick));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.gameshift.spacepatrol.game.render;
+
+import com.gameshift.spacepatrol.game.SpriteImage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordingRenderBackend implements RenderBackend {
+
+    private final List<SpriteImage> batchImages = new ArrayList<SpriteImage>();
+    private final List<Integer> batchSizes = new ArrayList<Integer>();
+    private final List<float[]> batchPositions = new ArrayList<float[]>();
+    private int frames = 0;
+    private boolean inFrame = false;
+
+    @Override
+    public void beginFrame(){
+        if(inFrame){
+            throw new IllegalStateException("beginFrame() called twice");
+        }
+        inFrame = true;
+        batchImages.clear();
+        batchSizes.clear();
+        batchPositions.clear();
+    }
+
+    @Override
+    public void drawBatch(SpriteImage image, float[] vertices, float[] texCoords, int spriteCount){
+        if(!inFrame){
+            throw new IllegalStateException("drawBatch() outside of a frame");
+        }
+        batchImages.add(image);
+        batchSizes.add(spriteCount);
+        float[] positions = new float[spriteCount * 2];
+        for(int i = 0; i < spriteCount; i++){
+            positions[i * 2] = vertices[i * 8];
+            positions[i * 2 + 1] = vertices[i * 8 + 1];
+        }
+        batchPositions.add(positions);
+    }
+
+    @Override
+    public void endFrame(){
+        inFrame = false;
+        frames++;
+    }
+
+    public int getFrameCount(){
+        return frames;
+    }
+
+    public int getBatchCount(){
+        return batchSizes.size();
+    }
+
+    public SpriteImage getBatchImage(int batch){
+        return batchImages.get(batch);
+    }
+
+    public int getBatchSize(int batch){
+        return batchSizes.get(batch);
+    }
+
+    public float getSpriteLeft(int batch, int sprite){
+        return batchPositions.get(batch)[sprite * 2];
+    }
+
+    public float getSpriteTop(int batch, int sprite){
+        return batchPositions.get(batch)[sprite * 2 + 1];
+    }
+
+    public int getSpriteCount(){
+        int total = 0;
+        for(int size : batchSizes){
+            total += size;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,208 @@
+package com.gameshift.spacepatrol.game.render;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.Sprite;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.autopilot.PlayerController;
+import com.gameshift.spacepatrol.game.headless.HeadlessAssets;
+import com.gameshift.spacepatrol.game.headless.HeadlessSession;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class SpriteBatcherTest {
+    public static final String SMOKE_TESTS_PROPERTY = "spacepatrol.smokeTests";
+    private static final File DRAWABLE_DIR = new File("src/main/res/drawable");
+    private static final float DENSITY = 2;
+    private static final int TICKS = 20000;
+
+    private final SpriteBatcher batcher = new SpriteBatcher();
+    private final RecordingRenderBackend backend = new RecordingRenderBackend();
+    private final SpriteImage[] images = {
+            new SpriteImage(4, 4),
+            new SpriteImage(20, 44),
+            new SpriteImage(136, 100),
+            new SpriteImage(1, 300),
+            new SpriteImage(64, 64)
+    };
+
+    private int[] commandLayers = new int[0];
+    private SpriteImage[] commandImages = new SpriteImage[0];
+    private int commandCount = 0;
+
+    @Test
+    public void repeatedImageOnOneLayerIsNotSplit(){
+        begin();
+        submit(0, images[0]);
+        submit(0, images[1]);
+        submit(0, images[0]);
+        submit(0, images[1]);
+        submit(0, images[0]);
+        flush();
+        assertEquals(2, backend.getBatchCount());
+        assertEquals(3, backend.getBatchSize(0));
+        assertEquals(2, backend.getBatchSize(1));
+    }
+
+    @Test
+    public void lowerLayerIsDrawnFirst(){
+        begin();
+        submit(3, images[0]);
+        submit(1, images[2]);
+        submit(3, images[1]);
+        submit(1, images[0]);
+        flush();
+        assertEquals(4, backend.getBatchCount());
+        assertEquals(1, (int)backend.getSpriteLeft(0, 0));
+        assertEquals(1, (int)backend.getSpriteLeft(1, 0));
+        assertEquals(3, (int)backend.getSpriteLeft(2, 0));
+        assertEquals(3, (int)backend.getSpriteLeft(3, 0));
+    }
+
+    @Test
+    public void interleavedLayersAndImagesFormOneBatchPerPair(){
+        int[] layers = {0, 1, 2, 5};
+        Random random = new Random(7);
+        Set<Long> pairs = new HashSet<Long>();
+        begin();
+        for(int i = 0; i < 2000; i++){
+            int layer = layers[random.nextInt(layers.length)];
+            SpriteImage image = images[random.nextInt(images.length)];
+            submit(layer, image);
+            pairs.add(pair(layer, image));
+        }
+        flush();
+        assertEquals(pairs.size(), backend.getBatchCount());
+    }
+
+    @Test
+    public void oversizedGroupSplitsIntoConsecutiveFullBatches(){
+        int large = SpriteBatcher.MAX_BATCH_SPRITES * 2 + 5;
+        begin();
+        for(int i = 0; i < large; i++){
+            submit(2, images[0]);
+            if(i % 1000 == 0){
+                submit(2, images[1]);
+            }
+        }
+        flush();
+        assertEquals(4, backend.getBatchCount());
+        assertEquals(SpriteBatcher.MAX_BATCH_SPRITES, backend.getBatchSize(0));
+        assertEquals(SpriteBatcher.MAX_BATCH_SPRITES, backend.getBatchSize(1));
+        assertEquals(5, backend.getBatchSize(2));
+        assertEquals(17, backend.getBatchSize(3));
+    }
+
+    @Test
+    public void autopilotGameIsDrawnWithoutSplitBatches() throws IOException {
+        assumeTrue(Boolean.getBoolean(SMOKE_TESTS_PROPERTY));
+        SpriteImage[] images = HeadlessAssets.load(DRAWABLE_DIR, DENSITY);
+        int width = Math.round(360 * DENSITY);
+        int height = Math.round(640 * DENSITY);
+        PlayerController[] controllers = {new AutopilotController()};
+        long seed = 1;
+        HeadlessSession session = new HeadlessSession(images, width, height, DENSITY, seed, controllers);
+        long sprites = 0;
+        for(int i = 0; i < TICKS; i++){
+            if(session.getWorld().isGameOver()){
+                session.destroy();
+                session = new HeadlessSession(images, width, height, DENSITY, ++seed, controllers);
+            }
+            session.tick();
+            sprites += record(session.getWorld());
+        }
+        session.destroy();
+        assertEquals(TICKS, backend.getFrameCount());
+        assertTrue("no sprites were drawn", sprites > 0);
+    }
+
+    private int record(GameWorld world){
+        batcher.begin();
+        List<Sprite> worldSprites = world.getSprites();
+        for(int i = 0; i < worldSprites.size(); i++){
+            worldSprites.get(i).submit(batcher);
+        }
+        for(int player = 0; player < world.getPlayerCount(); player++){
+            world.getAircraft(player).submit(batcher);
+        }
+        int submitted = batcher.getCommandCount();
+        batcher.flush(backend);
+        assertEquals("sprites drawn", submitted, backend.getSpriteCount());
+        for(int batch = 1; batch < backend.getBatchCount(); batch++){
+            SpriteImage image = backend.getBatchImage(batch);
+            boolean split = image == backend.getBatchImage(batch - 1)
+                    && backend.getBatchSize(batch - 1) < SpriteBatcher.MAX_BATCH_SPRITES;
+            assertFalse("image " + image.getId() + " was split across batches", split);
+        }
+        return submitted;
+    }
+
+    private void begin(){
+        batcher.begin();
+        commandCount = 0;
+    }
+
+    private void submit(int layer, SpriteImage image){
+        if(commandCount == commandLayers.length){
+            commandLayers = Arrays.copyOf(commandLayers, commandCount * 2 + 16);
+            commandImages = Arrays.copyOf(commandImages, commandCount * 2 + 16);
+        }
+        commandLayers[commandCount] = layer;
+        commandImages[commandCount] = image;
+        batcher.add(layer, image, 0, 0, image.getWidth(), image.getHeight(),
+                layer, commandCount, layer + image.getWidth(), commandCount + image.getHeight());
+        commandCount++;
+    }
+
+    private void flush(){
+        batcher.flush(backend);
+        assertEquals("sprites drawn", commandCount, backend.getSpriteCount());
+        boolean[] drawn = new boolean[commandCount];
+        Set<Long> finishedPairs = new HashSet<Long>();
+        int previousLayer = Integer.MIN_VALUE;
+        long previousPair = -1;
+        int previousCommand = -1;
+        for(int batch = 0; batch < backend.getBatchCount(); batch++){
+            SpriteImage image = backend.getBatchImage(batch);
+            int layer = (int)backend.getSpriteLeft(batch, 0);
+            long pair = pair(layer, image);
+            assertTrue("layer " + layer + " drawn after layer " + previousLayer, layer >= previousLayer);
+            if(pair == previousPair){
+                assertEquals("batch " + (batch - 1) + " split before it was full",
+                        SpriteBatcher.MAX_BATCH_SPRITES, backend.getBatchSize(batch - 1));
+            }else{
+                assertTrue("layer " + layer + " image " + image.getId() + " drawn in more than one run",
+                        finishedPairs.add(pair));
+                previousCommand = -1;
+            }
+            for(int sprite = 0; sprite < backend.getBatchSize(batch); sprite++){
+                int command = (int)backend.getSpriteTop(batch, sprite);
+                assertFalse("command " + command + " drawn twice", drawn[command]);
+                drawn[command] = true;
+                assertEquals(commandLayers[command], (int)backend.getSpriteLeft(batch, sprite));
+                assertTrue(commandImages[command] == image);
+                assertTrue("submission order lost within a batch", command > previousCommand);
+                previousCommand = command;
+            }
+            previousLayer = layer;
+            previousPair = pair;
+        }
+    }
+
+    private static long pair(int layer, SpriteImage image){
+        return ((long)layer << 32) | image.getId();
+    }
+}
@@ -0,0 +1,138 @@
+package com.gameshift.spacepatrol.game.replay;
+
+import com.gameshift.spacepatrol.game.GameWorld;
+import com.gameshift.spacepatrol.game.SpriteImage;
+import com.gameshift.spacepatrol.game.autopilot.AutopilotController;
+import com.gameshift.spacepatrol.game.headless.HeadlessAssets;
+import com.gameshift.spacepatrol.game.net.PlayerInput;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplayTest {
+    private static final File DRAWABLE_DIR = new File("src/main/res/drawable");
+    private static final float DENSITY = 2;
+    private static final long SEED = 3;
+    private static final int TICKS = 3000;
+    private static final int KEYFRAME_INTERVAL = 300;
+
+    private static SpriteImage[] images;
+    private static byte[] recording;
+    private static byte[][] states;
+    private static int recordedTicks;
+
+    @BeforeClass
+    public static void record() throws IOException {
+        images = HeadlessAssets.load(DRAWABLE_DIR, DENSITY);
+        GameWorld world = new GameWorld(images, 1, SEED, DENSITY);
+        world.setSize(Math.round(360 * DENSITY), Math.round(640 * DENSITY));
+        AutopilotController autopilot = new AutopilotController();
+        PlayerInput input = new PlayerInput();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ReplayWriter writer = new ReplayWriter(bytes, world, KEYFRAME_INTERVAL);
+        states = new byte[TICKS + 1][];
+        while(world.getFrame() < TICKS && !world.isGameOver()){
+            states[(int)world.getFrame()] = saveState(world);
+            writer.beginTick(world);
+            input.clearFlags();
+            autopilot.control(world, 0, input);
+            writer.recordInput(0, input);
+            world.applyInput(0, input);
+            world.update();
+        }
+        recordedTicks = (int)world.getFrame();
+        states[recordedTicks] = saveState(world);
+        writer.close();
+        world.destroy();
+        recording = bytes.toByteArray();
+    }
+
+    @Test
+    public void linearPlaybackMatchesRecording() throws IOException {
+        Replay replay = Replay.read(new ByteArrayInputStream(recording));
+        assertEquals(recordedTicks, replay.getTickCount());
+        ReplayPlayer player = new ReplayPlayer(replay, images);
+        player.seek(0);
+        assertState(player, 0);
+        int ticks = 0;
+        while(player.step()){
+            ticks++;
+            assertState(player, ticks);
+        }
+        assertEquals(recordedTicks, ticks);
+        player.destroy();
+    }
+
+    @Test
+    public void seekMatchesLinearPlayback() throws IOException {
+        assertTrue("recording ended after " + recordedTicks + " ticks", recordedTicks > KEYFRAME_INTERVAL * 3);
+        ReplayPlayer player = new ReplayPlayer(Replay.read(new ByteArrayInputStream(recording)), images);
+        int last = recordedTicks;
+        int[] ticks = {
+                last, 0, KEYFRAME_INTERVAL * 2, KEYFRAME_INTERVAL * 2 - 1, KEYFRAME_INTERVAL * 2 + 1,
+                KEYFRAME_INTERVAL, 17, KEYFRAME_INTERVAL + 5, KEYFRAME_INTERVAL + 250, KEYFRAME_INTERVAL * 3 - 1,
+                last - 1, KEYFRAME_INTERVAL - 1, KEYFRAME_INTERVAL * 3, last / 2, 1
+        };
+        for(int tick : ticks){
+            player.seek(tick);
+            assertState(player, tick);
+        }
+        player.destroy();
+    }
+
+    @Test
+    public void truncatedRecordingReplaysCompleteChunks() throws IOException {
+        int cut = recording.length * 2 / 3 + 5;
+        Replay raw = Replay.read(new ByteArrayInputStream(Arrays.copyOf(recording, cut)));
+        checkTruncated(raw);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+        gzip.write(recording);
+        gzip.close();
+        byte[] gzipBytes = compressed.toByteArray();
+        byte[] truncated = Arrays.copyOf(gzipBytes, gzipBytes.length * 2 / 3);
+        checkTruncated(Replay.read(new GZIPInputStream(new ByteArrayInputStream(truncated))));
+    }
+
+    private void checkTruncated(Replay replay) throws IOException {
+        long available = replay.getTickCount();
+        assertTrue(replay.getKeyframeCount() > 0);
+        assertTrue("nothing survived truncation", available > 0);
+        assertTrue("truncation lost no ticks", available < recordedTicks);
+        ReplayPlayer player = new ReplayPlayer(replay, images);
+        player.seek(available);
+        assertState(player, (int)available);
+        assertFalse(player.step());
+        player.seek(available / 2);
+        assertState(player, (int)(available / 2));
+        player.destroy();
+    }
+
+    private static void assertState(ReplayPlayer player, int tick) throws IOException {
+        assertEquals(tick, player.getTick());
+        assertArrayEquals("state at tick " + tick, states[tick], saveState(player.getWorld()));
+    }
+
+    private static byte[] saveState(GameWorld world) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        world.saveState(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}